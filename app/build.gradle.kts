@@ -2,6 +2,10 @@ plugins {
     alias(libs.plugins.android.application)
 }
 
+// Database benchmarks in src/benchmark/java run on the JVM (Robolectric SQLite) only when asked for:
+// ./gradlew :app:testDebugUnitTest -Pbenchmark --tests "*Benchmark"
+val runBenchmarks = project.hasProperty("benchmark")
+
 android {
     namespace = "com.example.andriodproject"
     compileSdk = 36
@@ -29,10 +33,28 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    sourceSets {
+        getByName("test") {
+            if (runBenchmarks) java.srcDir("src/benchmark/java")
+        }
+    }
+}
+
+tasks.withType<Test>().configureEach {
+    if (runBenchmarks) {
+        maxHeapSize = "2g"
+        // Comma-separated LedgerGenerator presets, e.g. -Pbenchmark.presets=TX_1K,TX_1M
+        systemProperty("benchmark.presets", findProperty("benchmark.presets") ?: "TX_1K,TX_10K,TX_100K")
+        systemProperty("benchmark.warmup", findProperty("benchmark.warmup") ?: "20")
+        systemProperty("benchmark.iterations", findProperty("benchmark.iterations") ?: "200")
+        systemProperty("benchmark.output", layout.buildDirectory.dir("benchmark-results").get().asFile.path)
+        outputs.upToDateWhen { false }
+    }
 }
 
 dependencies {
 
+    implementation(project(":ledger-core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -52,6 +74,7 @@ dependencies {
     implementation("androidx.coordinatorlayout:coordinatorlayout:1.2.0")
     
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
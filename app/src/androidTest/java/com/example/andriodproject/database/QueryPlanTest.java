@@ -0,0 +1,182 @@
+package com.example.andriodproject.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.andriodproject.model.Budget;
+import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs every public query method of DataBaseHelper, captures the SQL it issued through the QueryTracer
+ * and fails if EXPLAIN QUERY PLAN shows a full scan of TRANSACTIONS or BUDGET, so a query that loses
+ * its index cannot ship unnoticed.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+
+    private static final String USER = "plan@example.com";
+
+    // Tables that grow with the user's history and must always be reached through an index
+    private static final Set<String> GUARDED_TABLES = new HashSet<>(Arrays.asList("TRANSACTIONS", "BUDGET"));
+
+    // Public methods that look like queries but never run SQL of their own
+    private static final Set<String> NOT_QUERIES = new HashSet<>(Arrays.asList(
+            "getInstance", "getQueryTracer", "getInvalidationTracker",
+            "getStatementCacheHitCount", "getStatementCacheMissCount", "getResultCacheHitCount",
+            "getResultCacheMissCount", "getResultCacheHitRate", "getResultCacheEvictionCount",
+            "getResultCacheInvalidationCount"));
+
+    // "SCAN t" (SQLite 3.36+) or "SCAN TABLE TRANSACTIONS AS t" (older)
+    private static final Pattern SCAN = Pattern.compile("\\bSCAN (?:TABLE )?(\\w+)");
+    private static final Pattern ALIAS = Pattern.compile("\\b(TRANSACTIONS|BUDGET) ([a-z]\\w*)\\b");
+
+    private DataBaseHelper dbHelper;
+    private final Set<String> capturedSql = new LinkedHashSet<>();
+    private final Set<String> calledMethods = new HashSet<>();
+    private final QueryTracer.Listener captureSql = (sql, rows, durationNanos) -> {
+        if (sql.startsWith("SELECT")) {
+            capturedSql.add(sql);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbHelper = new DataBaseHelper(context, null);
+
+        dbHelper.insertUser(new User(USER, "Plan", "Test", "secret"));
+        long food = dbHelper.insertCategory(new Category("Plan Food", "EXPENSE", USER));
+        long salary = dbHelper.insertCategory(new Category("Plan Salary", "INCOME", USER));
+        List<Transaction> rows = new ArrayList<>();
+        for (int day = 19000; day < 19100; day++) {
+            rows.add(new Transaction(USER, "EXPENSE", 1234, day, food, "lunch " + day));
+            rows.add(new Transaction(USER, "INCOME", 50000, day, salary, "pay"));
+        }
+        dbHelper.insertTransactions(rows);
+        dbHelper.insertBudget(new Budget(USER, food, 100000, "2022-01", true, 80));
+
+        dbHelper.getQueryTracer().addListener(captureSql);
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.getQueryTracer().removeListener(captureSql);
+        dbHelper.close();
+    }
+
+    @Test
+    public void queriesDoNotScanGrowingTables() {
+        runEveryQueryMethod();
+
+        assertFalse("No SQL was captured", capturedSql.isEmpty());
+        List<String> failures = new ArrayList<>();
+        for (String sql : capturedSql) {
+            Set<String> guardedNames = new HashSet<>(GUARDED_TABLES);
+            Matcher alias = ALIAS.matcher(sql);
+            while (alias.find()) {
+                guardedNames.add(alias.group(2));
+            }
+            // Unbound parameters are NULL, which does not change the plan
+            Cursor plan = dbHelper.getReadableDatabase().rawQuery("EXPLAIN QUERY PLAN " + sql, null);
+            int detailIndex = plan.getColumnIndexOrThrow("detail");
+            while (plan.moveToNext()) {
+                String detail = plan.getString(detailIndex);
+                Matcher scan = SCAN.matcher(detail);
+                if (scan.find() && guardedNames.contains(scan.group(1))) {
+                    failures.add(detail + "\n    in: " + sql);
+                }
+            }
+            plan.close();
+        }
+        if (!failures.isEmpty()) {
+            fail("Full table scans:\n" + String.join("\n", failures));
+        }
+    }
+
+    @Test
+    public void everyQueryMethodIsCovered() {
+        runEveryQueryMethod();
+
+        for (Method method : DataBaseHelper.class.getDeclaredMethods()) {
+            int modifiers = method.getModifiers();
+            String name = method.getName();
+            boolean looksLikeQuery = name.startsWith("get") || name.startsWith("search") ||
+                    name.startsWith("query") || name.equals("authenticateUser") || name.equals("userExists");
+            if (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && looksLikeQuery &&
+                    !NOT_QUERIES.contains(name)) {
+                assertTrue("Add " + name + " to QueryPlanTest.runEveryQueryMethod", calledMethods.contains(name));
+            }
+        }
+    }
+
+    private void runEveryQueryMethod() {
+        // getCategoryById answers from the category cache once it is loaded, so it goes first
+        call("getCategoryById", () -> dbHelper.getCategoryById(1));
+        call("getCategoryNameById", () -> dbHelper.getCategoryNameById(2));
+        call("getCategoryCache", () -> dbHelper.getCategoryCache(USER));
+        call("getCategoriesByType", () -> dbHelper.getCategoriesByType("EXPENSE", USER));
+
+        call("userExists", () -> dbHelper.userExists(USER));
+        call("authenticateUser", () -> dbHelper.authenticateUser(USER, "secret"));
+        call("getUser", () -> dbHelper.getUser(USER));
+
+        call("getAllTransactions", () -> dbHelper.getAllTransactions(USER));
+        call("getTransactionsByType", () -> dbHelper.getTransactionsByType(USER, "EXPENSE"));
+        call("getTransactionsPage", () -> dbHelper.getTransactionsPage(USER, "EXPENSE", 50));
+        call("getTransactionsPage", () -> dbHelper.getTransactionsPage(USER, "EXPENSE", 19050, 100, 50));
+        call("getTransactionSummary", () -> dbHelper.getTransactionSummary(USER, "EXPENSE"));
+        call("searchTransactions", () -> dbHelper.searchTransactions(USER, "EXPENSE", "lunch", 50, 0));
+        call("getTransactionsByDateRange", () -> dbHelper.getTransactionsByDateRange(USER, 19000, 19030));
+        call("getTransactionsByDateRange", () -> dbHelper.getTransactionsByDateRange(USER, 19000, 19030, 5));
+        call("getTransactionsByTypeAndDateRange",
+                () -> dbHelper.getTransactionsByTypeAndDateRange(USER, "INCOME", 19000, 19030));
+        call("getTransactionById", () -> dbHelper.getTransactionById(1));
+        call("getTotalIncome", () -> dbHelper.getTotalIncome(USER, 19000, 19030));
+        call("getTotalExpense", () -> dbHelper.getTotalExpense(USER, 19000, 19030));
+        call("getCategoryTotals", () -> dbHelper.getCategoryTotals(USER, "EXPENSE", 19000, 19030));
+        call("getExpenseByCategory", () -> dbHelper.getExpenseByCategory(USER, 19000, 19030));
+        call("getIncomeByCategory", () -> dbHelper.getIncomeByCategory(USER, 19000, 19030));
+        call("queryLedgerForExport", () -> dbHelper.queryLedgerForExport(USER).close());
+        call("queryLedgerRows", () -> dbHelper.queryLedgerRows(USER, 19000, 0, 100).close());
+
+        call("getAllBudgets", () -> dbHelper.getAllBudgets(USER));
+        call("getBudgetsByMonth", () -> dbHelper.getBudgetsByMonth(USER, "2022-01"));
+        call("getBudgetsWithSpending", () -> dbHelper.getBudgetsWithSpending(USER, "2022-01"));
+        call("getBudgetByCategoryAndMonth", () -> dbHelper.getBudgetByCategoryAndMonth(USER, 1, "2022-01"));
+        call("getSpendingForCategory", () -> dbHelper.getSpendingForCategory(USER, 1, "2022-01"));
+        call("getSpendingByCategoryForMonth", () -> dbHelper.getSpendingByCategoryForMonth(USER, "2022-01"));
+        call("getMonthlyTotals", () -> dbHelper.getMonthlyTotals(USER, "EXPENSE", "2022-01", "2022-04"));
+        call("getSpendingForCategoryInRange",
+                () -> dbHelper.getSpendingForCategoryInRange(USER, 1, 19000, 19030));
+    }
+
+    private void call(String method, Runnable query) {
+        calledMethods.add(method);
+        query.run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.andriodproject.database;
+
+import android.util.JsonWriter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmark - Minimal timing harness: warm up, time each iteration separately, report percentiles.
+ * Results are written as JSON so two runs (before and after a schema or query change) can be diffed.
+ */
+final class Benchmark {
+
+    /** The code being timed; iteration lets it vary its arguments deterministically */
+    interface Operation {
+        void run(int iteration);
+    }
+
+    static final class Result {
+        final String name;
+        final String preset;
+        final long[] sortedNanos;
+
+        Result(String name, String preset, long[] sortedNanos) {
+            this.name = name;
+            this.preset = preset;
+            this.sortedNanos = sortedNanos;
+        }
+
+        /**
+         * Nearest-rank percentile, e.g. percentile(50) is the median
+         */
+        long percentile(double percent) {
+            int rank = (int) Math.ceil(percent / 100 * sortedNanos.length);
+            return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, rank - 1))];
+        }
+
+        long meanNanos() {
+            long sum = 0;
+            for (long nanos : sortedNanos) {
+                sum += nanos;
+            }
+            return sum / sortedNanos.length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-8s %-32s p50 %9.1f us  p90 %9.1f us  p99 %9.1f us  max %9.1f us",
+                    preset, name, percentile(50) / 1e3, percentile(90) / 1e3, percentile(99) / 1e3,
+                    sortedNanos[sortedNanos.length - 1] / 1e3);
+        }
+    }
+
+    private Benchmark() {
+    }
+
+    static Result measure(String name, String preset, int warmup, int iterations, Operation operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run(i);
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.run(warmup + i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new Result(name, preset, nanos);
+    }
+
+    static void writeJson(File file, String suite, int warmup, int iterations, List<Result> results)
+            throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        try (JsonWriter json = new JsonWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8))) {
+            json.setIndent("  ");
+            json.beginObject();
+            json.name("suite").value(suite);
+            json.name("timestamp").value(System.currentTimeMillis());
+            json.name("databaseVersion").value(DataBaseHelper.DATABASE_VERSION);
+            json.name("jvm").value(System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+            json.name("os").value(System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+            json.name("warmup").value(warmup);
+            json.name("iterations").value(iterations);
+            json.name("results").beginArray();
+            for (Result result : results) {
+                json.beginObject();
+                json.name("name").value(result.name);
+                json.name("preset").value(result.preset);
+                json.name("minNanos").value(result.sortedNanos[0]);
+                json.name("p50Nanos").value(result.percentile(50));
+                json.name("p90Nanos").value(result.percentile(90));
+                json.name("p99Nanos").value(result.percentile(99));
+                json.name("maxNanos").value(result.sortedNanos[result.sortedNanos.length - 1]);
+                json.name("meanNanos").value(result.meanNanos());
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.andriodproject.database;
+
+import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.utils.DateUtils;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the hot DataBaseHelper queries and the insert paths against generated ledgers of several sizes.
+ *
+ * Runs on the JVM with Robolectric's SQLite, so numbers are for comparing two versions of the schema or
+ * queries on the same machine, not for predicting device timings. Enabled with -Pbenchmark, see
+ * app/build.gradle.kts; results go to app/build/benchmark-results/DataBaseHelperBenchmark.json.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class DataBaseHelperBenchmark {
+
+    private static final long SEED = 20240101L;
+
+    // Width of the day ranges queried, like the dashboard's monthly period
+    private static final int RANGE_DAYS = 30;
+
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    private final int warmup = Integer.getInteger("benchmark.warmup", 20);
+    private final int iterations = Integer.getInteger("benchmark.iterations", 200);
+
+    @Test
+    public void run() throws IOException {
+        List<Benchmark.Result> results = new ArrayList<>();
+        for (String name : System.getProperty("benchmark.presets", "TX_1K,TX_10K").split(",")) {
+            LedgerGenerator.Preset preset = LedgerGenerator.Preset.valueOf(name.trim());
+            results.addAll(runPreset(preset));
+        }
+
+        File output = new File(System.getProperty("benchmark.output", "build/benchmark-results"),
+                "DataBaseHelperBenchmark.json");
+        Benchmark.writeJson(output, "DataBaseHelperBenchmark", warmup, iterations, results);
+        System.out.println("Benchmark results written to " + output);
+    }
+
+    private List<Benchmark.Result> runPreset(LedgerGenerator.Preset preset) {
+        DataBaseHelper dbHelper = new DataBaseHelper(RuntimeEnvironment.getApplication(), null);
+        // Time the queries themselves; repeated windows would otherwise be answered by the result cache
+        dbHelper.setResultCacheEnabled(false);
+        try {
+            new LedgerGenerator(SEED, preset).generate(LedgerGenerator.into(dbHelper));
+
+            int users = preset.getUsers();
+            String[] emails = new String[users];
+            long[][] expenseCategories = new long[users][];
+            for (int u = 0; u < users; u++) {
+                emails[u] = LedgerGenerator.userEmail(u);
+                List<Category> categories = dbHelper.getCategoriesByType("EXPENSE", emails[u]);
+                List<Long> own = new ArrayList<>();
+                for (Category category : categories) {
+                    if (emails[u].equals(category.getUserEmail())) own.add(category.getId());
+                }
+                expenseCategories[u] = new long[own.size()];
+                for (int i = 0; i < own.size(); i++) {
+                    expenseCategories[u][i] = own.get(i);
+                }
+            }
+
+            // Query windows walk back through the whole history, so no single range stays cached
+            int endDay = LedgerGenerator.DEFAULT_END_DAY;
+            int span = preset.getYears() * 365 - RANGE_DAYS;
+            String label = preset.name();
+
+            List<Benchmark.Result> results = new ArrayList<>();
+            results.add(Benchmark.measure("getTotalExpense", label, warmup, iterations, i -> {
+                int end = endDay - (i * 37) % span;
+                dbHelper.getTotalExpense(emails[i % users], end - RANGE_DAYS + 1, end);
+            }));
+            results.add(Benchmark.measure("getSpendingForCategoryInRange", label, warmup, iterations, i -> {
+                int end = endDay - (i * 37) % span;
+                long[] categories = expenseCategories[i % users];
+                dbHelper.getSpendingForCategoryInRange(emails[i % users], categories[i % categories.length],
+                        end - RANGE_DAYS + 1, end);
+            }));
+            results.add(Benchmark.measure("getTransactionsByDateRange", label, warmup, iterations, i -> {
+                int end = endDay - (i * 37) % span;
+                dbHelper.getTransactionsByDateRange(emails[i % users], end - RANGE_DAYS + 1, end);
+            }));
+            results.add(Benchmark.measure("getBudgetsByMonth", label, warmup, iterations, i -> {
+                int day = endDay - (i * 37) % span;
+                dbHelper.getBudgetsByMonth(emails[i % users], DateUtils.toMonthKey(day));
+            }));
+
+            // Writes last, so the rows they add do not skew the reads above
+            results.add(Benchmark.measure("insertTransaction", label, warmup, iterations, i -> {
+                long[] categories = expenseCategories[i % users];
+                dbHelper.insertTransaction(new Transaction(emails[i % users], "EXPENSE", 1000 + i,
+                        endDay - i % 365, categories[i % categories.length], "benchmark " + i));
+            }));
+            results.add(Benchmark.measure("insertTransactions x" + INSERT_BATCH_SIZE, label, warmup, iterations, i -> {
+                long[] categories = expenseCategories[i % users];
+                List<Transaction> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+                for (int n = 0; n < INSERT_BATCH_SIZE; n++) {
+                    batch.add(new Transaction(emails[i % users], "EXPENSE", 1000 + n, endDay - n % 365,
+                            categories[n % categories.length], "benchmark batch " + i));
+                }
+                dbHelper.insertTransactions(batch);
+            }));
+
+            for (Benchmark.Result result : results) {
+                System.out.println(result);
+            }
+            return results;
+        } finally {
+            dbHelper.close();
+        }
+    }
+}
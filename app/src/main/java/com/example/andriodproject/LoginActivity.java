@@ -10,7 +10,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.database.LedgerRepository;
 import com.example.andriodproject.utils.SharedPrefManager;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
@@ -28,7 +28,7 @@ public class LoginActivity extends AppCompatActivity {
     private MaterialButton btnLogin;
     private TextView tvSignUp;
 
-    private DataBaseHelper dbHelper;
+    private LedgerRepository repository;
     private SharedPrefManager sharedPrefManager;
 
     @Override
@@ -37,7 +37,7 @@ public class LoginActivity extends AppCompatActivity {
         setContentView(R.layout.activity_login);
 
         // Initialize database and shared preferences
-        dbHelper = new DataBaseHelper(this);
+        repository = LedgerRepository.getInstance(this);
         sharedPrefManager = SharedPrefManager.getInstance(this);
 
         // Check if user is already logged in
@@ -134,19 +134,23 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        // Authenticate user
-        if (dbHelper.authenticateUser(email, password)) {
-            // Login successful
-            boolean rememberMe = cbRememberMe.isChecked();
-            sharedPrefManager.saveUserSession(email, rememberMe);
-            
-            Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
-            navigateToMain();
-        } else {
-            // Login failed
-            Toast.makeText(this, "Invalid email or password", Toast.LENGTH_SHORT).show();
-            tilPassword.setError("Invalid credentials");
-        }
+        // Authenticate user in the background (the first database open may also run migrations)
+        btnLogin.setEnabled(false);
+        repository.read(this, db -> db.authenticateUser(email, password), authenticated -> {
+            btnLogin.setEnabled(true);
+            if (authenticated) {
+                // Login successful
+                boolean rememberMe = cbRememberMe.isChecked();
+                sharedPrefManager.saveUserSession(email, rememberMe);
+
+                Toast.makeText(this, "Login successful!", Toast.LENGTH_SHORT).show();
+                navigateToMain();
+            } else {
+                // Login failed
+                Toast.makeText(this, "Invalid email or password", Toast.LENGTH_SHORT).show();
+                tilPassword.setError("Invalid credentials");
+            }
+        });
     }
 
     /**
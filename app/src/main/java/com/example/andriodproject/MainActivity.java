@@ -19,7 +19,9 @@ import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
 
-import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.database.DashboardSnapshotStore;
+import com.example.andriodproject.database.InMemoryLedgerStore;
+import com.example.andriodproject.database.LedgerRepository;
 import com.example.andriodproject.fragments.BudgetsFragment;
 import com.example.andriodproject.fragments.ExpensesFragment;
 import com.example.andriodproject.fragments.HomeFragment;
@@ -40,7 +42,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     private NavigationView navigationView;
     private Toolbar toolbar;
 
-    private DataBaseHelper dbHelper;
+    private LedgerRepository repository;
     private SharedPrefManager sharedPrefManager;
     private String currentUserEmail;
 
@@ -53,7 +55,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         
         setContentView(R.layout.activity_main);
 
-        dbHelper = new DataBaseHelper(this);
+        repository = LedgerRepository.getInstance(this);
 
         currentUserEmail = sharedPrefManager.getUserEmail();
         
@@ -126,12 +128,13 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         TextView tvUserName = headerView.findViewById(R.id.tvUserName);
         TextView tvUserEmail = headerView.findViewById(R.id.tvUserEmail);
 
-        User user = dbHelper.getUser(currentUserEmail);
-        if (user != null) {
-            String fullName = user.getFirstName() + " " + user.getLastName();
-            tvUserName.setText(fullName);
-            tvUserEmail.setText(user.getEmail());
-        }
+        repository.read(this, db -> db.getUser(currentUserEmail), user -> {
+            if (user != null) {
+                String fullName = user.getFirstName() + " " + user.getLastName();
+                tvUserName.setText(fullName);
+                tvUserEmail.setText(user.getEmail());
+            }
+        });
     }
 
     @Override
@@ -189,6 +192,8 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
      */
     private void logout() {
         sharedPrefManager.logout();
+        InMemoryLedgerStore.getInstance(this).clear();
+        DashboardSnapshotStore.getInstance(this).clear();
         Toast.makeText(this, "Logged out successfully", Toast.LENGTH_SHORT).show();
         navigateToLogin();
     }
@@ -10,7 +10,7 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.database.LedgerRepository;
 import com.example.andriodproject.model.User;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
@@ -27,7 +27,7 @@ public class SignupActivity extends AppCompatActivity {
     private MaterialButton btnSignUp;
     private TextView tvLogin;
 
-    private DataBaseHelper dbHelper;
+    private LedgerRepository repository;
 
     // Password pattern: 6-12 characters, at least one digit, one lowercase, one uppercase
     private static final Pattern PASSWORD_PATTERN = Pattern.compile(
@@ -39,8 +39,8 @@ public class SignupActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_signup);
 
-        // Initialize database helper
-        dbHelper = new DataBaseHelper(this);
+        // Initialize database access
+        repository = LedgerRepository.getInstance(this);
 
         // Initialize views
         initViews();
@@ -122,9 +122,6 @@ public class SignupActivity extends AppCompatActivity {
         } else if (!Patterns.EMAIL_ADDRESS.matcher(email).matches()) {
             tilEmail.setError("Please enter a valid email");
             isValid = false;
-        } else if (dbHelper.userExists(email)) {
-            tilEmail.setError("This email is already registered");
-            isValid = false;
         }
 
         if (password.isEmpty()) {
@@ -148,17 +145,24 @@ public class SignupActivity extends AppCompatActivity {
         }
 
         User user = new User(email, firstName, lastName, password);
-        
-        if (dbHelper.insertUser(user)) {
-            Toast.makeText(this, "Account created successfully! Please login.", Toast.LENGTH_SHORT).show();
-            Intent intent = new Intent(SignupActivity.this, LoginActivity.class);
-            intent.putExtra("email", email);
-            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-            startActivity(intent);
-            finish();
-        } else {
-            Toast.makeText(this, "Failed to create account. Please try again.", Toast.LENGTH_SHORT).show();
-        }
+
+        // Check and insert on the writer thread, null result means the email is taken
+        btnSignUp.setEnabled(false);
+        repository.write(this, db -> db.userExists(email) ? null : db.insertUser(user), created -> {
+            btnSignUp.setEnabled(true);
+            if (created == null) {
+                tilEmail.setError("This email is already registered");
+            } else if (created) {
+                Toast.makeText(this, "Account created successfully! Please login.", Toast.LENGTH_SHORT).show();
+                Intent intent = new Intent(SignupActivity.this, LoginActivity.class);
+                intent.putExtra("email", email);
+                intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+                startActivity(intent);
+                finish();
+            } else {
+                Toast.makeText(this, "Failed to create account. Please try again.", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void clearErrors() {
@@ -11,13 +11,12 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.andriodproject.R;
-import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.analytics.BudgetStatus;
+import com.example.andriodproject.analytics.LedgerAnalytics;
 import com.example.andriodproject.model.Budget;
-import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Money;
 
-import java.text.NumberFormat;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * BudgetAdapter - RecyclerView adapter for displaying budgets
@@ -26,20 +25,16 @@ public class BudgetAdapter extends RecyclerView.Adapter<BudgetAdapter.BudgetView
 
     private Context context;
     private List<Budget> budgets;
-    private DataBaseHelper dbHelper;
     private OnBudgetClickListener listener;
-    private NumberFormat currencyFormat;
 
     public interface OnBudgetClickListener {
         void onBudgetClick(Budget budget);
         void onBudgetLongClick(Budget budget);
     }
 
-    public BudgetAdapter(Context context, List<Budget> budgets, DataBaseHelper dbHelper) {
+    public BudgetAdapter(Context context, List<Budget> budgets) {
         this.context = context;
         this.budgets = budgets;
-        this.dbHelper = dbHelper;
-        this.currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
     }
 
     public void setOnBudgetClickListener(OnBudgetClickListener listener) {
@@ -57,32 +52,25 @@ public class BudgetAdapter extends RecyclerView.Adapter<BudgetAdapter.BudgetView
     public void onBindViewHolder(@NonNull BudgetViewHolder holder, int position) {
         Budget budget = budgets.get(position);
 
-        // Get category name
-        Category category = dbHelper.getCategoryById(budget.getCategoryId());
-        String categoryName = category != null ? category.getName() : "Unknown";
+        // Name and spending were joined in by getBudgetsWithSpending, nothing to query while binding
+        holder.tvCategoryName.setText(budget.getCategoryName());
 
-        holder.tvCategoryName.setText(categoryName);
+        long spent = budget.getSpentCents();
+        long limit = budget.getBudgetLimitCents();
+        int percentage = budget.getPercentUsed();
 
-        // Get spending for this category
-        double spent = dbHelper.getSpendingForCategory(
-                budget.getUserEmail(),
-                budget.getCategoryId(),
-                budget.getMonth());
-
-        double limit = budget.getBudgetLimit();
-        int percentage = limit > 0 ? (int) ((spent / limit) * 100) : 0;
-
-        holder.tvSpent.setText("Spent: " + currencyFormat.format(spent));
-        holder.tvLimit.setText("Limit: " + currencyFormat.format(limit));
+        holder.tvSpent.setText("Spent: " + Money.format(spent));
+        holder.tvLimit.setText("Limit: " + Money.format(limit));
         holder.tvPercentage.setText(percentage + "%");
         holder.progressBar.setProgress(Math.min(percentage, 100));
 
-        // Set progress bar color based on percentage
-        if (percentage >= 100) {
+        // Set progress bar color based on the budget's status
+        BudgetStatus status = LedgerAnalytics.budgetStatus(budget);
+        if (status == BudgetStatus.OVER_LIMIT) {
             holder.progressBar.setProgressTintList(
                     context.getResources().getColorStateList(R.color.expense_red, null));
             holder.tvPercentage.setTextColor(context.getResources().getColor(R.color.expense_red, null));
-        } else if (percentage >= budget.getAlertThreshold()) {
+        } else if (status == BudgetStatus.NEAR_LIMIT) {
             holder.progressBar.setProgressTintList(
                     context.getResources().getColorStateList(R.color.warning, null));
             holder.tvPercentage.setTextColor(context.getResources().getColor(R.color.warning, null));
@@ -11,13 +11,12 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.andriodproject.R;
-import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.analytics.BudgetStatus;
+import com.example.andriodproject.analytics.LedgerAnalytics;
 import com.example.andriodproject.model.Budget;
-import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Money;
 
-import java.text.NumberFormat;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * BudgetAlertAdapter - RecyclerView adapter for displaying budget alerts
@@ -26,14 +25,10 @@ public class BudgetAlertAdapter extends RecyclerView.Adapter<BudgetAlertAdapter.
 
     private Context context;
     private List<Budget> budgets;
-    private DataBaseHelper dbHelper;
-    private NumberFormat currencyFormat;
 
-    public BudgetAlertAdapter(Context context, List<Budget> budgets, DataBaseHelper dbHelper) {
+    public BudgetAlertAdapter(Context context, List<Budget> budgets) {
         this.context = context;
         this.budgets = budgets;
-        this.dbHelper = dbHelper;
-        this.currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
     }
 
     @NonNull
@@ -47,31 +42,24 @@ public class BudgetAlertAdapter extends RecyclerView.Adapter<BudgetAlertAdapter.
     public void onBindViewHolder(@NonNull BudgetAlertViewHolder holder, int position) {
         Budget budget = budgets.get(position);
 
-        // Get category name
-        Category category = dbHelper.getCategoryById(budget.getCategoryId());
-        String categoryName = category != null ? category.getName() : "Unknown";
+        // Name and spending were joined in by getBudgetsWithSpending, nothing to query while binding
+        holder.tvCategoryName.setText(budget.getCategoryName());
 
-        holder.tvCategoryName.setText(categoryName);
+        long spent = budget.getSpentCents();
+        long limit = budget.getBudgetLimitCents();
+        int percentage = budget.getPercentUsed();
 
-        // Get spending for this category
-        double spent = dbHelper.getSpendingForCategory(
-                budget.getUserEmail(), 
-                budget.getCategoryId(), 
-                budget.getMonth());
-
-        double limit = budget.getBudgetLimit();
-        int percentage = (int) ((spent / limit) * 100);
-
-        holder.tvSpent.setText(currencyFormat.format(spent) + " / " + currencyFormat.format(limit));
+        holder.tvSpent.setText(Money.format(spent) + " / " + Money.format(limit));
         holder.progressBar.setProgress(Math.min(percentage, 100));
 
-        // Set progress bar color based on percentage
-        if (percentage >= 100) {
+        // Set progress bar color based on the budget's status
+        BudgetStatus status = LedgerAnalytics.budgetStatus(budget);
+        if (status == BudgetStatus.OVER_LIMIT) {
             holder.progressBar.setProgressTintList(
                     context.getResources().getColorStateList(R.color.expense_red, null));
             holder.tvStatus.setText("Over budget!");
             holder.tvStatus.setTextColor(context.getResources().getColor(R.color.expense_red, null));
-        } else if (percentage >= budget.getAlertThreshold()) {
+        } else if (status == BudgetStatus.NEAR_LIMIT) {
             holder.progressBar.setProgressTintList(
                     context.getResources().getColorStateList(R.color.warning, null));
             holder.tvStatus.setText(percentage + "% used");
@@ -8,19 +8,24 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.lifecycle.LifecycleOwner;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.andriodproject.R;
+import com.example.andriodproject.database.CategoryCache;
 import com.example.andriodproject.database.DataBaseHelper;
-import com.example.andriodproject.model.Category;
+import com.example.andriodproject.database.LedgerRepository;
+import com.example.andriodproject.model.Money;
 import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.utils.DateUtils;
+import com.google.android.material.card.MaterialCardView;
 
-import java.text.NumberFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 // Adapter for displaying transactions in a RecyclerView
 public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.TransactionViewHolder> {
@@ -28,30 +33,39 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
     private Context context;
     private List<Transaction> transactions;
     private DataBaseHelper dbHelper;
+    private final LifecycleOwner owner; // Scope of the background category load
     private OnTransactionClickListener listener;
+    private boolean loadingCategories;
+    private Map<Long, String> categoryNames = Collections.emptyMap(); // Known names, bound ahead of the cache
 
-    private NumberFormat currencyFormat;
-    private SimpleDateFormat inputFormat;
-    private SimpleDateFormat outputFormat;
+    // IDs of the rows picked in multi-select mode
+    private final Set<Long> selectedIds = new HashSet<>();
 
     public interface OnTransactionClickListener {
         void onTransactionClick(Transaction transaction);
         void onTransactionLongClick(Transaction transaction);
     }
 
-    public TransactionAdapter(Context context, List<Transaction> transactions, DataBaseHelper dbHelper) {
+    public TransactionAdapter(Context context, List<Transaction> transactions, DataBaseHelper dbHelper,
+                              LifecycleOwner owner) {
         this.context = context;
         this.transactions = transactions;
         this.dbHelper = dbHelper;
-        this.currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-        this.inputFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        this.outputFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+        this.owner = owner;
     }
 
     public void setOnTransactionClickListener(OnTransactionClickListener listener) {
         this.listener = listener;
     }
 
+    /**
+     * Category names by category ID to bind rows with, e.g. the ones saved with the dashboard; rows of
+     * other categories are named from the category cache
+     */
+    public void setCategoryNames(Map<Long, String> categoryNames) {
+        this.categoryNames = categoryNames;
+    }
+
     @NonNull
     @Override
     public TransactionViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -63,24 +77,20 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
     public void onBindViewHolder(@NonNull TransactionViewHolder holder, int position) {
         Transaction transaction = transactions.get(position);
 
-        // Get category name
-        Category category = dbHelper.getCategoryById(transaction.getCategoryId());
-        String categoryName = category != null ? category.getName() : "Unknown";
+        // Category name from memory, no query while scrolling
+        String categoryName = categoryNameOf(transaction);
 
         holder.tvCategory.setText(categoryName);
         holder.tvDescription.setText(transaction.getDescription() != null && !transaction.getDescription().isEmpty() 
                 ? transaction.getDescription() : categoryName);
 
-        // Format date
-        try {
-            Date date = inputFormat.parse(transaction.getDate());
-            holder.tvDate.setText(outputFormat.format(date));
-        } catch (ParseException e) {
-            holder.tvDate.setText(transaction.getDate());
-        }
+        // Format date straight from the stored epoch day, nothing to parse
+        holder.tvDate.setText(DateUtils.formatForDisplay(transaction.getEpochDay()));
+
+        holder.cardView.setChecked(selectedIds.contains(transaction.getId()));
 
         // Format amount with color based on type
-        String amountText = currencyFormat.format(transaction.getAmount());
+        String amountText = Money.format(transaction.getAmountCents());
         if (transaction.getType().equals("INCOME")) {
             holder.tvAmount.setText("+" + amountText);
             holder.tvAmount.setTextColor(context.getResources().getColor(R.color.income_green, null));
@@ -108,6 +118,31 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
         });
     }
 
+    /**
+     * Name given to setCategoryNames(), else from the loaded category cache; while it is cold (e.g. after
+     * another user signed in) the row shows "Unknown" and is bound again once the cache has been loaded in
+     * the background
+     */
+    private String categoryNameOf(Transaction transaction) {
+        if (categoryNames.containsKey(transaction.getCategoryId())) {
+            String name = categoryNames.get(transaction.getCategoryId());
+            return name != null ? name : CategoryCache.UNKNOWN_NAME;
+        }
+        CategoryCache categories = dbHelper.peekCategoryCache(transaction.getUserEmail());
+        if (categories != null) {
+            return categories.getName(transaction.getCategoryId());
+        }
+        if (!loadingCategories) {
+            loadingCategories = true;
+            String userEmail = transaction.getUserEmail();
+            LedgerRepository.getInstance(context).read(owner, db -> db.getCategoryCache(userEmail), loaded -> {
+                loadingCategories = false;
+                notifyDataSetChanged();
+            });
+        }
+        return CategoryCache.UNKNOWN_NAME;
+    }
+
     @Override
     public int getItemCount() {
         return transactions.size();
@@ -118,12 +153,56 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
         notifyDataSetChanged();
     }
 
+    // ===================== SELECTION =====================
+
+    /**
+     * Select or unselect a transaction, returns true if it is now selected
+     */
+    public boolean toggleSelection(Transaction transaction) {
+        boolean selected;
+        if (selectedIds.remove(transaction.getId())) {
+            selected = false;
+        } else {
+            selectedIds.add(transaction.getId());
+            selected = true;
+        }
+        int position = transactions.indexOf(transaction);
+        if (position >= 0) {
+            notifyItemChanged(position);
+        }
+        return selected;
+    }
+
+    public void selectAll() {
+        for (Transaction transaction : transactions) {
+            selectedIds.add(transaction.getId());
+        }
+        notifyDataSetChanged();
+    }
+
+    public void clearSelection() {
+        if (!selectedIds.isEmpty()) {
+            selectedIds.clear();
+            notifyDataSetChanged();
+        }
+    }
+
+    public int getSelectedCount() {
+        return selectedIds.size();
+    }
+
+    public List<Long> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
+
     static class TransactionViewHolder extends RecyclerView.ViewHolder {
+        MaterialCardView cardView;
         ImageView ivIcon;
         TextView tvCategory, tvDescription, tvDate, tvAmount;
 
         public TransactionViewHolder(@NonNull View itemView) {
             super(itemView);
+            cardView = (MaterialCardView) itemView;
             ivIcon = itemView.findViewById(R.id.ivIcon);
             tvCategory = itemView.findViewById(R.id.tvCategory);
             tvDescription = itemView.findViewById(R.id.tvDescription);
@@ -0,0 +1,91 @@
+package com.example.andriodproject.database;
+
+import android.util.LongSparseArray;
+
+import com.example.andriodproject.model.Category;
+
+import java.util.List;
+
+/**
+ * CategoryCache - Every category one user can see (defaults plus their own), keyed by id.
+ * Loaded once by DataBaseHelper.getCategoryCache and patched by the helper's category writes,
+ * so list adapters can resolve category names while binding rows without touching SQLite.
+ */
+public class CategoryCache {
+
+    public static final String UNKNOWN_NAME = "Unknown";
+
+    private final LongSparseArray<Category> categories = new LongSparseArray<>();
+    private String userEmail; // Whose categories are loaded, null until the first load
+    private long writeCount; // Category writes patched in (or not) so far, loaded or not
+
+    /**
+     * Get a category by id, or null if it is not one of the loaded user's categories
+     */
+    public synchronized Category get(long id) {
+        return categories.get(id);
+    }
+
+    /**
+     * Get a category name by id, "Unknown" for categories that do not exist (any more)
+     */
+    public synchronized String getName(long id) {
+        Category category = categories.get(id);
+        return category != null ? category.getName() : UNKNOWN_NAME;
+    }
+
+    synchronized boolean isLoadedFor(String email) {
+        return userEmail != null && userEmail.equals(email);
+    }
+
+    /**
+     * Number of category writes so far; take it before querying the rows to load
+     */
+    synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    /**
+     * Load the rows of a query started when getWriteCount() was writeCountBefore. Returns false, loading
+     * nothing, if a category was written since: the rows may miss it, and patching an unloaded cache is a
+     * no-op, so the query must be run again.
+     */
+    synchronized boolean load(String email, List<Category> visible, long writeCountBefore) {
+        if (writeCount != writeCountBefore) return false;
+        categories.clear();
+        for (Category category : visible) {
+            categories.put(category.getId(), category);
+        }
+        userEmail = email;
+        return true;
+    }
+
+    /**
+     * Add or replace a category if the loaded user can see it
+     */
+    synchronized void put(Category category) {
+        writeCount++;
+        if (userEmail != null && (category.getUserEmail() == null || userEmail.equals(category.getUserEmail()))) {
+            categories.put(category.getId(), category);
+        }
+    }
+
+    synchronized void rename(long id, String name) {
+        writeCount++;
+        Category category = categories.get(id);
+        if (category != null) {
+            categories.put(id, new Category(id, name, category.getType(), category.getUserEmail()));
+        }
+    }
+
+    synchronized void remove(long id) {
+        writeCount++;
+        categories.remove(id);
+    }
+
+    synchronized void invalidate() {
+        writeCount++;
+        categories.clear();
+        userEmail = null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.andriodproject.database;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.WorkerThread;
+
+import com.example.andriodproject.analytics.DashboardSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * DashboardSnapshotStore - The last dashboard computed, kept in one small binary file in app storage.
+ *
+ * The dashboard draws it at once on a cold start and replaces it when its own load lands, so the first
+ * useful frame does not wait for the database or depend on the size of the ledger. Writes go through
+ * AtomicFile, so a crash mid-write leaves the previous snapshot.
+ */
+public class DashboardSnapshotStore {
+
+    private static final String TAG = "DashboardSnapshotStore";
+    private static final String FILE_NAME = "dashboard.snapshot";
+
+    private static DashboardSnapshotStore instance;
+
+    private final AtomicFile file;
+
+    private DashboardSnapshotStore(Context context) {
+        file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    public static synchronized DashboardSnapshotStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new DashboardSnapshotStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * The saved snapshot of userEmail, or null if there is none, it belongs to someone else or
+     * cannot be read (e.g. written by an older version of the app)
+     */
+    @WorkerThread
+    public synchronized DashboardSnapshot read(String userEmail) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+            DashboardSnapshot snapshot = DashboardSnapshot.read(in);
+            return userEmail.equals(snapshot.getUserEmail()) ? snapshot : null;
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable dashboard snapshot", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Replace the saved snapshot. Call before the snapshot is handed to the main thread, which may
+     * still add periods to it.
+     */
+    @WorkerThread
+    public synchronized void write(DashboardSnapshot snapshot) {
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            snapshot.write(out);
+            out.flush();
+            file.finishWrite(stream);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not save dashboard snapshot", e);
+            if (stream != null) file.failWrite(stream);
+        }
+    }
+
+    /**
+     * Delete the saved snapshot, e.g. on logout
+     */
+    public synchronized void clear() {
+        file.delete();
+    }
+}
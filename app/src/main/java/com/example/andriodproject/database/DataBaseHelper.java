@@ -3,27 +3,57 @@ package com.example.andriodproject.database;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteConstraintException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 
+import com.example.andriodproject.database.InvalidationTracker.Table;
 import com.example.andriodproject.model.Budget;
 import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.CategoryTotal;
 import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.model.TransactionSummary;
 import com.example.andriodproject.model.User;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class DataBaseHelper extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "FinanceManager.db";
-    private static final int DATABASE_VERSION = 1;
+    static final int DATABASE_VERSION = 6;
+
+    // Page cache of the primary (writer) connection; negative values are KiB, so this is 8 MiB
+    private static final int CACHE_SIZE_KIB = 8 * 1024;
+
+    // Rows per IN (...) list in batch statements, below SQLite's 999 bound-variable limit
+    private static final int MAX_BATCH_ARGS = 500;
+
+    // Prepared statements each pooled connection keeps for rawQuery SQL (framework default is 25)
+    private static final int MAX_SQL_CACHE_SIZE = 50;
+
+    // Scalar aggregate results kept by the QueryResultCache; each entry is a few dozen bytes
+    private static final int RESULT_CACHE_SIZE = 256;
+
+    // Tables the cached aggregates read; TRANSACTIONS also covers the MONTHLY_ROLLUP derived from it
+    private static final Table[] TRANSACTION_TABLES = {Table.TRANSACTIONS};
+
+    private static DataBaseHelper instance;
 
     // Table Names
     private static final String TABLE_USER = "USER";
     private static final String TABLE_TRANSACTION = "TRANSACTIONS";
     private static final String TABLE_CATEGORY = "CATEGORY";
     private static final String TABLE_BUDGET = "BUDGET";
+    private static final String TABLE_MONTHLY_ROLLUP = "MONTHLY_ROLLUP";
+    private static final String TABLE_TRANSACTION_FTS = "TRANSACTIONS_FTS";
 
     // User Table Columns
     private static final String USER_EMAIL = "EMAIL";
@@ -35,8 +65,10 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     private static final String TRANS_ID = "ID";
     private static final String TRANS_USER_EMAIL = "USER_EMAIL";
     private static final String TRANS_TYPE = "TYPE";
-    private static final String TRANS_AMOUNT = "AMOUNT";
-    private static final String TRANS_DATE = "DATE";
+    private static final String TRANS_AMOUNT = "AMOUNT"; // REAL, replaced by AMOUNT_CENTS in version 4
+    private static final String TRANS_AMOUNT_CENTS = "AMOUNT_CENTS";
+    private static final String TRANS_DATE = "DATE"; // TEXT yyyy-MM-dd, replaced by DAY in version 5
+    private static final String TRANS_DAY = "DAY"; // INTEGER days since 1970-01-01 (epoch day)
     private static final String TRANS_CATEGORY_ID = "CATEGORY_ID";
     private static final String TRANS_DESCRIPTION = "DESCRIPTION";
 
@@ -50,12 +82,44 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     private static final String BUDGET_ID = "ID";
     private static final String BUDGET_USER_EMAIL = "USER_EMAIL";
     private static final String BUDGET_CATEGORY_ID = "CATEGORY_ID";
-    private static final String BUDGET_LIMIT = "BUDGET_LIMIT";
+    private static final String BUDGET_LIMIT = "BUDGET_LIMIT"; // REAL, replaced by BUDGET_LIMIT_CENTS in version 4
+    private static final String BUDGET_LIMIT_CENTS = "BUDGET_LIMIT_CENTS";
     private static final String BUDGET_MONTH = "MONTH";
     private static final String BUDGET_ALERT_ENABLED = "ALERT_ENABLED";
     private static final String BUDGET_ALERT_THRESHOLD = "ALERT_THRESHOLD";
 
-    // Create Table Queries
+    // Transaction Search Table Columns (FTS4, docid is the TRANSACTIONS.ID, maintained by triggers)
+    private static final String FTS_DESCRIPTION = "DESCRIPTION";
+    private static final String FTS_CATEGORY_NAME = "CATEGORY_NAME";
+
+    // Monthly Rollup Table Columns (maintained by triggers on TRANSACTIONS)
+    private static final String ROLLUP_USER_EMAIL = "USER_EMAIL";
+    private static final String ROLLUP_MONTH = "MONTH";
+    private static final String ROLLUP_CATEGORY_ID = "CATEGORY_ID";
+    private static final String ROLLUP_TYPE = "TYPE";
+    private static final String ROLLUP_TOTAL = "TOTAL";
+    private static final String ROLLUP_TXN_COUNT = "TXN_COUNT";
+
+    // Trigger Names
+    private static final String TRG_ROLLUP_AFTER_INSERT = "TRG_MONTHLY_ROLLUP_AFTER_INSERT";
+    private static final String TRG_ROLLUP_AFTER_UPDATE = "TRG_MONTHLY_ROLLUP_AFTER_UPDATE";
+    private static final String TRG_ROLLUP_AFTER_DELETE = "TRG_MONTHLY_ROLLUP_AFTER_DELETE";
+    private static final String TRG_FTS_AFTER_INSERT = "TRG_TRANSACTIONS_FTS_AFTER_INSERT";
+    private static final String TRG_FTS_AFTER_UPDATE = "TRG_TRANSACTIONS_FTS_AFTER_UPDATE";
+    private static final String TRG_FTS_AFTER_DELETE = "TRG_TRANSACTIONS_FTS_AFTER_DELETE";
+    private static final String TRG_FTS_CATEGORY_RENAME = "TRG_TRANSACTIONS_FTS_CATEGORY_RENAME";
+    private static final String TRG_FTS_CATEGORY_DELETE = "TRG_TRANSACTIONS_FTS_CATEGORY_DELETE";
+
+    // SQLite julianday() of 1970-01-01, used to turn yyyy-MM-dd text into epoch days
+    private static final String UNIX_EPOCH_JULIAN_DAY = "2440587.5";
+
+    // Index Names
+    private static final String IDX_TRANS_USER_TYPE_DATE = "IDX_TRANSACTIONS_USER_TYPE_DATE";
+    private static final String IDX_TRANS_USER_CATEGORY_DATE = "IDX_TRANSACTIONS_USER_CATEGORY_DATE";
+    private static final String IDX_TRANS_USER_DATE = "IDX_TRANSACTIONS_USER_DATE";
+    private static final String IDX_BUDGET_USER_MONTH_CATEGORY = "IDX_BUDGET_USER_MONTH_CATEGORY";
+
+    // Create Table Queries (version 1 schema, later changes live in the migrations)
     private static final String CREATE_USER_TABLE = 
         "CREATE TABLE " + TABLE_USER + " (" +
         USER_EMAIL + " TEXT PRIMARY KEY, " +
@@ -94,8 +158,70 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         "FOREIGN KEY(" + BUDGET_USER_EMAIL + ") REFERENCES " + TABLE_USER + "(" + USER_EMAIL + "), " +
         "FOREIGN KEY(" + BUDGET_CATEGORY_ID + ") REFERENCES " + TABLE_CATEGORY + "(" + CAT_ID + "))";
 
-    public DataBaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    // Hot-path statements, built once and compiled through the StatementCache
+    private static final String SQL_INSERT_TRANSACTION =
+        "INSERT INTO " + TABLE_TRANSACTION + " (" + TRANS_USER_EMAIL + ", " + TRANS_TYPE + ", " +
+        TRANS_AMOUNT_CENTS + ", " + TRANS_DAY + ", " + TRANS_CATEGORY_ID + ", " + TRANS_DESCRIPTION +
+        ") VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_TOTAL_BY_TYPE_IN_RANGE =
+        "SELECT IFNULL(SUM(" + TRANS_AMOUNT_CENTS + "), 0) FROM " + TABLE_TRANSACTION + " WHERE " +
+        TRANS_USER_EMAIL + " = ? AND " + TRANS_TYPE + " = ? AND " + TRANS_DAY + " BETWEEN ? AND ?";
+
+    private static final String SQL_CATEGORY_SPENDING_IN_RANGE =
+        "SELECT IFNULL(SUM(" + TRANS_AMOUNT_CENTS + "), 0) FROM " + TABLE_TRANSACTION + " WHERE " +
+        TRANS_USER_EMAIL + " = ? AND " + TRANS_CATEGORY_ID + " = ? AND " +
+        TRANS_TYPE + " = 'EXPENSE' AND " + TRANS_DAY + " BETWEEN ? AND ?";
+
+    private static final String SQL_CATEGORY_SPENDING_FOR_MONTH =
+        "SELECT IFNULL(SUM(" + ROLLUP_TOTAL + "), 0) FROM " + TABLE_MONTHLY_ROLLUP + " WHERE " +
+        ROLLUP_USER_EMAIL + " = ? AND " + ROLLUP_MONTH + " = ? AND " +
+        ROLLUP_CATEGORY_ID + " = ? AND " + ROLLUP_TYPE + " = 'EXPENSE'";
+
+    // Budgets of a month with their category name and spending; the rollup key matches at most one row per budget
+    private static final String SQL_BUDGETS_WITH_SPENDING =
+        "SELECT b.*, c." + CAT_NAME + " AS CATEGORY_NAME, IFNULL(r." + ROLLUP_TOTAL + ", 0) AS SPENT_CENTS " +
+        "FROM " + TABLE_BUDGET + " b " +
+        "LEFT JOIN " + TABLE_CATEGORY + " c ON c." + CAT_ID + " = b." + BUDGET_CATEGORY_ID + " " +
+        "LEFT JOIN " + TABLE_MONTHLY_ROLLUP + " r ON r." + ROLLUP_USER_EMAIL + " = b." + BUDGET_USER_EMAIL +
+        " AND r." + ROLLUP_MONTH + " = b." + BUDGET_MONTH + " AND r." + ROLLUP_CATEGORY_ID + " = b." +
+        BUDGET_CATEGORY_ID + " AND r." + ROLLUP_TYPE + " = 'EXPENSE' " +
+        "WHERE b." + BUDGET_USER_EMAIL + " = ? AND b." + BUDGET_MONTH + " = ? ORDER BY b." + BUDGET_ID;
+
+    private static final String SQL_CATEGORY_BY_ID =
+        "SELECT * FROM " + TABLE_CATEGORY + " WHERE " + CAT_ID + " = ?";
+
+    private final StatementCache statementCache = new StatementCache();
+    private final CategoryCache categoryCache = new CategoryCache();
+    // Held while loading the category cache, so readers of the cache itself never wait for the query
+    private final Object categoryCacheLoadLock = new Object();
+    private final InvalidationTracker invalidationTracker = new InvalidationTracker();
+    private final QueryTracer queryTracer = new QueryTracer();
+    private final QueryResultCache resultCache = new QueryResultCache(invalidationTracker, RESULT_CACHE_SIZE);
+    private final List<TransactionListener> transactionListeners = new CopyOnWriteArrayList<>();
+
+    private DataBaseHelper(Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    /**
+     * Open the database file called name, or an in-memory database if name is null (used by tests)
+     */
+    DataBaseHelper(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+        // WAL lets the dashboard read through the connection pool while a dialog is writing
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Get the process-wide instance. It is bound to the application context and stays open for the
+     * life of the process, so callers must not close it.
+     */
+    public static synchronized DataBaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DataBaseHelper(context.getApplicationContext());
+        }
+        return instance;
     }
 
     @Override
@@ -107,15 +233,363 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         
         // Insert default categories
         insertDefaultCategories(db);
+
+        // Bring the fresh version 1 schema up to date through the same steps existing installs take
+        onUpgrade(db, 1, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.setMaxSqlCacheSize(MAX_SQL_CACHE_SIZE);
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        // Enabled only after onCreate/onUpgrade so table rebuilds can copy rows that predate enforcement
+        if (!db.isReadOnly()) {
+            db.setForeignKeyConstraintsEnabled(true);
+        }
+        db.execSQL("PRAGMA cache_size = -" + CACHE_SIZE_KIB);
+    }
+
+    @Override
+    public synchronized void close() {
+        statementCache.clear();
+        categoryCache.invalidate();
+        resultCache.clear();
+        super.close();
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_BUDGET);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_TRANSACTION);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_CATEGORY);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USER);
-        onCreate(db);
+        // Runs inside the transaction opened by SQLiteOpenHelper, so a failed step rolls back all of them
+        for (int version = oldVersion + 1; version <= newVersion; version++) {
+            migrateTo(db, version);
+        }
+    }
+
+    // ===================== SCHEMA MIGRATIONS =====================
+
+    /**
+     * Apply the schema change that takes the database to the given version.
+     * Every step must keep user data; never edit a released step, add a new one instead.
+     */
+    private void migrateTo(SQLiteDatabase db, int version) {
+        switch (version) {
+            case 2:
+                migrateToVersion2(db);
+                break;
+            case 3:
+                migrateToVersion3(db);
+                break;
+            case 4:
+                migrateToVersion4(db);
+                break;
+            case 5:
+                migrateToVersion5(db);
+                break;
+            case 6:
+                migrateToVersion6(db);
+                break;
+            default:
+                throw new IllegalStateException("No migration to database version " + version);
+        }
+    }
+
+    /**
+     * Version 2: composite indexes for the per-user totals, category spending and budget lookups
+     */
+    private void migrateToVersion2(SQLiteDatabase db) {
+        createTransactionIndexes(db, TRANS_DATE);
+        createBudgetIndexes(db);
+    }
+
+    /**
+     * Version 3: MONTHLY_ROLLUP table with per (user, month, category, type) sums, kept current by triggers
+     */
+    private void migrateToVersion3(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_MONTHLY_ROLLUP + " (" +
+                   ROLLUP_USER_EMAIL + " TEXT NOT NULL, " +
+                   ROLLUP_MONTH + " TEXT NOT NULL, " +
+                   ROLLUP_CATEGORY_ID + " INTEGER NOT NULL, " +
+                   ROLLUP_TYPE + " TEXT NOT NULL, " +
+                   ROLLUP_TOTAL + " REAL NOT NULL DEFAULT 0, " +
+                   ROLLUP_TXN_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                   "PRIMARY KEY (" + ROLLUP_USER_EMAIL + ", " + ROLLUP_MONTH + ", " +
+                   ROLLUP_CATEGORY_ID + ", " + ROLLUP_TYPE + ")) WITHOUT ROWID");
+        String monthOf = "substr(%s." + TRANS_DATE + ", 1, 7)";
+        createRollupTriggers(db, TRANS_DATE, monthOf, TRANS_AMOUNT);
+        rebuildMonthlyRollup(db, monthOf, TRANS_AMOUNT);
+    }
+
+    /**
+     * Version 4: amounts become INTEGER cents (TRANSACTIONS.AMOUNT_CENTS, BUDGET.BUDGET_LIMIT_CENTS,
+     * MONTHLY_ROLLUP.TOTAL). SQLite cannot change a column type in place, so both tables are rebuilt
+     * and their indexes and triggers recreated.
+     */
+    private void migrateToVersion4(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE TRANSACTIONS_V4 (" +
+                   TRANS_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                   TRANS_USER_EMAIL + " TEXT NOT NULL, " +
+                   TRANS_TYPE + " TEXT NOT NULL, " +
+                   TRANS_AMOUNT_CENTS + " INTEGER NOT NULL, " +
+                   TRANS_DATE + " TEXT NOT NULL, " +
+                   TRANS_CATEGORY_ID + " INTEGER NOT NULL, " +
+                   TRANS_DESCRIPTION + " TEXT, " +
+                   "FOREIGN KEY(" + TRANS_USER_EMAIL + ") REFERENCES " + TABLE_USER + "(" + USER_EMAIL + "), " +
+                   "FOREIGN KEY(" + TRANS_CATEGORY_ID + ") REFERENCES " + TABLE_CATEGORY + "(" + CAT_ID + "))");
+        db.execSQL("INSERT INTO TRANSACTIONS_V4 (" + TRANS_ID + ", " + TRANS_USER_EMAIL + ", " + TRANS_TYPE + ", " +
+                   TRANS_AMOUNT_CENTS + ", " + TRANS_DATE + ", " + TRANS_CATEGORY_ID + ", " + TRANS_DESCRIPTION + ") " +
+                   "SELECT " + TRANS_ID + ", " + TRANS_USER_EMAIL + ", " + TRANS_TYPE + ", " +
+                   "CAST(ROUND(" + TRANS_AMOUNT + " * 100) AS INTEGER), " + TRANS_DATE + ", " +
+                   TRANS_CATEGORY_ID + ", " + TRANS_DESCRIPTION + " FROM " + TABLE_TRANSACTION);
+        db.execSQL("DROP TABLE " + TABLE_TRANSACTION);
+        db.execSQL("ALTER TABLE TRANSACTIONS_V4 RENAME TO " + TABLE_TRANSACTION);
+
+        db.execSQL("CREATE TABLE BUDGET_V4 (" +
+                   BUDGET_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                   BUDGET_USER_EMAIL + " TEXT NOT NULL, " +
+                   BUDGET_CATEGORY_ID + " INTEGER NOT NULL, " +
+                   BUDGET_LIMIT_CENTS + " INTEGER NOT NULL, " +
+                   BUDGET_MONTH + " TEXT NOT NULL, " +
+                   BUDGET_ALERT_ENABLED + " INTEGER DEFAULT 1, " +
+                   BUDGET_ALERT_THRESHOLD + " REAL DEFAULT 50.0, " +
+                   "FOREIGN KEY(" + BUDGET_USER_EMAIL + ") REFERENCES " + TABLE_USER + "(" + USER_EMAIL + "), " +
+                   "FOREIGN KEY(" + BUDGET_CATEGORY_ID + ") REFERENCES " + TABLE_CATEGORY + "(" + CAT_ID + "))");
+        db.execSQL("INSERT INTO BUDGET_V4 (" + BUDGET_ID + ", " + BUDGET_USER_EMAIL + ", " + BUDGET_CATEGORY_ID + ", " +
+                   BUDGET_LIMIT_CENTS + ", " + BUDGET_MONTH + ", " + BUDGET_ALERT_ENABLED + ", " +
+                   BUDGET_ALERT_THRESHOLD + ") " +
+                   "SELECT " + BUDGET_ID + ", " + BUDGET_USER_EMAIL + ", " + BUDGET_CATEGORY_ID + ", " +
+                   "CAST(ROUND(" + BUDGET_LIMIT + " * 100) AS INTEGER), " + BUDGET_MONTH + ", " +
+                   BUDGET_ALERT_ENABLED + ", " + BUDGET_ALERT_THRESHOLD + " FROM " + TABLE_BUDGET);
+        db.execSQL("DROP TABLE " + TABLE_BUDGET);
+        db.execSQL("ALTER TABLE BUDGET_V4 RENAME TO " + TABLE_BUDGET);
+
+        createTransactionIndexes(db, TRANS_DATE);
+        createBudgetIndexes(db);
+
+        db.execSQL("DROP TABLE " + TABLE_MONTHLY_ROLLUP);
+        db.execSQL("CREATE TABLE " + TABLE_MONTHLY_ROLLUP + " (" +
+                   ROLLUP_USER_EMAIL + " TEXT NOT NULL, " +
+                   ROLLUP_MONTH + " TEXT NOT NULL, " +
+                   ROLLUP_CATEGORY_ID + " INTEGER NOT NULL, " +
+                   ROLLUP_TYPE + " TEXT NOT NULL, " +
+                   ROLLUP_TOTAL + " INTEGER NOT NULL DEFAULT 0, " +
+                   ROLLUP_TXN_COUNT + " INTEGER NOT NULL DEFAULT 0, " +
+                   "PRIMARY KEY (" + ROLLUP_USER_EMAIL + ", " + ROLLUP_MONTH + ", " +
+                   ROLLUP_CATEGORY_ID + ", " + ROLLUP_TYPE + ")) WITHOUT ROWID");
+        String monthOf = "substr(%s." + TRANS_DATE + ", 1, 7)";
+        createRollupTriggers(db, TRANS_DATE, monthOf, TRANS_AMOUNT_CENTS);
+        rebuildMonthlyRollup(db, monthOf, TRANS_AMOUNT_CENTS);
+    }
+
+    /**
+     * Version 5: TRANSACTIONS.DATE (yyyy-MM-dd TEXT) becomes DAY, an INTEGER epoch day, so range filters
+     * and ordering compare integers. The table is rebuilt, its indexes re-pointed at DAY, and the rollup
+     * triggers recreated with the month derived from DAY. A date SQLite cannot parse falls back to day 0.
+     */
+    private void migrateToVersion5(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE TRANSACTIONS_V5 (" +
+                   TRANS_ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                   TRANS_USER_EMAIL + " TEXT NOT NULL, " +
+                   TRANS_TYPE + " TEXT NOT NULL, " +
+                   TRANS_AMOUNT_CENTS + " INTEGER NOT NULL, " +
+                   TRANS_DAY + " INTEGER NOT NULL, " +
+                   TRANS_CATEGORY_ID + " INTEGER NOT NULL, " +
+                   TRANS_DESCRIPTION + " TEXT, " +
+                   "FOREIGN KEY(" + TRANS_USER_EMAIL + ") REFERENCES " + TABLE_USER + "(" + USER_EMAIL + "), " +
+                   "FOREIGN KEY(" + TRANS_CATEGORY_ID + ") REFERENCES " + TABLE_CATEGORY + "(" + CAT_ID + "))");
+        db.execSQL("INSERT INTO TRANSACTIONS_V5 (" + TRANS_ID + ", " + TRANS_USER_EMAIL + ", " + TRANS_TYPE + ", " +
+                   TRANS_AMOUNT_CENTS + ", " + TRANS_DAY + ", " + TRANS_CATEGORY_ID + ", " + TRANS_DESCRIPTION + ") " +
+                   "SELECT " + TRANS_ID + ", " + TRANS_USER_EMAIL + ", " + TRANS_TYPE + ", " + TRANS_AMOUNT_CENTS + ", " +
+                   "IFNULL(CAST(julianday(" + TRANS_DATE + ") - " + UNIX_EPOCH_JULIAN_DAY + " AS INTEGER), 0), " +
+                   TRANS_CATEGORY_ID + ", " + TRANS_DESCRIPTION + " FROM " + TABLE_TRANSACTION);
+        db.execSQL("DROP TABLE " + TABLE_TRANSACTION);
+        db.execSQL("ALTER TABLE TRANSACTIONS_V5 RENAME TO " + TABLE_TRANSACTION);
+
+        createTransactionIndexes(db, TRANS_DAY);
+
+        String monthOf = "strftime('%%Y-%%m', %s." + TRANS_DAY + " * 86400, 'unixepoch')";
+        createRollupTriggers(db, TRANS_DAY, monthOf, TRANS_AMOUNT_CENTS);
+        rebuildMonthlyRollup(db, monthOf, TRANS_AMOUNT_CENTS);
+    }
+
+    /**
+     * Version 6: TRANSACTIONS_FTS full-text index over transaction descriptions and category names,
+     * backfilled from the existing rows and kept current by triggers on TRANSACTIONS and CATEGORY
+     */
+    private void migrateToVersion6(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE " + TABLE_TRANSACTION_FTS + " USING fts4(" +
+                   FTS_DESCRIPTION + ", " + FTS_CATEGORY_NAME + ", tokenize=unicode61)");
+        createSearchTriggers(db);
+        db.execSQL("INSERT INTO " + TABLE_TRANSACTION_FTS + " (docid, " + FTS_DESCRIPTION + ", " +
+                   FTS_CATEGORY_NAME + ") SELECT t." + TRANS_ID + ", IFNULL(t." + TRANS_DESCRIPTION + ", ''), " +
+                   "IFNULL(c." + CAT_NAME + ", '') FROM " + TABLE_TRANSACTION + " t LEFT JOIN " + TABLE_CATEGORY +
+                   " c ON c." + CAT_ID + " = t." + TRANS_CATEGORY_ID);
+    }
+
+    /**
+     * Composite indexes on TRANSACTIONS for per-user totals, category spending and date-ordered lists
+     */
+    private static void createTransactionIndexes(SQLiteDatabase db, String dateColumn) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IDX_TRANS_USER_TYPE_DATE + " ON " + TABLE_TRANSACTION +
+                   " (" + TRANS_USER_EMAIL + ", " + TRANS_TYPE + ", " + dateColumn + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IDX_TRANS_USER_CATEGORY_DATE + " ON " + TABLE_TRANSACTION +
+                   " (" + TRANS_USER_EMAIL + ", " + TRANS_CATEGORY_ID + ", " + dateColumn + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IDX_TRANS_USER_DATE + " ON " + TABLE_TRANSACTION +
+                   " (" + TRANS_USER_EMAIL + ", " + dateColumn + ")");
+    }
+
+    /**
+     * Composite index on BUDGET for the per-month budget lookups
+     */
+    private static void createBudgetIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + IDX_BUDGET_USER_MONTH_CATEGORY + " ON " + TABLE_BUDGET +
+                   " (" + BUDGET_USER_EMAIL + ", " + BUDGET_MONTH + ", " + BUDGET_CATEGORY_ID + ")");
+    }
+
+    // ===================== MONTHLY ROLLUP MAINTENANCE =====================
+
+    /**
+     * (Re)create the triggers that apply every TRANSACTIONS insert, update and delete to MONTHLY_ROLLUP.
+     * monthOf is the SQL for a row's yyyy-MM key (%s stands for the NEW/OLD row) derived from dateColumn,
+     * and amountColumn is summed, so migrations that reshape TRANSACTIONS can re-point the triggers.
+     */
+    private static void createRollupTriggers(SQLiteDatabase db, String dateColumn, String monthOf,
+                                             String amountColumn) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRG_ROLLUP_AFTER_INSERT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRG_ROLLUP_AFTER_UPDATE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRG_ROLLUP_AFTER_DELETE);
+
+        db.execSQL("CREATE TRIGGER " + TRG_ROLLUP_AFTER_INSERT + " AFTER INSERT ON " + TABLE_TRANSACTION +
+                   " BEGIN " + rollupAdd("NEW", monthOf, amountColumn) + " END");
+        db.execSQL("CREATE TRIGGER " + TRG_ROLLUP_AFTER_DELETE + " AFTER DELETE ON " + TABLE_TRANSACTION +
+                   " BEGIN " + rollupRemove("OLD", monthOf, amountColumn) + " END");
+        db.execSQL("CREATE TRIGGER " + TRG_ROLLUP_AFTER_UPDATE + " AFTER UPDATE OF " +
+                   TRANS_USER_EMAIL + ", " + TRANS_TYPE + ", " + amountColumn + ", " +
+                   dateColumn + ", " + TRANS_CATEGORY_ID +
+                   " ON " + TABLE_TRANSACTION + " BEGIN " +
+                   rollupRemove("OLD", monthOf, amountColumn) + rollupAdd("NEW", monthOf, amountColumn) + " END");
+    }
+
+    /**
+     * Trigger body that adds one transaction row to its rollup bucket, creating the bucket if needed
+     */
+    private static String rollupAdd(String row, String monthOf, String amountColumn) {
+        String month = String.format(monthOf, row);
+        return "INSERT OR IGNORE INTO " + TABLE_MONTHLY_ROLLUP + " (" + ROLLUP_USER_EMAIL + ", " + ROLLUP_MONTH + ", " +
+               ROLLUP_CATEGORY_ID + ", " + ROLLUP_TYPE + ") VALUES (" + row + "." + TRANS_USER_EMAIL + ", " + month +
+               ", " + row + "." + TRANS_CATEGORY_ID + ", " + row + "." + TRANS_TYPE + "); " +
+               "UPDATE " + TABLE_MONTHLY_ROLLUP + " SET " + ROLLUP_TOTAL + " = " + ROLLUP_TOTAL + " + " +
+               row + "." + amountColumn + ", " + ROLLUP_TXN_COUNT + " = " + ROLLUP_TXN_COUNT + " + 1 WHERE " +
+               rollupBucketMatch(row, month) + "; ";
+    }
+
+    /**
+     * Trigger body that takes one transaction row out of its rollup bucket and drops the bucket once empty
+     */
+    private static String rollupRemove(String row, String monthOf, String amountColumn) {
+        String month = String.format(monthOf, row);
+        return "UPDATE " + TABLE_MONTHLY_ROLLUP + " SET " + ROLLUP_TOTAL + " = " + ROLLUP_TOTAL + " - " +
+               row + "." + amountColumn + ", " + ROLLUP_TXN_COUNT + " = " + ROLLUP_TXN_COUNT + " - 1 WHERE " +
+               rollupBucketMatch(row, month) + "; " +
+               "DELETE FROM " + TABLE_MONTHLY_ROLLUP + " WHERE " + rollupBucketMatch(row, month) +
+               " AND " + ROLLUP_TXN_COUNT + " <= 0; ";
+    }
+
+    private static String rollupBucketMatch(String row, String month) {
+        return ROLLUP_USER_EMAIL + " = " + row + "." + TRANS_USER_EMAIL + " AND " + ROLLUP_MONTH + " = " + month +
+               " AND " + ROLLUP_CATEGORY_ID + " = " + row + "." + TRANS_CATEGORY_ID +
+               " AND " + ROLLUP_TYPE + " = " + row + "." + TRANS_TYPE;
+    }
+
+    /**
+     * Recompute MONTHLY_ROLLUP from scratch out of TRANSACTIONS (used to backfill during migrations)
+     */
+    private static void rebuildMonthlyRollup(SQLiteDatabase db, String monthOf, String amountColumn) {
+        String month = String.format(monthOf, TABLE_TRANSACTION);
+        db.execSQL("DELETE FROM " + TABLE_MONTHLY_ROLLUP);
+        db.execSQL("INSERT INTO " + TABLE_MONTHLY_ROLLUP + " (" + ROLLUP_USER_EMAIL + ", " + ROLLUP_MONTH + ", " +
+                   ROLLUP_CATEGORY_ID + ", " + ROLLUP_TYPE + ", " + ROLLUP_TOTAL + ", " + ROLLUP_TXN_COUNT + ") " +
+                   "SELECT " + TRANS_USER_EMAIL + ", " + month + ", " + TRANS_CATEGORY_ID + ", " + TRANS_TYPE + ", " +
+                   "SUM(" + amountColumn + "), COUNT(*) FROM " + TABLE_TRANSACTION +
+                   " GROUP BY " + TRANS_USER_EMAIL + ", " + month + ", " + TRANS_CATEGORY_ID + ", " + TRANS_TYPE);
+    }
+
+    // ===================== SEARCH INDEX MAINTENANCE =====================
+
+    /**
+     * (Re)create the triggers that mirror TRANSACTIONS descriptions and category names into TRANSACTIONS_FTS.
+     * A category rename rewrites the name on every transaction filed under it; renames are rare, so the
+     * lookup by CATEGORY_ID alone (not a leading index column) is accepted there.
+     */
+    private static void createSearchTriggers(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRG_FTS_AFTER_INSERT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRG_FTS_AFTER_UPDATE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRG_FTS_AFTER_DELETE);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRG_FTS_CATEGORY_RENAME);
+        db.execSQL("DROP TRIGGER IF EXISTS " + TRG_FTS_CATEGORY_DELETE);
+
+        db.execSQL("CREATE TRIGGER " + TRG_FTS_AFTER_INSERT + " AFTER INSERT ON " + TABLE_TRANSACTION +
+                   " BEGIN " + searchIndexAdd("NEW") + " END");
+        db.execSQL("CREATE TRIGGER " + TRG_FTS_AFTER_DELETE + " AFTER DELETE ON " + TABLE_TRANSACTION +
+                   " BEGIN " + searchIndexRemove("OLD") + " END");
+        db.execSQL("CREATE TRIGGER " + TRG_FTS_AFTER_UPDATE + " AFTER UPDATE OF " +
+                   TRANS_DESCRIPTION + ", " + TRANS_CATEGORY_ID + " ON " + TABLE_TRANSACTION + " BEGIN " +
+                   searchIndexRemove("OLD") + searchIndexAdd("NEW") + " END");
+        db.execSQL("CREATE TRIGGER " + TRG_FTS_CATEGORY_RENAME + " AFTER UPDATE OF " + CAT_NAME +
+                   " ON " + TABLE_CATEGORY + " BEGIN " + searchIndexSetCategoryName("NEW.ID", "NEW." + CAT_NAME) +
+                   " END");
+        db.execSQL("CREATE TRIGGER " + TRG_FTS_CATEGORY_DELETE + " AFTER DELETE ON " + TABLE_CATEGORY +
+                   " BEGIN " + searchIndexSetCategoryName("OLD.ID", "''") + " END");
+    }
+
+    /**
+     * Trigger body that indexes one transaction row under its description and current category name
+     */
+    private static String searchIndexAdd(String row) {
+        return "INSERT INTO " + TABLE_TRANSACTION_FTS + " (docid, " + FTS_DESCRIPTION + ", " + FTS_CATEGORY_NAME +
+               ") VALUES (" + row + "." + TRANS_ID + ", IFNULL(" + row + "." + TRANS_DESCRIPTION + ", ''), " +
+               "IFNULL((SELECT " + CAT_NAME + " FROM " + TABLE_CATEGORY + " WHERE " + CAT_ID + " = " +
+               row + "." + TRANS_CATEGORY_ID + "), '')); ";
+    }
+
+    private static String searchIndexRemove(String row) {
+        return "DELETE FROM " + TABLE_TRANSACTION_FTS + " WHERE docid = " + row + "." + TRANS_ID + "; ";
+    }
+
+    private static String searchIndexSetCategoryName(String categoryId, String name) {
+        return "UPDATE " + TABLE_TRANSACTION_FTS + " SET " + FTS_CATEGORY_NAME + " = " + name +
+               " WHERE docid IN (SELECT " + TRANS_ID + " FROM " + TABLE_TRANSACTION + " WHERE " +
+               TRANS_CATEGORY_ID + " = " + categoryId + "); ";
+    }
+
+    /**
+     * Turn what the user typed into an FTS query: every word becomes a prefix term and all must match.
+     * Punctuation and quotes are dropped and words are lowercased, so input can never be read as FTS
+     * syntax (AND/OR/NOT/NEAR only count as operators in upper case). Returns null if no word is left.
+     */
+    private static String toSearchQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append(word).append('*');
+                word.setLength(0);
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
     }
 
     /**
@@ -129,7 +603,7 @@ public class DataBaseHelper extends SQLiteOpenHelper {
             values.put(CAT_NAME, cat);
             values.put(CAT_TYPE, "INCOME");
             values.putNull(CAT_USER_EMAIL);
-            db.insert(TABLE_CATEGORY, null, values);
+            insert(db, TABLE_CATEGORY, null, values);
         }
 
         // Default Expense Categories
@@ -140,7 +614,7 @@ public class DataBaseHelper extends SQLiteOpenHelper {
             values.put(CAT_NAME, cat);
             values.put(CAT_TYPE, "EXPENSE");
             values.putNull(CAT_USER_EMAIL);
-            db.insert(TABLE_CATEGORY, null, values);
+            insert(db, TABLE_CATEGORY, null, values);
         }
     }
 
@@ -156,7 +630,8 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         values.put(USER_FIRST_NAME, user.getFirstName());
         values.put(USER_LAST_NAME, user.getLastName());
         values.put(USER_PASSWORD, user.getPassword());
-        long result = db.insert(TABLE_USER, null, values);
+        long result = insert(db, TABLE_USER, null, values);
+        if (result != -1) invalidationTracker.invalidate(Table.USERS);
         return result != -1;
     }
 
@@ -165,9 +640,9 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public boolean userExists(String email) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_USER + " WHERE " + USER_EMAIL + " = ?", 
+        Cursor cursor = rawQuery(db, "SELECT * FROM " + TABLE_USER + " WHERE " + USER_EMAIL + " = ?", 
                                     new String[]{email});
-        boolean exists = cursor.getCount() > 0;
+        boolean exists = cursor.moveToFirst();
         cursor.close();
         return exists;
     }
@@ -177,10 +652,10 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public boolean authenticateUser(String email, String password) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_USER + " WHERE " + 
+        Cursor cursor = rawQuery(db, "SELECT * FROM " + TABLE_USER + " WHERE " + 
                                     USER_EMAIL + " = ? AND " + USER_PASSWORD + " = ?", 
                                     new String[]{email, password});
-        boolean valid = cursor.getCount() > 0;
+        boolean valid = cursor.moveToFirst();
         cursor.close();
         return valid;
     }
@@ -190,7 +665,7 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public User getUser(String email) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_USER + " WHERE " + USER_EMAIL + " = ?", 
+        Cursor cursor = rawQuery(db, "SELECT * FROM " + TABLE_USER + " WHERE " + USER_EMAIL + " = ?", 
                                     new String[]{email});
         User user = null;
         if (cursor.moveToFirst()) {
@@ -212,7 +687,8 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         ContentValues values = new ContentValues();
         values.put(USER_FIRST_NAME, firstName);
         values.put(USER_LAST_NAME, lastName);
-        int rowsAffected = db.update(TABLE_USER, values, USER_EMAIL + " = ?", new String[]{email});
+        int rowsAffected = update(db, TABLE_USER, values, USER_EMAIL + " = ?", new String[]{email});
+        if (rowsAffected > 0) invalidationTracker.invalidate(Table.USERS);
         return rowsAffected > 0;
     }
 
@@ -223,7 +699,8 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
         values.put(USER_PASSWORD, newPassword);
-        int rowsAffected = db.update(TABLE_USER, values, USER_EMAIL + " = ?", new String[]{email});
+        int rowsAffected = update(db, TABLE_USER, values, USER_EMAIL + " = ?", new String[]{email});
+        if (rowsAffected > 0) invalidationTracker.invalidate(Table.USERS);
         return rowsAffected > 0;
     }
 
@@ -234,11 +711,20 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public long insertCategory(Category category) {
         SQLiteDatabase db = this.getWritableDatabase();
+        long id = insert(db, TABLE_CATEGORY, null, categoryValues(category));
+        if (id != -1) {
+            categoryCache.put(new Category(id, category.getName(), category.getType(), category.getUserEmail()));
+            invalidationTracker.invalidate(Table.CATEGORY);
+        }
+        return id;
+    }
+
+    private static ContentValues categoryValues(Category category) {
         ContentValues values = new ContentValues();
         values.put(CAT_NAME, category.getName());
         values.put(CAT_TYPE, category.getType());
         values.put(CAT_USER_EMAIL, category.getUserEmail());
-        return db.insert(TABLE_CATEGORY, null, values);
+        return values;
     }
 
     /**
@@ -248,39 +734,63 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     public List<Category> getCategoriesByType(String type, String userEmail) {
         List<Category> categories = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
+        Cursor cursor = rawQuery(db, 
             "SELECT * FROM " + TABLE_CATEGORY + " WHERE " + CAT_TYPE + " = ? AND (" + 
             CAT_USER_EMAIL + " IS NULL OR " + CAT_USER_EMAIL + " = ?)",
             new String[]{type, userEmail});
         
         while (cursor.moveToNext()) {
-            Category category = new Category();
-            category.setId(cursor.getLong(cursor.getColumnIndexOrThrow(CAT_ID)));
-            category.setName(cursor.getString(cursor.getColumnIndexOrThrow(CAT_NAME)));
-            category.setType(cursor.getString(cursor.getColumnIndexOrThrow(CAT_TYPE)));
-            int emailIndex = cursor.getColumnIndexOrThrow(CAT_USER_EMAIL);
-            category.setUserEmail(cursor.isNull(emailIndex) ? null : cursor.getString(emailIndex));
-            categories.add(category);
+            categories.add(cursorToCategory(cursor));
         }
         cursor.close();
         return categories;
     }
 
     /**
-     * Get category by ID
+     * Get the in-memory categories of a user, loading them with one query the first time
+     * (or after another user signs in). Later category writes through this helper keep it current;
+     * one that lands while the query runs makes it run again, as the rows may not include it.
+     */
+    public CategoryCache getCategoryCache(String userEmail) {
+        synchronized (categoryCacheLoadLock) {
+            while (!categoryCache.isLoadedFor(userEmail)) {
+                long writeCount = categoryCache.getWriteCount();
+                List<Category> visible = new ArrayList<>();
+                Cursor cursor = rawQuery(this.getReadableDatabase(), 
+                    "SELECT * FROM " + TABLE_CATEGORY + " WHERE " + CAT_USER_EMAIL + " IS NULL OR " +
+                    CAT_USER_EMAIL + " = ?",
+                    new String[]{userEmail});
+                while (cursor.moveToNext()) {
+                    visible.add(cursorToCategory(cursor));
+                }
+                cursor.close();
+                categoryCache.load(userEmail, visible, writeCount);
+            }
+        }
+        return categoryCache;
+    }
+
+    /**
+     * The category cache if it already holds userEmail's categories, otherwise null. Never queries, so
+     * the main thread can bind from it and warm it with getCategoryCache in the background when null.
+     */
+    public CategoryCache peekCategoryCache(String userEmail) {
+        return categoryCache.isLoadedFor(userEmail) ? categoryCache : null;
+    }
+
+    /**
+     * Get category by ID, from the category cache when it holds it
      */
     public Category getCategoryById(long id) {
+        Category cached = categoryCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_CATEGORY + " WHERE " + CAT_ID + " = ?", 
-                                    new String[]{String.valueOf(id)});
+        Cursor cursor = rawQuery(db, SQL_CATEGORY_BY_ID, new String[]{String.valueOf(id)});
         Category category = null;
         if (cursor.moveToFirst()) {
-            category = new Category();
-            category.setId(cursor.getLong(cursor.getColumnIndexOrThrow(CAT_ID)));
-            category.setName(cursor.getString(cursor.getColumnIndexOrThrow(CAT_NAME)));
-            category.setType(cursor.getString(cursor.getColumnIndexOrThrow(CAT_TYPE)));
-            int emailIndex = cursor.getColumnIndexOrThrow(CAT_USER_EMAIL);
-            category.setUserEmail(cursor.isNull(emailIndex) ? null : cursor.getString(emailIndex));
+            category = cursorToCategory(cursor);
         }
         cursor.close();
         return category;
@@ -291,7 +801,7 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public String getCategoryNameById(long id) {
         Category category = getCategoryById(id);
-        return category != null ? category.getName() : "Unknown";
+        return category != null ? category.getName() : CategoryCache.UNKNOWN_NAME;
     }
 
     /**
@@ -301,36 +811,81 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
         values.put(CAT_NAME, category.getName());
-        int rowsAffected = db.update(TABLE_CATEGORY, values, CAT_ID + " = ?", 
+        int rowsAffected = update(db, TABLE_CATEGORY, values, CAT_ID + " = ?", 
                                      new String[]{String.valueOf(category.getId())});
+        if (rowsAffected > 0) {
+            categoryCache.rename(category.getId(), category.getName());
+            invalidationTracker.invalidate(Table.CATEGORY);
+        }
         return rowsAffected > 0;
     }
 
     /**
-     * Delete category (only user-created categories can be deleted)
+     * Delete category (only user-created categories can be deleted).
+     * Returns false while transactions or budgets still reference it.
      */
     public boolean deleteCategory(long categoryId) {
         SQLiteDatabase db = this.getWritableDatabase();
-        int rowsAffected = db.delete(TABLE_CATEGORY, CAT_ID + " = ? AND " + CAT_USER_EMAIL + " IS NOT NULL", 
-                                     new String[]{String.valueOf(categoryId)});
-        return rowsAffected > 0;
+        try {
+            int rowsAffected = delete(db, TABLE_CATEGORY, CAT_ID + " = ? AND " + CAT_USER_EMAIL + " IS NOT NULL", 
+                                         new String[]{String.valueOf(categoryId)});
+            if (rowsAffected > 0) {
+                categoryCache.remove(categoryId);
+                invalidationTracker.invalidate(Table.CATEGORY);
+            }
+            return rowsAffected > 0;
+        } catch (SQLiteConstraintException e) {
+            return false;
+        }
+    }
+
+    private Category cursorToCategory(Cursor cursor) {
+        Category category = new Category();
+        category.setId(cursor.getLong(cursor.getColumnIndexOrThrow(CAT_ID)));
+        category.setName(cursor.getString(cursor.getColumnIndexOrThrow(CAT_NAME)));
+        category.setType(cursor.getString(cursor.getColumnIndexOrThrow(CAT_TYPE)));
+        int emailIndex = cursor.getColumnIndexOrThrow(CAT_USER_EMAIL);
+        category.setUserEmail(cursor.isNull(emailIndex) ? null : cursor.getString(emailIndex));
+        return category;
     }
 
     // ===================== TRANSACTION OPERATIONS =====================
 
     /**
-     * Insert a new transaction
+     * Insert a new transaction, returns its ID or -1 on failure
      */
     public long insertTransaction(Transaction transaction) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        values.put(TRANS_USER_EMAIL, transaction.getUserEmail());
-        values.put(TRANS_TYPE, transaction.getType());
-        values.put(TRANS_AMOUNT, transaction.getAmount());
-        values.put(TRANS_DATE, transaction.getDate());
-        values.put(TRANS_CATEGORY_ID, transaction.getCategoryId());
-        values.put(TRANS_DESCRIPTION, transaction.getDescription());
-        return db.insert(TABLE_TRANSACTION, null, values);
+        SQLiteStatement statement = statementCache.acquire(this.getWritableDatabase(), SQL_INSERT_TRANSACTION);
+        try {
+            long id = executeInsertTransaction(statement, transaction, transaction.getCategoryId());
+            if (id != -1 && !transactionListeners.isEmpty()) {
+                Transaction inserted = new Transaction(id, transaction.getUserEmail(), transaction.getType(),
+                        transaction.getAmountCents(), transaction.getEpochDay(), transaction.getCategoryId(),
+                        transaction.getDescription());
+                for (TransactionListener listener : transactionListeners) {
+                    listener.onTransactionsInserted(Collections.singletonList(inserted));
+                }
+            }
+            invalidationTracker.invalidate(Table.TRANSACTIONS);
+            return id;
+        } catch (SQLException e) {
+            return -1;
+        } finally {
+            statementCache.release(statement);
+        }
+    }
+
+    private long executeInsertTransaction(SQLiteStatement statement, Transaction transaction, long categoryId) {
+        statement.bindString(1, transaction.getUserEmail());
+        statement.bindString(2, transaction.getType());
+        statement.bindLong(3, transaction.getAmountCents());
+        statement.bindLong(4, transaction.getEpochDay());
+        statement.bindLong(5, categoryId);
+        bindNullableString(statement, 6, transaction.getDescription());
+        long start = System.nanoTime();
+        long id = statement.executeInsert();
+        queryTracer.record(SQL_INSERT_TRANSACTION, id != -1 ? 1 : 0, System.nanoTime() - start);
+        return id;
     }
 
     /**
@@ -339,9 +894,9 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     public List<Transaction> getAllTransactions(String userEmail) {
         List<Transaction> transactions = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
+        Cursor cursor = rawQuery(db, 
             "SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_USER_EMAIL + " = ? ORDER BY " + 
-            TRANS_DATE + " DESC", new String[]{userEmail});
+            TRANS_DAY + " DESC, " + TRANS_ID + " DESC", new String[]{userEmail});
         
         while (cursor.moveToNext()) {
             transactions.add(cursorToTransaction(cursor));
@@ -356,9 +911,9 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     public List<Transaction> getTransactionsByType(String userEmail, String type) {
         List<Transaction> transactions = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
+        Cursor cursor = rawQuery(db, 
             "SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_USER_EMAIL + " = ? AND " + 
-            TRANS_TYPE + " = ? ORDER BY " + TRANS_DATE + " DESC", 
+            TRANS_TYPE + " = ? ORDER BY " + TRANS_DAY + " DESC, " + TRANS_ID + " DESC", 
             new String[]{userEmail, type});
         
         while (cursor.moveToNext()) {
@@ -369,15 +924,91 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     }
 
     /**
-     * Get transactions within a date range
+     * Get the newest page of transactions of a type, ordered by DAY then ID, newest first
+     */
+    public List<Transaction> getTransactionsPage(String userEmail, String type, int limit) {
+        return queryTransactions(
+            "SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_USER_EMAIL + " = ? AND " +
+            TRANS_TYPE + " = ? ORDER BY " + TRANS_DAY + " DESC, " + TRANS_ID + " DESC LIMIT ?",
+            new String[]{userEmail, type, String.valueOf(limit)});
+    }
+
+    /**
+     * Get the page of transactions of a type that follows the row (afterDay, afterId) in newest-first order.
+     * Keyset paging: the index seeks straight to the key, so every page costs the same however deep it is.
+     */
+    public List<Transaction> getTransactionsPage(String userEmail, String type, int afterDay, long afterId,
+                                                 int limit) {
+        String day = String.valueOf(afterDay);
+        return queryTransactions(
+            "SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_USER_EMAIL + " = ? AND " +
+            TRANS_TYPE + " = ? AND " + TRANS_DAY + " <= ? AND (" + TRANS_DAY + " < ? OR " + TRANS_ID + " < ?) " +
+            "ORDER BY " + TRANS_DAY + " DESC, " + TRANS_ID + " DESC LIMIT ?",
+            new String[]{userEmail, type, day, day, String.valueOf(afterId), String.valueOf(limit)});
+    }
+
+    /**
+     * Get the number and total in cents of all transactions of a type, summed from the monthly rollup
+     * so the cost does not depend on how many transactions there are
+     */
+    public TransactionSummary getTransactionSummary(String userEmail, String type) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = rawQuery(db, 
+            "SELECT IFNULL(SUM(" + ROLLUP_TXN_COUNT + "), 0), IFNULL(SUM(" + ROLLUP_TOTAL + "), 0) FROM " +
+            TABLE_MONTHLY_ROLLUP + " WHERE " + ROLLUP_USER_EMAIL + " = ? AND " + ROLLUP_TYPE + " = ?",
+            new String[]{userEmail, type});
+        TransactionSummary summary = new TransactionSummary();
+        if (cursor.moveToFirst()) {
+            summary.setCount(cursor.getInt(0));
+            summary.setTotalCents(cursor.getLong(1));
+        }
+        cursor.close();
+        return summary;
+    }
+
+    /**
+     * Search one user's transactions of a type by description and category name, best matches first.
+     * Every word of text must match the start of a word in either field; rows are ranked by how many
+     * times the terms hit, then newest first. Paged by offset since the order depends on the query.
+     */
+    public List<Transaction> searchTransactions(String userEmail, String type, String text, int limit, int offset) {
+        String match = toSearchQuery(text);
+        if (match == null) {
+            return new ArrayList<>();
+        }
+        // offsets() lists four numbers per hit, so counting them gives the number of hits
+        String offsets = "offsets(" + TABLE_TRANSACTION_FTS + ")";
+        String hits = "(length(" + offsets + ") - length(replace(" + offsets + ", ' ', '')) + 1) / 4";
+        return queryTransactions(
+            "SELECT t.* FROM " + TABLE_TRANSACTION_FTS + " JOIN " + TABLE_TRANSACTION + " t ON t." + TRANS_ID +
+            " = " + TABLE_TRANSACTION_FTS + ".docid WHERE " + TABLE_TRANSACTION_FTS + " MATCH ? AND t." +
+            TRANS_USER_EMAIL + " = ? AND t." +
+            TRANS_TYPE + " = ? ORDER BY " + hits + " DESC, t." + TRANS_DAY + " DESC, t." + TRANS_ID + " DESC " +
+            "LIMIT ? OFFSET ?",
+            new String[]{match, userEmail, type, String.valueOf(limit), String.valueOf(offset)});
+    }
+
+    private List<Transaction> queryTransactions(String sql, String[] args) {
+        List<Transaction> transactions = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = rawQuery(db, sql, args);
+        while (cursor.moveToNext()) {
+            transactions.add(cursorToTransaction(cursor));
+        }
+        cursor.close();
+        return transactions;
+    }
+
+    /**
+     * Get transactions within an inclusive range of epoch days
      */
-    public List<Transaction> getTransactionsByDateRange(String userEmail, String startDate, String endDate) {
+    public List<Transaction> getTransactionsByDateRange(String userEmail, int startDay, int endDay) {
         List<Transaction> transactions = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
+        Cursor cursor = rawQuery(db, 
             "SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_USER_EMAIL + " = ? AND " + 
-            TRANS_DATE + " >= ? AND " + TRANS_DATE + " <= ? ORDER BY " + TRANS_DATE + " DESC", 
-            new String[]{userEmail, startDate, endDate});
+            TRANS_DAY + " BETWEEN ? AND ? ORDER BY " + TRANS_DAY + " DESC, " + TRANS_ID + " DESC", 
+            new String[]{userEmail, String.valueOf(startDay), String.valueOf(endDay)});
         
         while (cursor.moveToNext()) {
             transactions.add(cursorToTransaction(cursor));
@@ -387,17 +1018,27 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     }
 
     /**
-     * Get transactions by type within a date range
+     * Get the newest limit transactions within an inclusive range of epoch days, newest first
+     */
+    public List<Transaction> getTransactionsByDateRange(String userEmail, int startDay, int endDay, int limit) {
+        return queryTransactions(
+            "SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_USER_EMAIL + " = ? AND " +
+            TRANS_DAY + " BETWEEN ? AND ? ORDER BY " + TRANS_DAY + " DESC, " + TRANS_ID + " DESC LIMIT ?",
+            new String[]{userEmail, String.valueOf(startDay), String.valueOf(endDay), String.valueOf(limit)});
+    }
+
+    /**
+     * Get transactions by type within an inclusive range of epoch days
      */
     public List<Transaction> getTransactionsByTypeAndDateRange(String userEmail, String type, 
-                                                                String startDate, String endDate) {
+                                                                int startDay, int endDay) {
         List<Transaction> transactions = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
+        Cursor cursor = rawQuery(db, 
             "SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_USER_EMAIL + " = ? AND " + 
-            TRANS_TYPE + " = ? AND " + TRANS_DATE + " >= ? AND " + TRANS_DATE + " <= ? ORDER BY " + 
-            TRANS_DATE + " DESC", 
-            new String[]{userEmail, type, startDate, endDate});
+            TRANS_TYPE + " = ? AND " + TRANS_DAY + " BETWEEN ? AND ? ORDER BY " + 
+            TRANS_DAY + " DESC, " + TRANS_ID + " DESC", 
+            new String[]{userEmail, type, String.valueOf(startDay), String.valueOf(endDay)});
         
         while (cursor.moveToNext()) {
             transactions.add(cursorToTransaction(cursor));
@@ -411,7 +1052,7 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public Transaction getTransactionById(long id) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_ID + " = ?", 
+        Cursor cursor = rawQuery(db, "SELECT * FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_ID + " = ?", 
                                     new String[]{String.valueOf(id)});
         Transaction transaction = null;
         if (cursor.moveToFirst()) {
@@ -426,14 +1067,24 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public boolean updateTransaction(Transaction transaction) {
         SQLiteDatabase db = this.getWritableDatabase();
+        int rowsAffected = update(db, TABLE_TRANSACTION, transactionUpdateValues(transaction), TRANS_ID + " = ?", 
+                                     new String[]{String.valueOf(transaction.getId())});
+        if (rowsAffected > 0) {
+            for (TransactionListener listener : transactionListeners) {
+                listener.onTransactionsUpdated(Collections.singletonList(transaction));
+            }
+            invalidationTracker.invalidate(Table.TRANSACTIONS);
+        }
+        return rowsAffected > 0;
+    }
+
+    private static ContentValues transactionUpdateValues(Transaction transaction) {
         ContentValues values = new ContentValues();
-        values.put(TRANS_AMOUNT, transaction.getAmount());
-        values.put(TRANS_DATE, transaction.getDate());
+        values.put(TRANS_AMOUNT_CENTS, transaction.getAmountCents());
+        values.put(TRANS_DAY, transaction.getEpochDay());
         values.put(TRANS_CATEGORY_ID, transaction.getCategoryId());
         values.put(TRANS_DESCRIPTION, transaction.getDescription());
-        int rowsAffected = db.update(TABLE_TRANSACTION, values, TRANS_ID + " = ?", 
-                                     new String[]{String.valueOf(transaction.getId())});
-        return rowsAffected > 0;
+        return values;
     }
 
     /**
@@ -441,91 +1092,127 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public boolean deleteTransaction(long id) {
         SQLiteDatabase db = this.getWritableDatabase();
-        int rowsAffected = db.delete(TABLE_TRANSACTION, TRANS_ID + " = ?", 
+        int rowsAffected = delete(db, TABLE_TRANSACTION, TRANS_ID + " = ?", 
                                      new String[]{String.valueOf(id)});
+        if (rowsAffected > 0) {
+            for (TransactionListener listener : transactionListeners) {
+                listener.onTransactionsDeleted(Collections.singletonList(id));
+            }
+            invalidationTracker.invalidate(Table.TRANSACTIONS);
+        }
         return rowsAffected > 0;
     }
 
     /**
-     * Get total income for a user within a date range
+     * Get total income in cents for a user within an inclusive range of epoch days
      */
-    public double getTotalIncome(String userEmail, String startDate, String endDate) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
-            "SELECT SUM(" + TRANS_AMOUNT + ") FROM " + TABLE_TRANSACTION + " WHERE " + 
-            TRANS_USER_EMAIL + " = ? AND " + TRANS_TYPE + " = 'INCOME' AND " + 
-            TRANS_DATE + " >= ? AND " + TRANS_DATE + " <= ?", 
-            new String[]{userEmail, startDate, endDate});
-        double total = 0;
-        if (cursor.moveToFirst()) {
-            total = cursor.getDouble(0);
-        }
-        cursor.close();
-        return total;
+    public long getTotalIncome(String userEmail, int startDay, int endDay) {
+        return getTotalByType(userEmail, "INCOME", startDay, endDay);
     }
 
     /**
-     * Get total expense for a user within a date range
+     * Get total expense in cents for a user within an inclusive range of epoch days
      */
-    public double getTotalExpense(String userEmail, String startDate, String endDate) {
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
-            "SELECT SUM(" + TRANS_AMOUNT + ") FROM " + TABLE_TRANSACTION + " WHERE " + 
-            TRANS_USER_EMAIL + " = ? AND " + TRANS_TYPE + " = 'EXPENSE' AND " + 
-            TRANS_DATE + " >= ? AND " + TRANS_DATE + " <= ?", 
-            new String[]{userEmail, startDate, endDate});
-        double total = 0;
-        if (cursor.moveToFirst()) {
-            total = cursor.getDouble(0);
+    public long getTotalExpense(String userEmail, int startDay, int endDay) {
+        return getTotalByType(userEmail, "EXPENSE", startDay, endDay);
+    }
+
+    private long getTotalByType(String userEmail, String type, int startDay, int endDay) {
+        return resultCache.get(SQL_TOTAL_BY_TYPE_IN_RANGE, TRANSACTION_TABLES,
+                () -> queryTotalByType(userEmail, type, startDay, endDay), userEmail, type, startDay, endDay);
+    }
+
+    private long queryTotalByType(String userEmail, String type, int startDay, int endDay) {
+        SQLiteStatement statement = statementCache.acquire(this.getReadableDatabase(), SQL_TOTAL_BY_TYPE_IN_RANGE);
+        try {
+            statement.bindString(1, userEmail);
+            statement.bindString(2, type);
+            statement.bindLong(3, startDay);
+            statement.bindLong(4, endDay);
+            return simpleQueryForLong(statement, SQL_TOTAL_BY_TYPE_IN_RANGE);
+        } finally {
+            statementCache.release(statement);
         }
-        cursor.close();
-        return total;
     }
 
     /**
-     * Get expense by category for a user within a date range
+     * Get per-category totals for a user, type (INCOME or EXPENSE) and inclusive epoch-day range in one
+     * grouped query. Only categories with transactions in the range are returned, largest total first.
      */
-    public List<Object[]> getExpenseByCategory(String userEmail, String startDate, String endDate) {
-        List<Object[]> categoryExpenses = new ArrayList<>();
+    public List<CategoryTotal> getCategoryTotals(String userEmail, String type, int startDay, int endDay) {
+        List<CategoryTotal> totals = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
-            "SELECT c." + CAT_NAME + ", SUM(t." + TRANS_AMOUNT + ") FROM " + TABLE_TRANSACTION + " t " +
+        Cursor cursor = rawQuery(db, 
+            "SELECT c." + CAT_ID + ", c." + CAT_NAME + ", SUM(t." + TRANS_AMOUNT_CENTS + ") AS TOTAL FROM " +
+            TABLE_TRANSACTION + " t " +
             "INNER JOIN " + TABLE_CATEGORY + " c ON t." + TRANS_CATEGORY_ID + " = c." + CAT_ID + " " +
-            "WHERE t." + TRANS_USER_EMAIL + " = ? AND t." + TRANS_TYPE + " = 'EXPENSE' AND " +
-            "t." + TRANS_DATE + " >= ? AND t." + TRANS_DATE + " <= ? " +
-            "GROUP BY c." + CAT_NAME,
-            new String[]{userEmail, startDate, endDate});
-        
+            "WHERE t." + TRANS_USER_EMAIL + " = ? AND t." + TRANS_TYPE + " = ? AND " +
+            "t." + TRANS_DAY + " BETWEEN ? AND ? " +
+            "GROUP BY t." + TRANS_CATEGORY_ID + " ORDER BY TOTAL DESC",
+            new String[]{userEmail, type, String.valueOf(startDay), String.valueOf(endDay)});
+
         while (cursor.moveToNext()) {
-            String categoryName = cursor.getString(0);
-            double amount = cursor.getDouble(1);
-            categoryExpenses.add(new Object[]{categoryName, amount});
+            totals.add(new CategoryTotal(cursor.getLong(0), cursor.getString(1), type, cursor.getLong(2)));
         }
         cursor.close();
-        return categoryExpenses;
+        return totals;
     }
 
     /**
-     * Get income by category for a user within a date range
+     * Get expense by category for a user within an inclusive range of epoch days
      */
-    public List<Object[]> getIncomeByCategory(String userEmail, String startDate, String endDate) {
-        List<Object[]> categoryIncomes = new ArrayList<>();
-        SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
-            "SELECT c." + CAT_NAME + ", SUM(t." + TRANS_AMOUNT + ") FROM " + TABLE_TRANSACTION + " t " +
-            "INNER JOIN " + TABLE_CATEGORY + " c ON t." + TRANS_CATEGORY_ID + " = c." + CAT_ID + " " +
-            "WHERE t." + TRANS_USER_EMAIL + " = ? AND t." + TRANS_TYPE + " = 'INCOME' AND " +
-            "t." + TRANS_DATE + " >= ? AND t." + TRANS_DATE + " <= ? " +
-            "GROUP BY c." + CAT_NAME,
-            new String[]{userEmail, startDate, endDate});
-        
-        while (cursor.moveToNext()) {
-            String categoryName = cursor.getString(0);
-            double amount = cursor.getDouble(1);
-            categoryIncomes.add(new Object[]{categoryName, amount});
+    public List<CategoryTotal> getExpenseByCategory(String userEmail, int startDay, int endDay) {
+        return getCategoryTotals(userEmail, "EXPENSE", startDay, endDay);
+    }
+
+    /**
+     * Get income by category for a user within an inclusive range of epoch days
+     */
+    public List<CategoryTotal> getIncomeByCategory(String userEmail, int startDay, int endDay) {
+        return getCategoryTotals(userEmail, "INCOME", startDay, endDay);
+    }
+
+    private static void bindNullableString(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
         }
-        cursor.close();
-        return categoryIncomes;
+    }
+
+    /**
+     * Open a cursor over every transaction of a user with its category name, oldest first, for streaming
+     * exports. Columns in order: ID, DAY, TYPE, AMOUNT_CENTS, CATEGORY_NAME (null if the category is gone),
+     * DESCRIPTION. The caller must close the cursor.
+     */
+    public Cursor queryLedgerForExport(String userEmail) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return rawQuery(db, 
+            "SELECT t." + TRANS_ID + ", t." + TRANS_DAY + ", t." + TRANS_TYPE + ", t." + TRANS_AMOUNT_CENTS + ", " +
+            "c." + CAT_NAME + " AS CATEGORY_NAME, t." + TRANS_DESCRIPTION + " FROM " + TABLE_TRANSACTION + " t " +
+            "LEFT JOIN " + TABLE_CATEGORY + " c ON t." + TRANS_CATEGORY_ID + " = c." + CAT_ID + " " +
+            "WHERE t." + TRANS_USER_EMAIL + " = ? ORDER BY t." + TRANS_DAY + ", t." + TRANS_ID,
+            new String[]{userEmail});
+    }
+
+    /**
+     * Open a cursor over one page of the columns an in-memory ledger keeps, so loading one builds no
+     * Transaction objects: at most limit rows after (afterDay, afterId) in (DAY, ID) order. Columns in
+     * order: ID, DAY, TYPE, AMOUNT_CENTS, CATEGORY_ID. The caller must close the cursor.
+     *
+     * Paged by key rather than read through one cursor: a cursor refills its window by running the
+     * query again at an offset, so a write between refills would shift rows past it or back into it.
+     * A page small enough for one window is read from a single snapshot.
+     */
+    public Cursor queryLedgerRows(String userEmail, int afterDay, long afterId, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        return rawQuery(db,
+            "SELECT " + TRANS_ID + ", " + TRANS_DAY + ", " + TRANS_TYPE + ", " + TRANS_AMOUNT_CENTS + ", " +
+            TRANS_CATEGORY_ID + " FROM " + TABLE_TRANSACTION + " WHERE " + TRANS_USER_EMAIL + " = ? AND " +
+            TRANS_DAY + " >= ? AND (" + TRANS_DAY + " > ? OR " + TRANS_ID + " > ?) " +
+            "ORDER BY " + TRANS_DAY + ", " + TRANS_ID + " LIMIT ?",
+            new String[]{userEmail, String.valueOf(afterDay), String.valueOf(afterDay), String.valueOf(afterId),
+                         String.valueOf(limit)});
     }
 
     /**
@@ -536,13 +1223,198 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         transaction.setId(cursor.getLong(cursor.getColumnIndexOrThrow(TRANS_ID)));
         transaction.setUserEmail(cursor.getString(cursor.getColumnIndexOrThrow(TRANS_USER_EMAIL)));
         transaction.setType(cursor.getString(cursor.getColumnIndexOrThrow(TRANS_TYPE)));
-        transaction.setAmount(cursor.getDouble(cursor.getColumnIndexOrThrow(TRANS_AMOUNT)));
-        transaction.setDate(cursor.getString(cursor.getColumnIndexOrThrow(TRANS_DATE)));
+        transaction.setAmountCents(cursor.getLong(cursor.getColumnIndexOrThrow(TRANS_AMOUNT_CENTS)));
+        transaction.setEpochDay(cursor.getInt(cursor.getColumnIndexOrThrow(TRANS_DAY)));
         transaction.setCategoryId(cursor.getLong(cursor.getColumnIndexOrThrow(TRANS_CATEGORY_ID)));
         transaction.setDescription(cursor.getString(cursor.getColumnIndexOrThrow(TRANS_DESCRIPTION)));
         return transaction;
     }
 
+    // ===================== BATCH TRANSACTION OPERATIONS =====================
+    // Each method runs in a single SQLite transaction: one commit (and fsync) for the whole batch,
+    // and either every row is written or none is.
+
+    /**
+     * Insert many transactions. On success each transaction gets its new ID; on failure nothing is inserted.
+     */
+    public boolean insertTransactions(List<Transaction> transactions) {
+        return insertTransactions(transactions, Collections.emptyMap());
+    }
+
+    /**
+     * Insert new categories and many transactions together, so a failed batch leaves no category behind.
+     * newCategories are keyed by the placeholder category ID (e.g. negative) that their rows carry. On
+     * success each category and each of its rows gets the real category ID, and every transaction its
+     * new ID; on failure nothing is inserted and nothing is changed.
+     */
+    public boolean insertTransactions(List<Transaction> transactions, Map<Long, Category> newCategories) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        SQLiteStatement statement = statementCache.acquire(db, SQL_INSERT_TRANSACTION);
+        Map<Long, Long> categoryIds = new HashMap<>(); // Real ID by placeholder
+        long[] ids = new long[transactions.size()];
+        db.beginTransaction();
+        try {
+            for (Map.Entry<Long, Category> entry : newCategories.entrySet()) {
+                long id = insert(db, TABLE_CATEGORY, null, categoryValues(entry.getValue()));
+                if (id == -1) throw new SQLException("Could not insert category " + entry.getValue().getName());
+                categoryIds.put(entry.getKey(), id);
+            }
+            for (int i = 0; i < ids.length; i++) {
+                Transaction transaction = transactions.get(i);
+                Long categoryId = categoryIds.get(transaction.getCategoryId());
+                ids[i] = executeInsertTransaction(statement, transaction,
+                        categoryId != null ? categoryId : transaction.getCategoryId());
+            }
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            return false;
+        } finally {
+            db.endTransaction();
+            statementCache.release(statement);
+        }
+        // Only committed categories reach the cache
+        for (Map.Entry<Long, Category> entry : newCategories.entrySet()) {
+            Category category = entry.getValue();
+            category.setId(categoryIds.get(entry.getKey()));
+            categoryCache.put(new Category(category.getId(), category.getName(), category.getType(),
+                    category.getUserEmail()));
+        }
+        if (!newCategories.isEmpty()) {
+            invalidationTracker.invalidate(Table.CATEGORY);
+        }
+        for (int i = 0; i < ids.length; i++) {
+            Transaction transaction = transactions.get(i);
+            transaction.setId(ids[i]);
+            Long categoryId = categoryIds.get(transaction.getCategoryId());
+            if (categoryId != null) transaction.setCategoryId(categoryId);
+        }
+        if (ids.length > 0) {
+            for (TransactionListener listener : transactionListeners) {
+                listener.onTransactionsInserted(transactions);
+            }
+            invalidationTracker.invalidate(Table.TRANSACTIONS);
+        }
+        return true;
+    }
+
+    /**
+     * Update amount, date, category and description of many transactions, returns the rows updated
+     * (0 if the batch failed and was rolled back)
+     */
+    public int updateTransactions(List<Transaction> transactions) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int rowsAffected = 0;
+        db.beginTransaction();
+        try {
+            for (Transaction transaction : transactions) {
+                rowsAffected += update(db, TABLE_TRANSACTION, transactionUpdateValues(transaction), TRANS_ID + " = ?",
+                                          new String[]{String.valueOf(transaction.getId())});
+            }
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            return 0;
+        } finally {
+            db.endTransaction();
+        }
+        if (rowsAffected > 0) {
+            for (TransactionListener listener : transactionListeners) {
+                listener.onTransactionsUpdated(transactions);
+            }
+            invalidationTracker.invalidate(Table.TRANSACTIONS);
+        }
+        return rowsAffected;
+    }
+
+    /**
+     * Delete many transactions by ID, returns the rows deleted
+     * (0 if the batch failed and was rolled back)
+     */
+    public int deleteTransactions(Collection<Long> ids) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int rowsAffected = 0;
+        db.beginTransaction();
+        try {
+            for (String[] chunk : chunkIds(ids)) {
+                rowsAffected += delete(db, TABLE_TRANSACTION, TRANS_ID + " IN (" + placeholders(chunk.length) + ")",
+                                          chunk);
+            }
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            return 0;
+        } finally {
+            db.endTransaction();
+        }
+        if (rowsAffected > 0) {
+            for (TransactionListener listener : transactionListeners) {
+                listener.onTransactionsDeleted(ids);
+            }
+            invalidationTracker.invalidate(Table.TRANSACTIONS);
+        }
+        return rowsAffected;
+    }
+
+    /**
+     * Move many transactions to another category, returns the rows updated
+     * (0 if the batch failed and was rolled back)
+     */
+    public int recategorizeTransactions(Collection<Long> ids, long categoryId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put(TRANS_CATEGORY_ID, categoryId);
+        int rowsAffected = 0;
+        db.beginTransaction();
+        try {
+            for (String[] chunk : chunkIds(ids)) {
+                rowsAffected += update(db, TABLE_TRANSACTION, values,
+                                          TRANS_ID + " IN (" + placeholders(chunk.length) + ")", chunk);
+            }
+            db.setTransactionSuccessful();
+        } catch (SQLException e) {
+            return 0;
+        } finally {
+            db.endTransaction();
+        }
+        if (rowsAffected > 0) {
+            for (TransactionListener listener : transactionListeners) {
+                listener.onTransactionsRecategorized(ids, categoryId);
+            }
+            invalidationTracker.invalidate(Table.TRANSACTIONS);
+        }
+        return rowsAffected;
+    }
+
+    /**
+     * Split IDs into bind-argument arrays of at most MAX_BATCH_ARGS entries
+     */
+    private static List<String[]> chunkIds(Collection<Long> ids) {
+        List<String[]> chunks = new ArrayList<>();
+        String[] chunk = null;
+        int index = 0;
+        int remaining = ids.size();
+        for (Long id : ids) {
+            if (chunk == null) {
+                chunk = new String[Math.min(remaining, MAX_BATCH_ARGS)];
+                index = 0;
+            }
+            chunk[index++] = String.valueOf(id);
+            remaining--;
+            if (index == chunk.length) {
+                chunks.add(chunk);
+                chunk = null;
+            }
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
     // ===================== BUDGET OPERATIONS =====================
 
     /**
@@ -553,11 +1425,13 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         ContentValues values = new ContentValues();
         values.put(BUDGET_USER_EMAIL, budget.getUserEmail());
         values.put(BUDGET_CATEGORY_ID, budget.getCategoryId());
-        values.put(BUDGET_LIMIT, budget.getBudgetLimit());
+        values.put(BUDGET_LIMIT_CENTS, budget.getBudgetLimitCents());
         values.put(BUDGET_MONTH, budget.getMonth());
         values.put(BUDGET_ALERT_ENABLED, budget.isAlertEnabled() ? 1 : 0);
         values.put(BUDGET_ALERT_THRESHOLD, budget.getAlertThreshold());
-        return db.insert(TABLE_BUDGET, null, values);
+        long id = insert(db, TABLE_BUDGET, null, values);
+        if (id != -1) invalidationTracker.invalidate(Table.BUDGET);
+        return id;
     }
 
     /**
@@ -566,7 +1440,7 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     public List<Budget> getAllBudgets(String userEmail) {
         List<Budget> budgets = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_BUDGET + " WHERE " + BUDGET_USER_EMAIL + " = ?", 
+        Cursor cursor = rawQuery(db, "SELECT * FROM " + TABLE_BUDGET + " WHERE " + BUDGET_USER_EMAIL + " = ?", 
                                     new String[]{userEmail});
         
         while (cursor.moveToNext()) {
@@ -582,7 +1456,7 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     public List<Budget> getBudgetsByMonth(String userEmail, String month) {
         List<Budget> budgets = new ArrayList<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
+        Cursor cursor = rawQuery(db, 
             "SELECT * FROM " + TABLE_BUDGET + " WHERE " + BUDGET_USER_EMAIL + " = ? AND " + 
             BUDGET_MONTH + " = ?", 
             new String[]{userEmail, month});
@@ -594,12 +1468,32 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         return budgets;
     }
 
+    /**
+     * Get budgets for a month with spent amount and category name filled in, all from one query
+     */
+    public List<Budget> getBudgetsWithSpending(String userEmail, String month) {
+        List<Budget> budgets = new ArrayList<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = rawQuery(db, SQL_BUDGETS_WITH_SPENDING, new String[]{userEmail, month});
+
+        int nameIndex = cursor.getColumnIndexOrThrow("CATEGORY_NAME");
+        int spentIndex = cursor.getColumnIndexOrThrow("SPENT_CENTS");
+        while (cursor.moveToNext()) {
+            Budget budget = cursorToBudget(cursor);
+            budget.setCategoryName(cursor.isNull(nameIndex) ? CategoryCache.UNKNOWN_NAME : cursor.getString(nameIndex));
+            budget.setSpentCents(cursor.getLong(spentIndex));
+            budgets.add(budget);
+        }
+        cursor.close();
+        return budgets;
+    }
+
     /**
      * Get budget by category and month
      */
     public Budget getBudgetByCategoryAndMonth(String userEmail, long categoryId, String month) {
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
+        Cursor cursor = rawQuery(db, 
             "SELECT * FROM " + TABLE_BUDGET + " WHERE " + BUDGET_USER_EMAIL + " = ? AND " + 
             BUDGET_CATEGORY_ID + " = ? AND " + BUDGET_MONTH + " = ?", 
             new String[]{userEmail, String.valueOf(categoryId), month});
@@ -617,11 +1511,12 @@ public class DataBaseHelper extends SQLiteOpenHelper {
     public boolean updateBudget(Budget budget) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues values = new ContentValues();
-        values.put(BUDGET_LIMIT, budget.getBudgetLimit());
+        values.put(BUDGET_LIMIT_CENTS, budget.getBudgetLimitCents());
         values.put(BUDGET_ALERT_ENABLED, budget.isAlertEnabled() ? 1 : 0);
         values.put(BUDGET_ALERT_THRESHOLD, budget.getAlertThreshold());
-        int rowsAffected = db.update(TABLE_BUDGET, values, BUDGET_ID + " = ?", 
+        int rowsAffected = update(db, TABLE_BUDGET, values, BUDGET_ID + " = ?", 
                                      new String[]{String.valueOf(budget.getId())});
+        if (rowsAffected > 0) invalidationTracker.invalidate(Table.BUDGET);
         return rowsAffected > 0;
     }
 
@@ -630,47 +1525,90 @@ public class DataBaseHelper extends SQLiteOpenHelper {
      */
     public boolean deleteBudget(long id) {
         SQLiteDatabase db = this.getWritableDatabase();
-        int rowsAffected = db.delete(TABLE_BUDGET, BUDGET_ID + " = ?", 
+        int rowsAffected = delete(db, TABLE_BUDGET, BUDGET_ID + " = ?", 
                                      new String[]{String.valueOf(id)});
+        if (rowsAffected > 0) invalidationTracker.invalidate(Table.BUDGET);
         return rowsAffected > 0;
     }
 
     /**
-     * Get spending for a category in a specific month
+     * Get spending in cents for a category in a specific month (yyyy-MM), read from the monthly rollup
+     */
+    public long getSpendingForCategory(String userEmail, long categoryId, String month) {
+        return resultCache.get(SQL_CATEGORY_SPENDING_FOR_MONTH, TRANSACTION_TABLES,
+                () -> querySpendingForCategory(userEmail, categoryId, month), userEmail, categoryId, month);
+    }
+
+    private long querySpendingForCategory(String userEmail, long categoryId, String month) {
+        SQLiteStatement statement = statementCache.acquire(this.getReadableDatabase(), SQL_CATEGORY_SPENDING_FOR_MONTH);
+        try {
+            statement.bindString(1, userEmail);
+            statement.bindString(2, month);
+            statement.bindLong(3, categoryId);
+            return simpleQueryForLong(statement, SQL_CATEGORY_SPENDING_FOR_MONTH);
+        } finally {
+            statementCache.release(statement);
+        }
+    }
+
+    /**
+     * Get spending in cents per expense category for a month (yyyy-MM), keyed by category ID
      */
-    public double getSpendingForCategory(String userEmail, long categoryId, String month) {
+    public Map<Long, Long> getSpendingByCategoryForMonth(String userEmail, String month) {
+        Map<Long, Long> spending = new HashMap<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        String startDate = month + "-01";
-        String endDate = month + "-31";
-        Cursor cursor = db.rawQuery(
-            "SELECT SUM(" + TRANS_AMOUNT + ") FROM " + TABLE_TRANSACTION + " WHERE " + 
-            TRANS_USER_EMAIL + " = ? AND " + TRANS_CATEGORY_ID + " = ? AND " +
-            TRANS_TYPE + " = 'EXPENSE' AND " + TRANS_DATE + " >= ? AND " + TRANS_DATE + " <= ?", 
-            new String[]{userEmail, String.valueOf(categoryId), startDate, endDate});
-        double total = 0;
-        if (cursor.moveToFirst()) {
-            total = cursor.getDouble(0);
+        Cursor cursor = rawQuery(db, 
+            "SELECT " + ROLLUP_CATEGORY_ID + ", " + ROLLUP_TOTAL + " FROM " + TABLE_MONTHLY_ROLLUP + " WHERE " +
+            ROLLUP_USER_EMAIL + " = ? AND " + ROLLUP_MONTH + " = ? AND " + ROLLUP_TYPE + " = 'EXPENSE'",
+            new String[]{userEmail, month});
+
+        while (cursor.moveToNext()) {
+            spending.put(cursor.getLong(0), cursor.getLong(1));
         }
         cursor.close();
-        return total;
+        return spending;
     }
 
     /**
-     * Get spending for a category in a specific date range
+     * Get monthly totals in cents of a type (INCOME or EXPENSE) between two months (yyyy-MM, inclusive),
+     * keyed by month. Months without transactions are absent from the map.
      */
-    public double getSpendingForCategoryInRange(String userEmail, long categoryId, String startDate, String endDate) {
+    public Map<String, Long> getMonthlyTotals(String userEmail, String type, String startMonth, String endMonth) {
+        Map<String, Long> totals = new HashMap<>();
         SQLiteDatabase db = this.getReadableDatabase();
-        Cursor cursor = db.rawQuery(
-            "SELECT SUM(" + TRANS_AMOUNT + ") FROM " + TABLE_TRANSACTION + " WHERE " + 
-            TRANS_USER_EMAIL + " = ? AND " + TRANS_CATEGORY_ID + " = ? AND " +
-            TRANS_TYPE + " = 'EXPENSE' AND " + TRANS_DATE + " >= ? AND " + TRANS_DATE + " <= ?", 
-            new String[]{userEmail, String.valueOf(categoryId), startDate, endDate});
-        double total = 0;
-        if (cursor.moveToFirst()) {
-            total = cursor.getDouble(0);
+        Cursor cursor = rawQuery(db, 
+            "SELECT " + ROLLUP_MONTH + ", SUM(" + ROLLUP_TOTAL + ") FROM " + TABLE_MONTHLY_ROLLUP + " WHERE " +
+            ROLLUP_USER_EMAIL + " = ? AND " + ROLLUP_MONTH + " >= ? AND " + ROLLUP_MONTH + " <= ? AND " +
+            ROLLUP_TYPE + " = ? GROUP BY " + ROLLUP_MONTH,
+            new String[]{userEmail, startMonth, endMonth, type});
+
+        while (cursor.moveToNext()) {
+            totals.put(cursor.getString(0), cursor.getLong(1));
         }
         cursor.close();
-        return total;
+        return totals;
+    }
+
+    /**
+     * Get spending in cents for a category in an inclusive range of epoch days
+     */
+    public long getSpendingForCategoryInRange(String userEmail, long categoryId, int startDay, int endDay) {
+        return resultCache.get(SQL_CATEGORY_SPENDING_IN_RANGE, TRANSACTION_TABLES,
+                () -> querySpendingForCategoryInRange(userEmail, categoryId, startDay, endDay),
+                userEmail, categoryId, startDay, endDay);
+    }
+
+    private long querySpendingForCategoryInRange(String userEmail, long categoryId, int startDay, int endDay) {
+        SQLiteStatement statement = statementCache.acquire(this.getReadableDatabase(), SQL_CATEGORY_SPENDING_IN_RANGE);
+        try {
+            statement.bindString(1, userEmail);
+            statement.bindLong(2, categoryId);
+            statement.bindLong(3, startDay);
+            statement.bindLong(4, endDay);
+            return simpleQueryForLong(statement, SQL_CATEGORY_SPENDING_IN_RANGE);
+        } finally {
+            statementCache.release(statement);
+        }
     }
 
     /**
@@ -681,10 +1619,160 @@ public class DataBaseHelper extends SQLiteOpenHelper {
         budget.setId(cursor.getLong(cursor.getColumnIndexOrThrow(BUDGET_ID)));
         budget.setUserEmail(cursor.getString(cursor.getColumnIndexOrThrow(BUDGET_USER_EMAIL)));
         budget.setCategoryId(cursor.getLong(cursor.getColumnIndexOrThrow(BUDGET_CATEGORY_ID)));
-        budget.setBudgetLimit(cursor.getDouble(cursor.getColumnIndexOrThrow(BUDGET_LIMIT)));
+        budget.setBudgetLimitCents(cursor.getLong(cursor.getColumnIndexOrThrow(BUDGET_LIMIT_CENTS)));
         budget.setMonth(cursor.getString(cursor.getColumnIndexOrThrow(BUDGET_MONTH)));
         budget.setAlertEnabled(cursor.getInt(cursor.getColumnIndexOrThrow(BUDGET_ALERT_ENABLED)) == 1);
         budget.setAlertThreshold(cursor.getDouble(cursor.getColumnIndexOrThrow(BUDGET_ALERT_THRESHOLD)));
         return budget;
     }
+
+    // ===================== QUERY TRACING =====================
+
+    /**
+     * Timing of every statement this helper runs, with slow-statement logging
+     */
+    public QueryTracer getQueryTracer() {
+        return queryTracer;
+    }
+
+    /**
+     * rawQuery traced as the caller reads it: SQLite runs the statement while the cursor moves, so the
+     * rows read and the time spent fetching them are recorded when the cursor is closed
+     */
+    private Cursor rawQuery(SQLiteDatabase db, String sql, String[] args) {
+        long start = System.nanoTime();
+        Cursor cursor = db.rawQuery(sql, args);
+        return new TracedCursor(cursor, queryTracer, sql, System.nanoTime() - start);
+    }
+
+    private long simpleQueryForLong(SQLiteStatement statement, String sql) {
+        long start = System.nanoTime();
+        long value = statement.simpleQueryForLong();
+        queryTracer.record(sql, 1, System.nanoTime() - start);
+        return value;
+    }
+
+    private long insert(SQLiteDatabase db, String table, String nullColumnHack, ContentValues values) {
+        long start = System.nanoTime();
+        long id = db.insert(table, nullColumnHack, values);
+        queryTracer.record("INSERT INTO " + table, id != -1 ? 1 : 0, System.nanoTime() - start);
+        return id;
+    }
+
+    private int update(SQLiteDatabase db, String table, ContentValues values, String whereClause,
+                       String[] whereArgs) {
+        long start = System.nanoTime();
+        int rows = db.update(table, values, whereClause, whereArgs);
+        queryTracer.record("UPDATE " + table + " WHERE " + whereClause, rows, System.nanoTime() - start);
+        return rows;
+    }
+
+    private int delete(SQLiteDatabase db, String table, String whereClause, String[] whereArgs) {
+        long start = System.nanoTime();
+        int rows = db.delete(table, whereClause, whereArgs);
+        queryTracer.record("DELETE FROM " + table + " WHERE " + whereClause, rows, System.nanoTime() - start);
+        return rows;
+    }
+
+    // ===================== CHANGE TRACKING =====================
+
+    /**
+     * Told about every committed change to TRANSACTIONS rows, on the thread that made it, before the
+     * InvalidationTracker hears of it. Keep it quick: the writer waits for it.
+     */
+    public interface TransactionListener {
+        /** New rows, with their IDs set */
+        void onTransactionsInserted(List<Transaction> transactions);
+
+        /** Rows whose amount, day, category and description were replaced; type and user never change */
+        void onTransactionsUpdated(List<Transaction> transactions);
+
+        void onTransactionsDeleted(Collection<Long> ids);
+
+        void onTransactionsRecategorized(Collection<Long> ids, long categoryId);
+    }
+
+    public void addTransactionListener(TransactionListener listener) {
+        transactionListeners.add(listener);
+    }
+
+    public void removeTransactionListener(TransactionListener listener) {
+        transactionListeners.remove(listener);
+    }
+
+    /**
+     * Table version counters and change observers; every write method above reports to it
+     */
+    public InvalidationTracker getInvalidationTracker() {
+        return invalidationTracker;
+    }
+
+    // ===================== STATEMENT CACHE STATS =====================
+
+    /**
+     * Number of hot-path calls that borrowed an idle pooled statement instead of compiling one. Whether
+     * SQLite also reused a prepared plan depends on the read connection it ran on, see StatementCache.
+     */
+    public long getStatementCacheHitCount() {
+        return statementCache.getHitCount();
+    }
+
+    /**
+     * Number of hot-path calls that compiled a statement, because it was the SQL's first use or every
+     * pooled one was in use by another thread
+     */
+    public long getStatementCacheMissCount() {
+        return statementCache.getMissCount();
+    }
+
+    // ===================== RESULT CACHE =====================
+
+    /**
+     * Turn the result cache of scalar aggregates (totals and category spending) on or off. It is on by
+     * default; benchmarks turn it off to time the queries themselves.
+     */
+    public void setResultCacheEnabled(boolean enabled) {
+        resultCache.setEnabled(enabled);
+    }
+
+    public boolean isResultCacheEnabled() {
+        return resultCache.isEnabled();
+    }
+
+    /**
+     * Number of aggregate calls answered from the result cache
+     */
+    public long getResultCacheHitCount() {
+        return resultCache.getHitCount();
+    }
+
+    /**
+     * Number of aggregate calls that ran their query, including ones whose cached result had gone stale
+     */
+    public long getResultCacheMissCount() {
+        return resultCache.getMissCount();
+    }
+
+    /**
+     * Fraction of aggregate calls answered from the result cache, 0 before any call
+     */
+    public double getResultCacheHitRate() {
+        long hits = resultCache.getHitCount();
+        long total = hits + resultCache.getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Number of results dropped to keep the cache within its size
+     */
+    public long getResultCacheEvictionCount() {
+        return resultCache.getEvictionCount();
+    }
+
+    /**
+     * Number of results dropped because a table they read was written after they were cached
+     */
+    public long getResultCacheInvalidationCount() {
+        return resultCache.getInvalidationCount();
+    }
 }
@@ -0,0 +1,222 @@
+package com.example.andriodproject.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.WorkerThread;
+
+import com.example.andriodproject.analytics.ColumnarLedger;
+import com.example.andriodproject.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * InMemoryLedgerStore - The signed-in user's transactions as a ColumnarLedger, loaded from the database
+ * once and then kept in step with every DataBaseHelper write, so the dashboard's totals, category
+ * breakdowns and trends are computed in memory instead of re-queried on every period switch.
+ *
+ * Only one user's ledger is held; reading another user's drops it and loads theirs. Loading reads the
+ * user's whole history, so read() must be called off the main thread, e.g. from LedgerRepository.read.
+ * It pages through only the columns the ledger keeps and holds no lock while doing so: writes committed
+ * meanwhile are queued and replayed onto the new ledger, so they never wait for a load.
+ */
+public class InMemoryLedgerStore implements DataBaseHelper.TransactionListener {
+
+    private static InMemoryLedgerStore instance;
+
+    // Rows read per page while loading, few enough for one cursor window
+    private static final int LOAD_PAGE_ROWS = 4096;
+
+    /** Work to run against the loaded ledger; it must not keep the ledger after returning */
+    public interface LedgerQuery<T> {
+        T run(ColumnarLedger ledger);
+    }
+
+    private final DataBaseHelper dbHelper;
+    // Queries share the ledger; row changes and swapping in a loaded one take it exclusively
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One load at a time, so readers of the same user wait for it instead of repeating it
+    private final Object loadLock = new Object();
+    private String userEmail; // Owner of ledger, null while nothing is loaded
+    private ColumnarLedger ledger;
+    private String loadingEmail; // User whose ledger is being read, null if none
+    private List<Consumer<ColumnarLedger>> missedChanges; // Row changes to replay onto it once read
+
+    private InMemoryLedgerStore(DataBaseHelper dbHelper) {
+        this.dbHelper = dbHelper;
+        dbHelper.addTransactionListener(this);
+    }
+
+    public static synchronized InMemoryLedgerStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new InMemoryLedgerStore(DataBaseHelper.getInstance(context));
+        }
+        return instance;
+    }
+
+    /**
+     * Run query against userEmail's ledger, loading it first if it is not the one held
+     */
+    @WorkerThread
+    public <T> T read(String userEmail, LedgerQuery<T> query) {
+        while (true) {
+            lock.readLock().lock();
+            try {
+                if (userEmail.equals(this.userEmail)) {
+                    return query.run(ledger);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            load(userEmail);
+        }
+    }
+
+    /**
+     * Drop the held ledger, e.g. on logout; the next read loads it again
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            userEmail = null;
+            ledger = null;
+            loadingEmail = null; // A load under way is discarded
+            missedChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load(String userEmail) {
+        synchronized (loadLock) {
+            lock.writeLock().lock();
+            try {
+                if (userEmail.equals(this.userEmail)) return;
+                loadingEmail = userEmail;
+                missedChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            // Changes committed from here on are queued; row changes are idempotent (a row whose ID is held is
+            // never added again, even at another day), so it does not matter whether the cursor already saw one
+            ColumnarLedger loaded = null;
+            try {
+                loaded = readLedger(userEmail);
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (loaded != null && userEmail.equals(loadingEmail)) { // Not cleared meanwhile
+                        for (Consumer<ColumnarLedger> change : missedChanges) {
+                            change.accept(loaded);
+                        }
+                        this.ledger = loaded;
+                        this.userEmail = userEmail;
+                    }
+                    loadingEmail = null;
+                    missedChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    private ColumnarLedger readLedger(String userEmail) {
+        ColumnarLedger loaded = new ColumnarLedger();
+        int lastDay = Integer.MIN_VALUE;
+        long lastId = Long.MIN_VALUE;
+        int pageRows;
+        do {
+            pageRows = 0;
+            // Columns ID, DAY, TYPE, AMOUNT_CENTS, CATEGORY_ID, oldest first, so every row is appended
+            try (Cursor cursor = dbHelper.queryLedgerRows(userEmail, lastDay, lastId, LOAD_PAGE_ROWS)) {
+                while (cursor.moveToNext()) {
+                    lastId = cursor.getLong(0);
+                    lastDay = cursor.getInt(1);
+                    loaded.add(lastId, lastDay, cursor.getString(2), cursor.getLong(3), cursor.getLong(4));
+                    pageRows++;
+                }
+            }
+        } while (pageRows == LOAD_PAGE_ROWS);
+        return loaded;
+    }
+
+    // ===================== ROW CHANGES =====================
+
+    @Override
+    public void onTransactionsInserted(List<Transaction> transactions) {
+        lock.writeLock().lock();
+        try {
+            if (ledger != null) {
+                ledger.addAll(ownedBy(userEmail, transactions));
+            }
+            if (missedChanges != null) {
+                List<Transaction> own = ownedBy(loadingEmail, transactions);
+                missedChanges.add(loaded -> loaded.addAll(own));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTransactionsUpdated(List<Transaction> transactions) {
+        lock.writeLock().lock();
+        try {
+            if (ledger != null) {
+                // Another user's rows are simply not found
+                for (Transaction transaction : transactions) {
+                    ledger.update(transaction);
+                }
+            }
+            if (missedChanges != null) {
+                // A row moved from days not yet paged to days already paged is never read, so it is added
+                List<Transaction> own = ownedBy(loadingEmail, transactions);
+                missedChanges.add(loaded -> {
+                    for (Transaction transaction : own) {
+                        if (!loaded.update(transaction)) loaded.addAll(Collections.singletonList(transaction));
+                    }
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onTransactionsDeleted(Collection<Long> ids) {
+        applyChange(target -> target.removeAll(ids));
+    }
+
+    @Override
+    public void onTransactionsRecategorized(Collection<Long> ids, long categoryId) {
+        applyChange(target -> target.recategorize(ids, categoryId));
+    }
+
+    /**
+     * Apply a change to the held ledger, and queue it for the one being loaded
+     */
+    private void applyChange(Consumer<ColumnarLedger> change) {
+        lock.writeLock().lock();
+        try {
+            if (ledger != null) change.accept(ledger);
+            if (missedChanges != null) missedChanges.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<Transaction> ownedBy(String userEmail, List<Transaction> transactions) {
+        List<Transaction> own = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            if (userEmail.equals(transaction.getUserEmail())) own.add(transaction);
+        }
+        return own;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.andriodproject.database;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * InvalidationTracker - Per-table version counters, bumped by every DataBaseHelper write that changed rows.
+ *
+ * Screens observe the tables they show and are told, on the main thread, when one of them changed since
+ * they last heard. Changes made while a screen is stopped are delivered once when it starts again, so
+ * returning to a screen only re-queries if something was actually written in the meantime.
+ */
+public class InvalidationTracker {
+
+    public enum Table {
+        USERS,
+        CATEGORY,
+        TRANSACTIONS, // Includes the MONTHLY_ROLLUP rows derived from them
+        BUDGET
+    }
+
+    /** Called on the main thread after one or more observed tables changed */
+    public interface Observer {
+        void onInvalidated();
+    }
+
+    private final AtomicLongArray versions = new AtomicLongArray(Table.values().length);
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    InvalidationTracker() {
+    }
+
+    /**
+     * Current version of a table; it only ever grows
+     */
+    public long getVersion(Table table) {
+        return versions.get(table.ordinal());
+    }
+
+    /**
+     * Combined version of several tables, changes whenever any of them changes
+     */
+    public long getVersion(Table... tables) {
+        long sum = 0;
+        for (Table table : tables) {
+            sum += versions.get(table.ordinal());
+        }
+        return sum;
+    }
+
+    /**
+     * Watch tables for as long as owner is alive. Only changes made after this call are reported,
+     * so load the screen's data once right before (or after) observing.
+     */
+    @MainThread
+    public void observe(LifecycleOwner owner, Observer observer, Table... tables) {
+        Registration registration = new Registration(owner.getLifecycle(), observer, tables);
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        registrations.add(registration);
+        owner.getLifecycle().addObserver(registration);
+    }
+
+    /**
+     * Record writes to tables; called by DataBaseHelper on whichever thread did the write
+     */
+    void invalidate(Table... tables) {
+        for (Table table : tables) {
+            versions.incrementAndGet(table.ordinal());
+        }
+        for (Registration registration : registrations) {
+            registration.scheduleCheck();
+        }
+    }
+
+    private class Registration implements LifecycleEventObserver {
+        private final Lifecycle lifecycle;
+        private final Observer observer;
+        private final Table[] tables;
+        private final AtomicBoolean checkPending = new AtomicBoolean();
+        private long seenVersion;
+
+        Registration(Lifecycle lifecycle, Observer observer, Table[] tables) {
+            this.lifecycle = lifecycle;
+            this.observer = observer;
+            this.tables = tables;
+            this.seenVersion = getVersion(tables);
+        }
+
+        // A burst of writes (e.g. an import committing chunk after chunk) coalesces into one check
+        void scheduleCheck() {
+            if (checkPending.compareAndSet(false, true)) {
+                mainHandler.post(() -> {
+                    checkPending.set(false);
+                    check();
+                });
+            }
+        }
+
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            if (event == Lifecycle.Event.ON_START) {
+                check();
+            } else if (event == Lifecycle.Event.ON_DESTROY) {
+                registrations.remove(this);
+                lifecycle.removeObserver(this);
+            }
+        }
+
+        private void check() {
+            if (!lifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+                return; // Picked up again on ON_START
+            }
+            long version = getVersion(tables);
+            if (version != seenVersion) {
+                seenVersion = version;
+                observer.onInvalidated();
+            }
+        }
+    }
+}
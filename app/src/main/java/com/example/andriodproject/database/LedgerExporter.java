@@ -0,0 +1,149 @@
+package com.example.andriodproject.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.JsonWriter;
+
+import com.example.andriodproject.model.Money;
+import com.example.andriodproject.utils.CsvWriter;
+import com.example.andriodproject.utils.DateUtils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LedgerExporter - Writes a user's full ledger to a CSV or JSON file in the cache directory.
+ *
+ * Rows are streamed from a database cursor straight into a buffered file writer, so memory use does not
+ * grow with the number of transactions. The CSV layout matches what TransactionCsvImporter reads.
+ * Files land in cacheDir/exports (shared through the FileProvider) and replace earlier exports.
+ */
+public class LedgerExporter {
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        JSON("json", "application/json");
+
+        public final String extension;
+        public final String mimeType;
+
+        Format(String extension, String mimeType) {
+            this.extension = extension;
+            this.mimeType = mimeType;
+        }
+    }
+
+    public static final String EXPORT_DIRECTORY = "exports";
+
+    // Column positions of DataBaseHelper.queryLedgerForExport
+    private static final int COL_ID = 0;
+    private static final int COL_DAY = 1;
+    private static final int COL_TYPE = 2;
+    private static final int COL_AMOUNT_CENTS = 3;
+    private static final int COL_CATEGORY_NAME = 4;
+    private static final int COL_DESCRIPTION = 5;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+
+    public interface Listener {
+        void onComplete(File file, int rowCount);
+        void onError(Exception e);
+    }
+
+    private final Context context;
+    private final DataBaseHelper dbHelper;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public LedgerExporter(Context context) {
+        this.context = context.getApplicationContext();
+        this.dbHelper = DataBaseHelper.getInstance(context);
+    }
+
+    /**
+     * Export in the background and report the written file on the main thread
+     */
+    public void export(String userEmail, Format format, Listener listener) {
+        EXECUTOR.execute(() -> {
+            try {
+                File file = prepareFile(format);
+                int rowCount = writeLedger(userEmail, format, file);
+                mainHandler.post(() -> listener.onComplete(file, rowCount));
+            } catch (IOException | RuntimeException e) {
+                mainHandler.post(() -> listener.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Write the ledger to file on the calling thread, returns the number of transactions written
+     */
+    public int writeLedger(String userEmail, Format format, File file) throws IOException {
+        try (Cursor cursor = dbHelper.queryLedgerForExport(userEmail);
+             BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            return format == Format.CSV ? writeCsv(cursor, writer) : writeJson(cursor, writer);
+        }
+    }
+
+    private static int writeCsv(Cursor cursor, BufferedWriter writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord("date", "type", "amount", "category", "description");
+        int rowCount = 0;
+        while (cursor.moveToNext()) {
+            csv.writeRecord(
+                    DateUtils.toIsoDate(cursor.getInt(COL_DAY)),
+                    cursor.getString(COL_TYPE),
+                    Money.toPlainString(cursor.getLong(COL_AMOUNT_CENTS)),
+                    cursor.getString(COL_CATEGORY_NAME),
+                    cursor.getString(COL_DESCRIPTION));
+            rowCount++;
+        }
+        csv.flush();
+        return rowCount;
+    }
+
+    private static int writeJson(Cursor cursor, BufferedWriter writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.setIndent("  ");
+        json.beginArray();
+        int rowCount = 0;
+        while (cursor.moveToNext()) {
+            json.beginObject();
+            json.name("id").value(cursor.getLong(COL_ID));
+            json.name("date").value(DateUtils.toIsoDate(cursor.getInt(COL_DAY)));
+            json.name("type").value(cursor.getString(COL_TYPE));
+            json.name("amountCents").value(cursor.getLong(COL_AMOUNT_CENTS));
+            json.name("amount").value(Money.toPlainString(cursor.getLong(COL_AMOUNT_CENTS)));
+            json.name("category").value(cursor.getString(COL_CATEGORY_NAME));
+            json.name("description").value(cursor.getString(COL_DESCRIPTION));
+            json.endObject();
+            rowCount++;
+        }
+        json.endArray();
+        json.flush();
+        return rowCount;
+    }
+
+    /**
+     * Empty the export directory and name a new file in it, e.g. ledger-2025-03-05.csv
+     */
+    private File prepareFile(Format format) throws IOException {
+        File directory = new File(context.getCacheDir(), EXPORT_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        File[] oldExports = directory.listFiles();
+        if (oldExports != null) {
+            for (File old : oldExports) {
+                old.delete();
+            }
+        }
+        return new File(directory, "ledger-" + DateUtils.toIsoDate(DateUtils.today()) + "." + format.extension);
+    }
+}
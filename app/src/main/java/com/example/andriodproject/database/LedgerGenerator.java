@@ -0,0 +1,333 @@
+package com.example.andriodproject.database;
+
+import com.example.andriodproject.model.Budget;
+import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.model.User;
+import com.example.andriodproject.utils.DateUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * LedgerGenerator - Deterministic synthetic ledgers for load and scale testing.
+ *
+ * Creates users, each with their own mix of income and expense categories, a daily stream of
+ * transactions over several years ending at a fixed day, and monthly budgets for their main expense
+ * categories. The same seed and preset always produce exactly the same rows, in the same order.
+ * Transactions are written in batches through DataBaseHelper.insertTransactions, never held all at once.
+ */
+public class LedgerGenerator {
+
+    /** Ledger sizes, from a quick smoke test up to a heavy multi-year, multi-user history */
+    public enum Preset {
+        TX_1K(1_000, 1, 1),
+        TX_10K(10_000, 2, 2),
+        TX_100K(100_000, 5, 3),
+        TX_1M(1_000_000, 10, 5),
+        TX_5M(5_000_000, 20, 10);
+
+        final long transactions;
+        final int users;
+        final int years;
+
+        Preset(long transactions, int users, int years) {
+            this.transactions = transactions;
+            this.users = users;
+            this.years = years;
+        }
+
+        public long getTransactions() {
+            return transactions;
+        }
+
+        public int getUsers() {
+            return users;
+        }
+
+        public int getYears() {
+            return years;
+        }
+    }
+
+    /** Where generated rows go; {@link #into(DataBaseHelper)} writes them to the database */
+    public interface Sink {
+        void insertUser(User user);
+
+        /** Store the category and return its ID */
+        long insertCategory(Category category);
+
+        void insertTransactions(List<Transaction> transactions);
+
+        void insertBudget(Budget budget);
+    }
+
+    // Last day of every generated ledger unless changed, so runs do not depend on today's date
+    public static final int DEFAULT_END_DAY = (int) LocalDate.of(2025, 12, 31).toEpochDay();
+
+    // Transactions per insertTransactions call: one database transaction each
+    private static final int BATCH_SIZE = 1000;
+
+    // Share of the daily stream that is extra income (refunds, side work) rather than spending
+    private static final double EXTRA_INCOME_SHARE = 0.03;
+
+    // Expense categories with their share of transactions, typical amount in cents and descriptions
+    private static final String[] EXPENSE_NAMES = {
+            "Dining Out", "Coffee", "Supermarket", "Fuel", "Utilities", "Phone & Internet",
+            "Subscriptions", "Gym", "Pets", "Travel", "Pharmacy", "Gifts & Donations"};
+    private static final int[] EXPENSE_WEIGHTS = {16, 18, 22, 10, 4, 2, 5, 3, 5, 2, 6, 7};
+    private static final long[] EXPENSE_CENTS = {
+            2500, 450, 6500, 5000, 9000, 6000, 1200, 3500, 2800, 40000, 1800, 3000};
+    private static final String[][] EXPENSE_DESCRIPTIONS = {
+            {"pizza with friends", "sushi dinner", "burger lunch", "thai takeaway", "brunch"},
+            {"latte", "espresso", "cappuccino and croissant", "iced coffee"},
+            {"weekly groceries", "fruit and vegetables", "bulk shopping", "bakery", "snacks"},
+            {"petrol", "diesel", "car wash", "parking"},
+            {"electricity bill", "water bill", "gas bill"},
+            {"mobile plan", "fiber internet"},
+            {"music streaming", "video streaming", "cloud storage", "news app"},
+            {"monthly membership", "yoga class", "climbing day pass"},
+            {"dog food", "vet visit", "cat litter"},
+            {"train tickets", "hotel", "flight", "museum tickets"},
+            {"vitamins", "prescription", "first aid kit"},
+            {"birthday present", "charity donation", "wedding gift"}};
+
+    private static final String[] INCOME_NAMES = {"Paycheck", "Side Projects", "Refunds", "Dividends"};
+    private static final int[] INCOME_WEIGHTS = {0, 45, 40, 15}; // Paychecks are scheduled, not drawn
+    private static final long[] INCOME_CENTS = {240000, 35000, 4000, 12000};
+    private static final String[][] INCOME_DESCRIPTIONS = {
+            {"salary"},
+            {"freelance invoice", "design gig", "consulting"},
+            {"store refund", "tax refund", "deposit returned"},
+            {"quarterly dividend", "interest"}};
+
+    // Budgets are set for this many of the heaviest expense categories every month
+    private static final int BUDGETED_CATEGORIES = 4;
+
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Noor", "Mika", "Rana", "Jude", "Lior", "Tariq"};
+    private static final String[] LAST_NAMES = {"Haddad", "Novak", "Silva", "Okafor", "Berg", "Kim", "Nasser"};
+
+    private final long seed;
+    private final Preset preset;
+    private int endDay = DEFAULT_END_DAY;
+
+    public LedgerGenerator(long seed, Preset preset) {
+        this.seed = seed;
+        this.preset = preset;
+    }
+
+    /**
+     * Make the ledgers end on another day, e.g. DateUtils.today() to fill the current screens
+     */
+    public LedgerGenerator setEndDay(int endDay) {
+        this.endDay = endDay;
+        return this;
+    }
+
+    /**
+     * Email of the index-th generated user
+     */
+    public static String userEmail(int index) {
+        return "loadtest" + index + "@example.com";
+    }
+
+    /**
+     * Sink that writes through DataBaseHelper, failing loudly if a batch is rejected
+     */
+    public static Sink into(DataBaseHelper dbHelper) {
+        return new Sink() {
+            @Override
+            public void insertUser(User user) {
+                if (!dbHelper.insertUser(user)) {
+                    throw new IllegalStateException("Could not insert user " + user.getEmail());
+                }
+            }
+
+            @Override
+            public long insertCategory(Category category) {
+                long id = dbHelper.insertCategory(category);
+                if (id == -1) {
+                    throw new IllegalStateException("Could not insert category " + category.getName());
+                }
+                return id;
+            }
+
+            @Override
+            public void insertTransactions(List<Transaction> transactions) {
+                if (!dbHelper.insertTransactions(transactions)) {
+                    throw new IllegalStateException("Could not insert a batch of " + transactions.size());
+                }
+            }
+
+            @Override
+            public void insertBudget(Budget budget) {
+                if (dbHelper.insertBudget(budget) == -1) {
+                    throw new IllegalStateException("Could not insert budget for " + budget.getMonth());
+                }
+            }
+        };
+    }
+
+    /**
+     * Generate the whole preset into sink and return the number of transactions written
+     */
+    public long generate(Sink sink) {
+        long written = 0;
+        for (int user = 0; user < preset.users; user++) {
+            // Every user gets their own stream, so one user's rows do not depend on how many came before
+            Random random = new Random(seed * 31 + user);
+            long quota = preset.transactions / preset.users + (user < preset.transactions % preset.users ? 1 : 0);
+            written += generateUser(sink, random, userEmail(user), quota);
+        }
+        return written;
+    }
+
+    private long generateUser(Sink sink, Random random, String email, long quota) {
+        sink.insertUser(new User(email, pick(random, FIRST_NAMES), pick(random, LAST_NAMES), "password123"));
+
+        long[] expenseIds = new long[EXPENSE_NAMES.length];
+        for (int i = 0; i < expenseIds.length; i++) {
+            expenseIds[i] = sink.insertCategory(new Category(EXPENSE_NAMES[i], "EXPENSE", email));
+        }
+        long[] incomeIds = new long[INCOME_NAMES.length];
+        for (int i = 0; i < incomeIds.length; i++) {
+            incomeIds[i] = sink.insertCategory(new Category(INCOME_NAMES[i], "INCOME", email));
+        }
+
+        // Each user leans a little differently on the same categories
+        int[] expenseWeights = personalize(random, EXPENSE_WEIGHTS);
+        int[] incomeWeights = personalize(random, INCOME_WEIGHTS);
+
+        int startDay = (int) LocalDate.ofEpochDay(endDay).minusYears(preset.years).plusDays(1).toEpochDay();
+        int days = endDay - startDay + 1;
+        long paydays = countPaydays(startDay, endDay);
+        long daily = Math.max(0, quota - paydays);
+        if (quota < paydays) {
+            paydays = quota; // Tiny quotas still get their paychecks first
+        }
+
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        long written = 0;
+        long paid = 0;
+        for (int d = 0; d < days; d++) {
+            int day = startDay + d;
+            if (paid < paydays && isPayday(day)) {
+                batch.add(new Transaction(email, "INCOME", vary(random, INCOME_CENTS[0], 0.05), day, incomeIds[0],
+                        INCOME_DESCRIPTIONS[0][0]));
+                paid++;
+            }
+            // Spread the daily stream evenly so the total comes out exact
+            long count = (d + 1) * daily / days - d * daily / days;
+            for (long i = 0; i < count; i++) {
+                if (random.nextDouble() < EXTRA_INCOME_SHARE) {
+                    int category = weightedIndex(random, incomeWeights);
+                    batch.add(new Transaction(email, "INCOME", vary(random, INCOME_CENTS[category], 0.6), day,
+                            incomeIds[category], pick(random, INCOME_DESCRIPTIONS[category])));
+                } else {
+                    int category = weightedIndex(random, expenseWeights);
+                    batch.add(new Transaction(email, "EXPENSE", vary(random, EXPENSE_CENTS[category], 0.5), day,
+                            expenseIds[category], pick(random, EXPENSE_DESCRIPTIONS[category])));
+                }
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                sink.insertTransactions(batch);
+                written += batch.size();
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.insertTransactions(batch);
+            written += batch.size();
+        }
+
+        generateBudgets(sink, random, email, expenseIds, expenseWeights, startDay, daily / (double) days);
+        return written;
+    }
+
+    /**
+     * One budget per month for the heaviest categories, set around what the stream spends on them
+     */
+    private void generateBudgets(Sink sink, Random random, String email, long[] expenseIds, int[] weights,
+                                 int startDay, double perDay) {
+        int totalWeight = 0;
+        for (int weight : weights) {
+            totalWeight += weight;
+        }
+        int[] budgeted = heaviest(weights, BUDGETED_CATEGORIES);
+        for (String month = DateUtils.toMonthKey(startDay); month.compareTo(DateUtils.toMonthKey(endDay)) <= 0;
+             month = DateUtils.toMonthKey(DateUtils.lastDayOfMonth(month) + 1)) {
+            for (int category : budgeted) {
+                double expected = perDay * 30 * (1 - EXTRA_INCOME_SHARE) * weights[category] / totalWeight *
+                        EXPENSE_CENTS[category];
+                // Round to whole 10s so the limits look typed in; some months end up over budget
+                long limit = Math.max(1000, Math.round(expected * (0.8 + random.nextDouble() * 0.5) / 1000) * 1000);
+                sink.insertBudget(new Budget(email, expenseIds[category], limit, month, true,
+                        random.nextBoolean() ? 80 : 90));
+            }
+        }
+    }
+
+    private static boolean isPayday(int day) {
+        int dayOfMonth = LocalDate.ofEpochDay(day).getDayOfMonth();
+        return dayOfMonth == 1 || dayOfMonth == 15;
+    }
+
+    private static long countPaydays(int startDay, int endDay) {
+        long count = 0;
+        for (int day = startDay; day <= endDay; day++) {
+            if (isPayday(day)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Base weights scaled by a random factor between 0.5 and 1.5 each; zero weights stay zero
+     */
+    private static int[] personalize(Random random, int[] base) {
+        int[] weights = new int[base.length];
+        for (int i = 0; i < base.length; i++) {
+            weights[i] = (int) Math.round(base[i] * (0.5 + random.nextDouble()) * 10);
+        }
+        return weights;
+    }
+
+    private static int weightedIndex(Random random, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int r = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private static int[] heaviest(int[] weights, int count) {
+        int[] result = new int[Math.min(count, weights.length)];
+        boolean[] taken = new boolean[weights.length];
+        for (int n = 0; n < result.length; n++) {
+            int best = -1;
+            for (int i = 0; i < weights.length; i++) {
+                if (!taken[i] && (best == -1 || weights[i] > weights[best])) best = i;
+            }
+            taken[best] = true;
+            result[n] = best;
+        }
+        return result;
+    }
+
+    /**
+     * A positive amount around typicalCents, log-normally spread by sigma and rounded to whole cents
+     */
+    private static long vary(Random random, long typicalCents, double sigma) {
+        return Math.max(1, Math.round(typicalCents * Math.exp(random.nextGaussian() * sigma)));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
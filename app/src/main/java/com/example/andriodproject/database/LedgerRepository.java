@@ -0,0 +1,169 @@
+package com.example.andriodproject.database;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LedgerRepository - Runs DataBaseHelper calls off the main thread and hands results back on it.
+ *
+ * Reads go to a small fixed pool (WAL lets them run alongside a write); writes go to a single thread,
+ * so they are applied in the order they were issued. Every call is tied to a LifecycleOwner: once it is
+ * destroyed, queued reads are skipped and no result is delivered. A write that has been queued always
+ * runs, only its callback is dropped.
+ */
+public class LedgerRepository {
+
+    private static final int READ_THREADS = 2;
+    private static final long READ_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    private static LedgerRepository instance;
+
+    /** Work to run against the database on a background thread */
+    public interface Query<T> {
+        T run(DataBaseHelper db);
+    }
+
+    /** Receives a result on the main thread */
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private final DataBaseHelper dbHelper;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ThreadPoolExecutor readExecutor;
+    private final ExecutorService writeExecutor;
+
+    private LedgerRepository(Context context) {
+        dbHelper = DataBaseHelper.getInstance(context);
+        readExecutor = new ThreadPoolExecutor(READ_THREADS, READ_THREADS,
+                READ_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                namedThreads("ledger-read"));
+        readExecutor.allowCoreThreadTimeOut(true);
+        writeExecutor = Executors.newSingleThreadExecutor(namedThreads("ledger-write"));
+    }
+
+    public static synchronized LedgerRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new LedgerRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Run a read on the read pool and deliver its result while owner is alive
+     */
+    @MainThread
+    public <T> Call read(LifecycleOwner owner, Query<T> query, Callback<T> callback) {
+        Call call = new Call(owner, true);
+        readExecutor.execute(() -> runAndDeliver(call, query, callback));
+        return call;
+    }
+
+    /**
+     * Run a write on the writer thread and deliver its result while owner is alive
+     */
+    @MainThread
+    public <T> Call write(LifecycleOwner owner, Query<T> query, Callback<T> callback) {
+        Call call = new Call(owner, false);
+        writeExecutor.execute(() -> runAndDeliver(call, query, callback));
+        return call;
+    }
+
+    /**
+     * Change notifications for the tables behind the repository
+     */
+    public InvalidationTracker getInvalidationTracker() {
+        return dbHelper.getInvalidationTracker();
+    }
+
+    private <T> void runAndDeliver(Call call, Query<T> query, Callback<T> callback) {
+        if (call.skipIfCancelled && call.isCancelled()) {
+            return;
+        }
+        T result;
+        try {
+            result = query.run(dbHelper);
+        } catch (RuntimeException e) {
+            // Fail the same way the call would have on the main thread
+            mainHandler.post(() -> {
+                throw e;
+            });
+            return;
+        }
+        mainHandler.post(() -> {
+            if (!call.isCancelled()) {
+                call.finish();
+                if (callback != null) {
+                    callback.onResult(result);
+                }
+            }
+        });
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+    }
+
+    /**
+     * Handle to a queued call. Cancelled automatically when its LifecycleOwner is destroyed.
+     */
+    public static class Call implements LifecycleEventObserver {
+        private final Lifecycle lifecycle;
+        private final boolean skipIfCancelled;
+        private volatile boolean cancelled;
+
+        Call(LifecycleOwner owner, boolean skipIfCancelled) {
+            this.lifecycle = owner.getLifecycle();
+            this.skipIfCancelled = skipIfCancelled;
+            if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+                cancelled = true;
+            } else {
+                lifecycle.addObserver(this);
+            }
+        }
+
+        @Override
+        public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+            if (event == Lifecycle.Event.ON_DESTROY) {
+                cancel();
+            }
+        }
+
+        /**
+         * Drop the result (and skip the work if it is a read that has not started)
+         */
+        @MainThread
+        public void cancel() {
+            cancelled = true;
+            lifecycle.removeObserver(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void finish() {
+            lifecycle.removeObserver(this);
+        }
+    }
+}
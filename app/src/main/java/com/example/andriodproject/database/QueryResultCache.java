@@ -0,0 +1,155 @@
+package com.example.andriodproject.database;
+
+import com.example.andriodproject.database.InvalidationTracker.Table;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * QueryResultCache - Size-bounded LRU of query results, keyed by a query id (its SQL) and its arguments.
+ *
+ * Each entry is tagged with the tables its query reads and stamped with their InvalidationTracker version
+ * when it was loaded. Any write to one of those tables bumps the version, so the entry is treated as a miss
+ * and dropped the next time it is looked up; writers need no extra hook. Only immutable results (boxed
+ * scalars) may be cached, since every caller gets the same instance.
+ */
+class QueryResultCache {
+
+    /** Runs the query on a miss */
+    interface Loader<T> {
+        T load();
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long version;
+
+        Entry(Object value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+    private static final class Key {
+        final String queryId;
+        final Object[] args;
+        final int hash;
+
+        Key(String queryId, Object[] args) {
+            this.queryId = queryId;
+            this.args = args;
+            this.hash = 31 * queryId.hashCode() + Arrays.hashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return hash == key.hash && queryId.equals(key.queryId) && Arrays.equals(args, key.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final InvalidationTracker invalidationTracker;
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    private boolean enabled = true;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    QueryResultCache(InvalidationTracker invalidationTracker, int maxEntries) {
+        this.invalidationTracker = invalidationTracker;
+        this.maxEntries = maxEntries;
+        // Access order, so the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= QueryResultCache.this.maxEntries) return false;
+                evictionCount++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * The cached result of queryId with args, or loader's result, cached unless one of tables was written
+     * while it ran. The loader runs outside the lock, so concurrent misses on one key may both query.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String queryId, Table[] tables, Loader<T> loader, Object... args) {
+        Key key = new Key(queryId, args);
+        boolean caching;
+        long version = 0;
+        synchronized (this) {
+            caching = enabled;
+            if (caching) {
+                version = invalidationTracker.getVersion(tables);
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    if (entry.version == version) {
+                        hitCount++;
+                        return (T) entry.value;
+                    }
+                    entries.remove(key);
+                    invalidationCount++;
+                }
+                missCount++;
+            }
+        }
+
+        T value = loader.load();
+        if (!caching) return value; // Neither counted nor kept
+        synchronized (this) {
+            // A write that committed meanwhile may or may not be in value; keep only what is surely current
+            if (enabled && invalidationTracker.getVersion(tables) == version) {
+                entries.put(key, new Entry(value, version));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Turn caching on or off, e.g. off while benchmarking the queries themselves; turning it off empties it
+     */
+    synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) entries.clear();
+    }
+
+    synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Entries dropped to stay within the size bound
+     */
+    synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Entries dropped because a table they read was written after they were loaded
+     */
+    synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.andriodproject.database;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QueryTracer - Times every query and write DataBaseHelper runs.
+ *
+ * Each statement is recorded under its SQL template (the SQL with ? placeholders, so calls with different
+ * arguments add up), with its row count and duration. Queries are recorded when their cursor is closed,
+ * with the rows the caller read and the time spent fetching them (see TracedCursor). Anything slower than the threshold is logged with
+ * tag "QueryTracer", which makes slow methods visible in logcat on real devices.
+ */
+public class QueryTracer {
+
+    private static final String TAG = "QueryTracer";
+
+    public static final long DEFAULT_SLOW_THRESHOLD_MS = 50;
+
+    /** Told about every statement right after it ran (or its cursor was closed), on the thread that ran it */
+    public interface Listener {
+        void onStatement(String sql, int rows, long durationNanos);
+    }
+
+    /** Totals for one SQL template */
+    public static class Stats {
+        private final String sql;
+        private long calls;
+        private long rows;
+        private long totalNanos;
+        private long maxNanos;
+
+        Stats(String sql) {
+            this.sql = sql;
+        }
+
+        Stats(Stats other) {
+            this.sql = other.sql;
+            this.calls = other.calls;
+            this.rows = other.rows;
+            this.totalNanos = other.totalNanos;
+            this.maxNanos = other.maxNanos;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+
+    private final Map<String, Stats> stats = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_THRESHOLD_MS);
+
+    QueryTracer() {
+    }
+
+    /**
+     * Record one statement; called by DataBaseHelper on whichever thread ran it
+     */
+    void record(String sql, int rows, long durationNanos) {
+        synchronized (stats) {
+            Stats entry = stats.get(sql);
+            if (entry == null) {
+                entry = new Stats(sql);
+                stats.put(sql, entry);
+            }
+            entry.calls++;
+            entry.rows += rows;
+            entry.totalNanos += durationNanos;
+            entry.maxNanos = Math.max(entry.maxNanos, durationNanos);
+        }
+        if (durationNanos >= slowThresholdNanos) {
+            Log.w(TAG, String.format(Locale.US, "Slow statement (%.1f ms, %d rows): %s",
+                    durationNanos / 1e6, rows, sql));
+        }
+        for (Listener listener : listeners) {
+            listener.onStatement(sql, rows, durationNanos);
+        }
+    }
+
+    /**
+     * Statements taking at least this long are logged; 0 logs every statement
+     */
+    public void setSlowThresholdMs(long thresholdMs) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    public long getSlowThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Snapshot of the totals per SQL template, most total time first
+     */
+    public List<Stats> getStats() {
+        List<Stats> snapshot = new ArrayList<>();
+        synchronized (stats) {
+            for (Stats entry : stats.values()) {
+                snapshot.add(new Stats(entry));
+            }
+        }
+        Collections.sort(snapshot, (a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+        return snapshot;
+    }
+
+    public void reset() {
+        synchronized (stats) {
+            stats.clear();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.andriodproject.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * StatementCache - Pools SQLiteStatements for the hot scalar and insert paths of DataBaseHelper, so their
+ * SQL is parsed and checked by compileStatement once rather than on every call.
+ *
+ * A statement holds its bind arguments, so it is lent to one caller at a time: acquire() hands out an idle
+ * one or compiles another, and release() takes it back. Concurrent readers of the same aggregate therefore
+ * each get their own statement and run in parallel on WAL's pooled read connections.
+ *
+ * The counters are about these Java objects only. Each execution borrows a pooled connection, which reuses
+ * its own prepared plan for the SQL if it is still in that connection's statement cache (MAX_SQL_CACHE_SIZE
+ * in DataBaseHelper); that reuse is not visible here.
+ */
+class StatementCache {
+
+    private final Map<String, ArrayDeque<SQLiteStatement>> idle = new HashMap<>();
+    // SQL of every statement compiled for the current database, lent out or idle
+    private final Map<SQLiteStatement, String> owned = new IdentityHashMap<>();
+    private SQLiteDatabase database;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Borrow a statement for sql on db, compiling one if none is idle; hand it back with release().
+     * Statements compiled for a database that has since been replaced are closed and recompiled.
+     */
+    SQLiteStatement acquire(SQLiteDatabase db, String sql) {
+        synchronized (this) {
+            if (db != database) {
+                closeAll();
+                database = db;
+            }
+            ArrayDeque<SQLiteStatement> statements = idle.get(sql);
+            if (statements != null && !statements.isEmpty()) {
+                hitCount++;
+                return statements.pop();
+            }
+            missCount++;
+        }
+        // Compiling prepares the SQL on a pooled connection, so it is kept outside the lock
+        SQLiteStatement statement = db.compileStatement(sql);
+        synchronized (this) {
+            if (db == database) owned.put(statement, sql);
+        }
+        return statement;
+    }
+
+    /**
+     * Return a statement from acquire(), clearing its bindings; one compiled for a replaced database is closed
+     */
+    void release(SQLiteStatement statement) {
+        statement.clearBindings();
+        synchronized (this) {
+            String sql = owned.get(statement);
+            if (sql != null) {
+                ArrayDeque<SQLiteStatement> statements = idle.get(sql);
+                if (statements == null) {
+                    statements = new ArrayDeque<>();
+                    idle.put(sql, statements);
+                }
+                statements.push(statement);
+                return;
+            }
+        }
+        statement.close();
+    }
+
+    /**
+     * Number of acquire() calls served by an idle statement
+     */
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of acquire() calls that compiled a statement: the first use of its SQL, or every idle one was lent out
+     */
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Close every idle statement, e.g. before the database itself is closed; lent ones close on release
+     */
+    synchronized void clear() {
+        closeAll();
+        database = null;
+    }
+
+    private void closeAll() {
+        for (ArrayDeque<SQLiteStatement> statements : idle.values()) {
+            for (SQLiteStatement statement : statements) {
+                statement.close();
+            }
+        }
+        idle.clear();
+        owned.clear();
+    }
+}
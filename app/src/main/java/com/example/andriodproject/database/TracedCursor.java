@@ -0,0 +1,91 @@
+package com.example.andriodproject.database;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+
+/**
+ * TracedCursor - Reports a rawQuery to the QueryTracer once its cursor is closed.
+ *
+ * SQLite only steps through a query while the cursor fills its window, i.e. inside the move calls, so the
+ * time recorded is the rawQuery call plus the time spent moving; what the caller does with each row is
+ * not counted. Rows are the ones the caller actually reached, so nothing is stepped just to be counted
+ * and a streamed cursor is walked once.
+ */
+class TracedCursor extends CursorWrapper {
+
+    private final QueryTracer tracer;
+    private final String sql;
+    private long nanos;
+    private int rows;
+    private boolean recorded;
+
+    TracedCursor(Cursor cursor, QueryTracer tracer, String sql, long queryNanos) {
+        super(cursor);
+        this.tracer = tracer;
+        this.sql = sql;
+        this.nanos = queryNanos;
+    }
+
+    @Override
+    public boolean moveToNext() {
+        long start = System.nanoTime();
+        return moved(start, super.moveToNext());
+    }
+
+    @Override
+    public boolean moveToFirst() {
+        long start = System.nanoTime();
+        return moved(start, super.moveToFirst());
+    }
+
+    @Override
+    public boolean moveToLast() {
+        long start = System.nanoTime();
+        return moved(start, super.moveToLast());
+    }
+
+    @Override
+    public boolean moveToPrevious() {
+        long start = System.nanoTime();
+        return moved(start, super.moveToPrevious());
+    }
+
+    @Override
+    public boolean move(int offset) {
+        long start = System.nanoTime();
+        return moved(start, super.move(offset));
+    }
+
+    @Override
+    public boolean moveToPosition(int position) {
+        long start = System.nanoTime();
+        return moved(start, super.moveToPosition(position));
+    }
+
+    /**
+     * Counting steps through the whole result, so a caller that asks has had every row fetched
+     */
+    @Override
+    public int getCount() {
+        long start = System.nanoTime();
+        int count = super.getCount();
+        nanos += System.nanoTime() - start;
+        rows = Math.max(rows, count);
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (!recorded) {
+            recorded = true;
+            tracer.record(sql, rows, nanos);
+        }
+        super.close();
+    }
+
+    private boolean moved(long start, boolean moved) {
+        nanos += System.nanoTime() - start;
+        if (moved) rows = Math.max(rows, getPosition() + 1);
+        return moved;
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.andriodproject.database;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.OpenableColumns;
+
+import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Money;
+import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.utils.CsvReader;
+import com.example.andriodproject.utils.DateUtils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * TransactionCsvImporter - Streams transactions from a CSV document into the database.
+ *
+ * The first record is a header naming the columns (any order, case-insensitive):
+ * date (yyyy-MM-dd or M/d/yyyy), amount, category, and optionally type (INCOME/EXPENSE) and
+ * description. Without a type column, negative amounts are expenses and positive amounts income.
+ * Unknown category names become user categories. Rows are inserted in chunks, each in its own
+ * database transaction together with the categories it introduces, on a background thread; progress
+ * and the result are posted to the main thread.
+ */
+public class TransactionCsvImporter {
+
+    // Rows per database transaction; also the most rows ever held in memory at once
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private static final DateTimeFormatter US_DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/yyyy", Locale.US);
+
+    // One import at a time, so two files never interleave their chunks
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+
+    public interface Listener {
+        /** totalBytes is -1 when the document size is unknown */
+        void onProgress(int rowsImported, long bytesRead, long totalBytes);
+        void onComplete(Result result);
+        void onError(Exception e);
+    }
+
+    /**
+     * Outcome of an import; rows already committed stay in the database even if later rows failed
+     */
+    public static class Result {
+        public int rowsImported;
+        public int rowsSkipped;
+        public int categoriesCreated;
+        public boolean cancelled;
+        public final List<String> errors = new ArrayList<>(); // First few problems, for display
+    }
+
+    private final Context context;
+    private final DataBaseHelper dbHelper;
+    private final String userEmail;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile boolean cancelled;
+
+    // Categories first named by the chunk being read, by the placeholder (negative) ID its rows carry
+    private final Map<Long, Category> chunkCategories = new HashMap<>();
+    private long nextPlaceholderId;
+
+    public TransactionCsvImporter(Context context, String userEmail) {
+        this.context = context.getApplicationContext();
+        this.dbHelper = DataBaseHelper.getInstance(context);
+        this.userEmail = userEmail;
+    }
+
+    /**
+     * Start importing the document in the background
+     */
+    public void start(Uri uri, Listener listener) {
+        cancelled = false;
+        EXECUTOR.execute(() -> {
+            try {
+                Result result = importDocument(uri, listener);
+                mainHandler.post(() -> listener.onComplete(result));
+            } catch (IOException | RuntimeException e) {
+                mainHandler.post(() -> listener.onError(e));
+            }
+        });
+    }
+
+    /**
+     * Stop after the chunk currently being written; committed chunks are kept
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private Result importDocument(Uri uri, Listener listener) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+        long totalBytes = querySize(resolver, uri);
+        InputStream input = resolver.openInputStream(uri);
+        if (input == null) {
+            throw new IOException("Cannot open " + uri);
+        }
+
+        Result result = new Result();
+        CountingInputStream counter = new CountingInputStream(input);
+        try (CsvReader reader = new CsvReader(new InputStreamReader(counter, StandardCharsets.UTF_8))) {
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                return result;
+            }
+            ColumnMap columns = new ColumnMap(header);
+            Map<String, Long> categoryIds = loadCategoryIds();
+            chunkCategories.clear();
+            nextPlaceholderId = -1;
+            List<Transaction> chunk = new ArrayList<>(CHUNK_SIZE);
+
+            List<String> record;
+            while (!cancelled) {
+                long line = reader.getLineNumber();
+                record = reader.readRecord();
+                if (record == null) break;
+                if (record.size() == 1 && record.get(0).trim().isEmpty()) continue; // Blank line
+
+                try {
+                    chunk.add(parseRow(record, columns, categoryIds));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    result.rowsSkipped++;
+                    addError(result, "Line " + line + ": " + e.getMessage());
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, categoryIds, result);
+                    postProgress(listener, result.rowsImported, counter.count, totalBytes);
+                }
+            }
+            if (!chunk.isEmpty() && !cancelled) {
+                writeChunk(chunk, categoryIds, result);
+            }
+            postProgress(listener, result.rowsImported, counter.count, totalBytes);
+        }
+        result.cancelled = cancelled;
+        return result;
+    }
+
+    private void writeChunk(List<Transaction> chunk, Map<String, Long> categoryIds, Result result) {
+        boolean saved = dbHelper.insertTransactions(chunk, chunkCategories);
+        if (saved) {
+            result.rowsImported += chunk.size();
+            result.categoriesCreated += chunkCategories.size();
+        } else {
+            result.rowsSkipped += chunk.size();
+            addError(result, "Could not save " + chunk.size() + " rows");
+        }
+        // Point later chunks at the committed categories, or let them create the rolled-back ones again
+        for (Category category : chunkCategories.values()) {
+            String key = categoryKey(category.getType(), category.getName());
+            if (saved) {
+                categoryIds.put(key, category.getId());
+            } else {
+                categoryIds.remove(key);
+            }
+        }
+        chunkCategories.clear();
+        chunk.clear();
+    }
+
+    private Transaction parseRow(List<String> record, ColumnMap columns, Map<String, Long> categoryIds) {
+        String dateText = columns.get(record, columns.date);
+        String amountText = columns.get(record, columns.amount);
+        if (dateText.isEmpty()) throw new IllegalArgumentException("missing date");
+        if (amountText.isEmpty()) throw new IllegalArgumentException("missing amount");
+
+        int epochDay = parseEpochDay(dateText);
+        long amountCents = parseAmountCents(amountText);
+
+        String type;
+        String typeText = columns.get(record, columns.type).toUpperCase(Locale.ROOT);
+        if (typeText.isEmpty()) {
+            type = amountCents < 0 ? "EXPENSE" : "INCOME";
+        } else if (typeText.equals("INCOME") || typeText.equals("EXPENSE")) {
+            type = typeText;
+        } else {
+            throw new IllegalArgumentException("unknown type \"" + typeText + "\"");
+        }
+        amountCents = Math.abs(amountCents);
+
+        String categoryName = columns.get(record, columns.category);
+        if (categoryName.isEmpty()) {
+            categoryName = type.equals("INCOME") ? "Other Income" : "Other Expense";
+        }
+        long categoryId = resolveCategory(categoryIds, categoryName, type);
+
+        String description = columns.get(record, columns.description);
+        return new Transaction(userEmail, type, amountCents, epochDay, categoryId,
+                description.isEmpty() ? null : description);
+    }
+
+    // ===================== CATEGORY RESOLUTION =====================
+
+    private Map<String, Long> loadCategoryIds() {
+        Map<String, Long> ids = new HashMap<>();
+        for (String type : new String[]{"INCOME", "EXPENSE"}) {
+            for (Category category : dbHelper.getCategoriesByType(type, userEmail)) {
+                ids.put(categoryKey(type, category.getName()), category.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * ID of the category, or a placeholder for a new one, created when its chunk is written
+     */
+    private long resolveCategory(Map<String, Long> categoryIds, String name, String type) {
+        String key = categoryKey(type, name);
+        Long id = categoryIds.get(key);
+        if (id == null) {
+            id = nextPlaceholderId--;
+            chunkCategories.put(id, new Category(name, type, userEmail));
+            categoryIds.put(key, id);
+        }
+        return id;
+    }
+
+    private static String categoryKey(String type, String name) {
+        return type + '\n' + name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ===================== FIELD PARSING =====================
+
+    private static int parseEpochDay(String text) {
+        if (text.indexOf('/') >= 0) {
+            return (int) LocalDate.parse(text, US_DATE_FORMAT).toEpochDay();
+        }
+        return DateUtils.toEpochDay(text);
+    }
+
+    /**
+     * Accepts spreadsheet amounts such as "12.5", "-$1,234.56" and "(20.00)"
+     */
+    private static long parseAmountCents(String text) {
+        String cleaned = text.replace("$", "").replace(",", "").replace(" ", "");
+        boolean negative = false;
+        if (cleaned.startsWith("(") && cleaned.endsWith(")")) {
+            negative = true;
+            cleaned = cleaned.substring(1, cleaned.length() - 1);
+        }
+        try {
+            long cents = Money.parseCents(cleaned);
+            return negative ? -cents : cents;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid amount \"" + text + "\"");
+        }
+    }
+
+    private static void addError(Result result, String message) {
+        if (result.errors.size() < MAX_REPORTED_ERRORS) {
+            result.errors.add(message);
+        }
+    }
+
+    private void postProgress(Listener listener, int rowsImported, long bytesRead, long totalBytes) {
+        mainHandler.post(() -> listener.onProgress(rowsImported, bytesRead, totalBytes));
+    }
+
+    private static long querySize(ContentResolver resolver, Uri uri) {
+        try (Cursor cursor = resolver.query(uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Positions of the known columns in the header, -1 when absent
+     */
+    private static class ColumnMap {
+        final int date;
+        final int type;
+        final int amount;
+        final int category;
+        final int description;
+
+        ColumnMap(List<String> header) {
+            List<String> names = new ArrayList<>(header.size());
+            for (String name : header) {
+                names.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+            date = indexOf(names, "date");
+            type = indexOf(names, "type");
+            amount = indexOf(names, "amount");
+            category = indexOf(names, "category");
+            description = indexOf(names, "description", "note", "notes", "memo");
+            if (date < 0 || amount < 0 || category < 0) {
+                throw new IllegalArgumentException("CSV header must name date, amount and category columns");
+            }
+        }
+
+        String get(List<String> record, int index) {
+            return index >= 0 && index < record.size() ? record.get(index).trim() : "";
+        }
+
+        private static int indexOf(List<String> names, String... aliases) {
+            for (String alias : aliases) {
+                int index = names.indexOf(alias);
+                if (index >= 0) return index;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Counts bytes as the reader pulls them, for progress against the document size
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.andriodproject.database;
+
+import com.example.andriodproject.model.Transaction;
+
+import java.util.List;
+
+/**
+ * TransactionPager - Walks one user's transactions of a type newest first, a page at a time.
+ * Remembers the (DAY, ID) of the last row handed out and asks for the rows after it, so each page is an
+ * index seek no matter how far the list has been scrolled. Given a search query it walks the ranked
+ * search results instead, by offset.
+ */
+public class TransactionPager {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final DataBaseHelper dbHelper;
+    private final String userEmail;
+    private final String type;
+    private final int pageSize;
+    private final String query;
+
+    private boolean started;
+    private boolean hasMore = true;
+    private int lastDay;
+    private long lastId;
+    private int loaded;
+
+    public TransactionPager(DataBaseHelper dbHelper, String userEmail, String type) {
+        this(dbHelper, userEmail, type, null, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Pager over the transactions matching query, or over all of them if query is null or blank
+     */
+    public TransactionPager(DataBaseHelper dbHelper, String userEmail, String type, String query) {
+        this(dbHelper, userEmail, type, query, DEFAULT_PAGE_SIZE);
+    }
+
+    public TransactionPager(DataBaseHelper dbHelper, String userEmail, String type, String query, int pageSize) {
+        this.dbHelper = dbHelper;
+        this.userEmail = userEmail;
+        this.type = type;
+        this.query = query == null || query.trim().isEmpty() ? null : query;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Load the next page; empty once every row has been returned
+     */
+    public List<Transaction> loadNextPage() {
+        List<Transaction> page;
+        if (query != null) {
+            page = dbHelper.searchTransactions(userEmail, type, query, pageSize, loaded);
+        } else if (started) {
+            page = dbHelper.getTransactionsPage(userEmail, type, lastDay, lastId, pageSize);
+        } else {
+            page = dbHelper.getTransactionsPage(userEmail, type, pageSize);
+        }
+        started = true;
+        loaded += page.size();
+        if (page.size() < pageSize) {
+            hasMore = false;
+        }
+        if (!page.isEmpty()) {
+            Transaction last = page.get(page.size() - 1);
+            lastDay = last.getEpochDay();
+            lastId = last.getId();
+        }
+        return page;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isSearch() {
+        return query != null;
+    }
+}
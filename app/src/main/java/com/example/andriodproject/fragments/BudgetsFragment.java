@@ -21,16 +21,17 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.andriodproject.MainActivity;
 import com.example.andriodproject.R;
 import com.example.andriodproject.adapters.BudgetAdapter;
-import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.database.InvalidationTracker.Table;
+import com.example.andriodproject.database.LedgerRepository;
 import com.example.andriodproject.model.Budget;
 import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Money;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.slider.Slider;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
-import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -47,42 +48,39 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
     private RecyclerView rvBudgets;
     private FloatingActionButton fabAdd;
 
-    private DataBaseHelper dbHelper;
+    private LedgerRepository repository;
     private String userEmail;
     private BudgetAdapter adapter;
     private List<Budget> budgets;
-    private List<Category> expenseCategories;
+    private List<Category> expenseCategories = new ArrayList<>();
+    private LedgerRepository.Call pendingLoad; // Latest budget load, superseded by the next one
 
     private Calendar currentMonth;
     private SimpleDateFormat monthDisplayFormat;
     private SimpleDateFormat monthDbFormat;
-    private NumberFormat currencyFormat;
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_budgets, container, false);
 
-        dbHelper = new DataBaseHelper(requireContext());
+        repository = LedgerRepository.getInstance(requireContext());
         userEmail = ((MainActivity) requireActivity()).getCurrentUserEmail();
 
         currentMonth = Calendar.getInstance();
         monthDisplayFormat = new SimpleDateFormat("MMMM yyyy", Locale.getDefault());
         monthDbFormat = new SimpleDateFormat("yyyy-MM", Locale.getDefault());
-        currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
 
         initViews(view);
         setupRecyclerView();
         loadData();
         setupClickListeners();
 
-        return view;
-    }
+        // Reload only after budgets, their spending or category names changed, not on every resume
+        repository.getInvalidationTracker().observe(getViewLifecycleOwner(), this::loadData,
+                Table.BUDGET, Table.TRANSACTIONS, Table.CATEGORY);
 
-    @Override
-    public void onResume() {
-        super.onResume();
-        loadData();
+        return view;
     }
 
     private void initViews(View view) {
@@ -99,7 +97,7 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
 
     private void setupRecyclerView() {
         budgets = new ArrayList<>();
-        adapter = new BudgetAdapter(requireContext(), budgets, dbHelper);
+        adapter = new BudgetAdapter(requireContext(), budgets);
         adapter.setOnBudgetClickListener(this);
         rvBudgets.setLayoutManager(new LinearLayoutManager(requireContext()));
         rvBudgets.setAdapter(adapter);
@@ -111,25 +109,34 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
 
         String month = monthDbFormat.format(currentMonth.getTime());
 
-        // Load budgets for current month
+        // Load budgets for current month; only the latest request may update the screen
+        if (pendingLoad != null) pendingLoad.cancel();
+        pendingLoad = repository.read(getViewLifecycleOwner(),
+                db -> db.getBudgetsWithSpending(userEmail, month), this::showBudgets);
+
+        // Load expense categories
+        repository.read(getViewLifecycleOwner(), db -> db.getCategoriesByType("EXPENSE", userEmail),
+                categories -> expenseCategories = categories);
+    }
+
+    private void showBudgets(List<Budget> loaded) {
         budgets.clear();
-        budgets.addAll(dbHelper.getBudgetsByMonth(userEmail, month));
+        budgets.addAll(loaded);
         adapter.notifyDataSetChanged();
 
-        // Calculate totals
-        double totalBudget = 0;
-        double totalSpent = 0;
-
+        // Calculate totals from the spending already loaded with each budget
+        long totalBudget = 0;
+        long totalSpent = 0;
         for (Budget budget : budgets) {
-            totalBudget += budget.getBudgetLimit();
-            totalSpent += dbHelper.getSpendingForCategory(userEmail, budget.getCategoryId(), month);
+            totalBudget += budget.getBudgetLimitCents();
+            totalSpent += budget.getSpentCents();
         }
 
-        double remaining = totalBudget - totalSpent;
+        long remaining = totalBudget - totalSpent;
 
-        tvTotalBudget.setText(currencyFormat.format(totalBudget));
-        tvTotalSpent.setText(currencyFormat.format(totalSpent));
-        tvRemaining.setText(currencyFormat.format(remaining));
+        tvTotalBudget.setText(Money.format(totalBudget));
+        tvTotalSpent.setText(Money.format(totalSpent));
+        tvRemaining.setText(Money.format(remaining));
 
         // Show/hide empty state
         if (budgets.isEmpty()) {
@@ -139,9 +146,6 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
             tvEmpty.setVisibility(View.GONE);
             rvBudgets.setVisibility(View.VISIBLE);
         }
-
-        // Load expense categories
-        expenseCategories = dbHelper.getCategoriesByType("EXPENSE", userEmail);
     }
 
     private void setupClickListeners() {
@@ -193,9 +197,8 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
         String dialogTitle = "Add Budget";
         if (editBudget != null) {
             dialogTitle = "Edit Budget";
-            Category cat = dbHelper.getCategoryById(editBudget.getCategoryId());
-            if (cat != null) actvCategory.setText(cat.getName(), false);
-            etBudgetLimit.setText(String.valueOf(editBudget.getBudgetLimit()));
+            actvCategory.setText(editBudget.getCategoryName(), false);
+            etBudgetLimit.setText(Money.toPlainString(editBudget.getBudgetLimitCents()));
             switchAlert.setChecked(editBudget.isAlertEnabled());
             sliderThreshold.setValue((float) editBudget.getAlertThreshold());
             tvThresholdValue.setText((int) editBudget.getAlertThreshold() + "%");
@@ -249,44 +252,48 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
                     return;
                 }
 
-                double budgetLimit = Double.parseDouble(limitStr);
+                long budgetLimitCents;
+                try {
+                    budgetLimitCents = Money.parseCents(limitStr);
+                } catch (NumberFormatException e) {
+                    tilBudgetLimit.setError("Please enter a valid amount");
+                    return;
+                }
                 boolean alertEnabled = switchAlert.isChecked();
                 double alertThreshold = sliderThreshold.getValue();
                 String month = monthDbFormat.format(currentMonth.getTime());
 
-                // Check if budget already exists for this category and month
-                if (editBudget == null) {
-                    Budget existing = dbHelper.getBudgetByCategoryAndMonth(userEmail, categoryId, month);
-                    if (existing != null) {
-                        tilCategory.setError("Budget already exists for this category");
-                        return;
-                    }
-                }
-
                 if (editBudget != null) {
                     // Update existing budget
-                    editBudget.setBudgetLimit(budgetLimit);
+                    editBudget.setBudgetLimitCents(budgetLimitCents);
                     editBudget.setAlertEnabled(alertEnabled);
                     editBudget.setAlertThreshold(alertThreshold);
 
-                    if (dbHelper.updateBudget(editBudget)) {
-                        Toast.makeText(requireContext(), "Budget updated", Toast.LENGTH_SHORT).show();
-                        loadData();
-                        dialog.dismiss();
-                    } else {
-                        Toast.makeText(requireContext(), "Failed to update", Toast.LENGTH_SHORT).show();
-                    }
+                    repository.write(getViewLifecycleOwner(), db -> db.updateBudget(editBudget), updated -> {
+                        if (updated) {
+                            Toast.makeText(requireContext(), "Budget updated", Toast.LENGTH_SHORT).show();
+                            dialog.dismiss();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to update", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 } else {
-                    // Create new budget
-                    Budget budget = new Budget(userEmail, categoryId, budgetLimit, month, alertEnabled, alertThreshold);
-
-                    if (dbHelper.insertBudget(budget) != -1) {
-                        Toast.makeText(requireContext(), "Budget added", Toast.LENGTH_SHORT).show();
-                        loadData();
-                        dialog.dismiss();
-                    } else {
-                        Toast.makeText(requireContext(), "Failed to add budget", Toast.LENGTH_SHORT).show();
-                    }
+                    // Create new budget, unless one already exists for this category and month (null result)
+                    Budget budget = new Budget(userEmail, categoryId, budgetLimitCents, month, alertEnabled, alertThreshold);
+
+                    repository.write(getViewLifecycleOwner(),
+                            db -> db.getBudgetByCategoryAndMonth(userEmail, budget.getCategoryId(), month) != null
+                                    ? null : db.insertBudget(budget),
+                            id -> {
+                        if (id == null) {
+                            tilCategory.setError("Budget already exists for this category");
+                        } else if (id != -1) {
+                            Toast.makeText(requireContext(), "Budget added", Toast.LENGTH_SHORT).show();
+                            dialog.dismiss();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to add budget", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 }
             });
         });
@@ -305,12 +312,13 @@ public class BudgetsFragment extends Fragment implements BudgetAdapter.OnBudgetC
                 .setTitle("Delete Budget")
                 .setMessage("Are you sure you want to delete this budget?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    if (dbHelper.deleteBudget(budget.getId())) {
-                        Toast.makeText(requireContext(), "Budget deleted", Toast.LENGTH_SHORT).show();
-                        loadData();
-                    } else {
-                        Toast.makeText(requireContext(), "Failed to delete", Toast.LENGTH_SHORT).show();
-                    }
+                    repository.write(getViewLifecycleOwner(), db -> db.deleteBudget(budget.getId()), deleted -> {
+                        if (deleted) {
+                            Toast.makeText(requireContext(), "Budget deleted", Toast.LENGTH_SHORT).show();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to delete", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
@@ -2,7 +2,13 @@ package com.example.andriodproject.fragments;
 
 import android.app.DatePickerDialog;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
@@ -13,6 +19,8 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -21,18 +29,20 @@ import com.example.andriodproject.MainActivity;
 import com.example.andriodproject.R;
 import com.example.andriodproject.adapters.TransactionAdapter;
 import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.database.InvalidationTracker.Table;
+import com.example.andriodproject.database.LedgerRepository;
+import com.example.andriodproject.database.TransactionPager;
 import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Money;
 import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.utils.DateUtils;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * ExpensesFragment - Handles expense transaction management
@@ -40,84 +50,175 @@ import java.util.Locale;
 public class ExpensesFragment extends Fragment implements TransactionAdapter.OnTransactionClickListener {
 
     private TextView tvSummaryAmount, tvTransactionCount, tvEmpty;
+    private TextInputEditText etSearch;
     private RecyclerView rvTransactions;
     private FloatingActionButton fabAdd;
 
     private DataBaseHelper dbHelper;
+    private LedgerRepository repository;
     private String userEmail;
     private TransactionAdapter adapter;
     private List<Transaction> transactions;
-    private List<Category> categories;
-
-    private NumberFormat currencyFormat;
-    private SimpleDateFormat dateFormat;
+    private List<Category> categories = new ArrayList<>();
+    private TransactionPager pager;
+    private boolean loadingPage;
+    private LedgerRepository.Call pendingSummary, pendingPage; // Superseded by the next reload
+    private ActionMode actionMode; // Non-null while rows are being multi-selected
+    private CharSequence emptyText;
+    private String searchQuery; // Null while the search box is empty
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private final Runnable runSearch = this::loadTransactions;
+
+    // Rows from the end of the loaded list at which the next page is requested
+    private static final int PAGE_PREFETCH_DISTANCE = 10;
+
+    // Typing pause after which the search runs, so a burst of keystrokes costs one query
+    private static final long SEARCH_DEBOUNCE_MS = 300;
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_expenses, container, false);
 
-        dbHelper = new DataBaseHelper(requireContext());
+        dbHelper = DataBaseHelper.getInstance(requireContext());
+        repository = LedgerRepository.getInstance(requireContext());
         userEmail = ((MainActivity) requireActivity()).getCurrentUserEmail();
-        currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-        dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
 
         initViews(view);
         setupRecyclerView();
+        setupSearch();
         loadData();
         setupClickListeners();
 
+        // Reload only after transactions or categories were written, not on every resume
+        repository.getInvalidationTracker().observe(getViewLifecycleOwner(), this::loadData,
+                Table.TRANSACTIONS, Table.CATEGORY);
+
         return view;
     }
 
     @Override
-    public void onResume() {
-        super.onResume();
-        loadData();
+    public void onDestroyView() {
+        searchHandler.removeCallbacks(runSearch);
+        if (actionMode != null) {
+            actionMode.finish();
+        }
+        super.onDestroyView();
     }
 
     private void initViews(View view) {
         tvSummaryAmount = view.findViewById(R.id.tvSummaryAmount);
         tvTransactionCount = view.findViewById(R.id.tvTransactionCount);
         tvEmpty = view.findViewById(R.id.tvEmpty);
+        emptyText = tvEmpty.getText();
+        etSearch = view.findViewById(R.id.etSearch);
         rvTransactions = view.findViewById(R.id.rvTransactions);
         fabAdd = view.findViewById(R.id.fabAdd);
     }
 
     private void setupRecyclerView() {
         transactions = new ArrayList<>();
-        adapter = new TransactionAdapter(requireContext(), transactions, dbHelper);
+        adapter = new TransactionAdapter(requireContext(), transactions, dbHelper, getViewLifecycleOwner());
         adapter.setOnTransactionClickListener(this);
         rvTransactions.setLayoutManager(new LinearLayoutManager(requireContext()));
         rvTransactions.setAdapter(adapter);
+
+        // Infinite scroll: fetch the next page shortly before the end of the loaded rows comes into view
+        rvTransactions.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || loadingPage || pager == null || !pager.hasMore()) return;
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager.findLastVisibleItemPosition() >= transactions.size() - PAGE_PREFETCH_DISTANCE) {
+                    loadingPage = true;
+                    loadNextPage();
+                }
+            }
+        });
+    }
+
+    private void setupSearch() {
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                String query = s.toString().trim();
+                String newQuery = query.isEmpty() ? null : query;
+                if (newQuery == null ? searchQuery == null : newQuery.equals(searchQuery)) return;
+                searchQuery = newQuery;
+
+                // Drop the results of the previous query right away, run the new one once typing pauses
+                if (pendingPage != null) pendingPage.cancel();
+                searchHandler.removeCallbacks(runSearch);
+                searchHandler.postDelayed(runSearch, SEARCH_DEBOUNCE_MS);
+            }
+        });
     }
 
     private void loadData() {
-        // Load expense transactions
-        transactions.clear();
-        transactions.addAll(dbHelper.getTransactionsByType(userEmail, "EXPENSE"));
-        adapter.notifyDataSetChanged();
+        if (pendingSummary != null) pendingSummary.cancel();
 
-        // Calculate total
-        double total = 0;
-        for (Transaction t : transactions) {
-            total += t.getAmount();
-        }
+        // Header figures come from one aggregate query, not from the loaded rows
+        pendingSummary = repository.read(getViewLifecycleOwner(),
+                db -> db.getTransactionSummary(userEmail, "EXPENSE"), summary -> {
+            tvSummaryAmount.setText(Money.format(summary.getTotalCents()));
+            tvTransactionCount.setText(summary.getCount() + " transactions");
+        });
+
+        loadTransactions();
 
-        tvSummaryAmount.setText(currencyFormat.format(total));
-        tvTransactionCount.setText(transactions.size() + " transactions");
+        // Load categories
+        repository.read(getViewLifecycleOwner(), db -> db.getCategoriesByType("EXPENSE", userEmail),
+                loaded -> categories = loaded);
+    }
+
+    private void loadTransactions() {
+        if (pendingPage != null) pendingPage.cancel();
+        searchHandler.removeCallbacks(runSearch);
+
+        // Load only the first page of expense transactions, the rest follows as the list scrolls.
+        // Category names are warmed in the same background call so binding the rows never queries.
+        TransactionPager firstPager = new TransactionPager(dbHelper, userEmail, "EXPENSE", searchQuery);
+        pager = firstPager;
+        loadingPage = true;
+        pendingPage = repository.read(getViewLifecycleOwner(), db -> {
+            db.getCategoryCache(userEmail);
+            return firstPager.loadNextPage();
+        }, this::showFirstPage);
+    }
+
+    private void showFirstPage(List<Transaction> page) {
+        transactions.clear();
+        transactions.addAll(page);
+        adapter.notifyDataSetChanged();
+        loadingPage = false;
 
         // Show/hide empty state
         if (transactions.isEmpty()) {
+            tvEmpty.setText(pager.isSearch() ? "No matching expenses found" : emptyText);
             tvEmpty.setVisibility(View.VISIBLE);
             rvTransactions.setVisibility(View.GONE);
         } else {
             tvEmpty.setVisibility(View.GONE);
             rvTransactions.setVisibility(View.VISIBLE);
         }
+    }
 
-        // Load categories
-        categories = dbHelper.getCategoriesByType("EXPENSE", userEmail);
+    private void loadNextPage() {
+        TransactionPager current = pager;
+        pendingPage = repository.read(getViewLifecycleOwner(), db -> current.loadNextPage(), page -> {
+            int start = transactions.size();
+            transactions.addAll(page);
+            adapter.notifyItemRangeInserted(start, page.size());
+            loadingPage = false;
+        });
     }
 
     private void setupClickListeners() {
@@ -143,15 +244,15 @@ public class ExpensesFragment extends Fragment implements TransactionAdapter.OnT
                 android.R.layout.simple_dropdown_item_1line, categoryNames);
         actvCategory.setAdapter(categoryAdapter);
 
-        // Setup date picker
+        // Setup date picker; the calendar holds the selected day, the field only shows it
         final Calendar calendar = Calendar.getInstance();
-        etDate.setText(dateFormat.format(calendar.getTime()));
+        etDate.setText(DateUtils.toIsoDate(DateUtils.toEpochDay(calendar)));
 
         etDate.setOnClickListener(v -> {
             DatePickerDialog datePickerDialog = new DatePickerDialog(requireContext(),
                     (view, year, month, dayOfMonth) -> {
                         calendar.set(year, month, dayOfMonth);
-                        etDate.setText(dateFormat.format(calendar.getTime()));
+                        etDate.setText(DateUtils.toIsoDate(DateUtils.toEpochDay(calendar)));
                     },
                     calendar.get(Calendar.YEAR),
                     calendar.get(Calendar.MONTH),
@@ -163,10 +264,16 @@ public class ExpensesFragment extends Fragment implements TransactionAdapter.OnT
         String dialogTitle = "Add Expense";
         if (editTransaction != null) {
             dialogTitle = "Edit Expense";
-            etAmount.setText(String.valueOf(editTransaction.getAmount()));
-            Category cat = dbHelper.getCategoryById(editTransaction.getCategoryId());
-            if (cat != null) actvCategory.setText(cat.getName(), false);
-            etDate.setText(editTransaction.getDate());
+            etAmount.setText(Money.toPlainString(editTransaction.getAmountCents()));
+            // From the categories already loaded for the dropdown, so opening the dialog never queries
+            for (Category c : categories) {
+                if (c.getId() == editTransaction.getCategoryId()) {
+                    actvCategory.setText(c.getName(), false);
+                    break;
+                }
+            }
+            DateUtils.setCalendar(calendar, editTransaction.getEpochDay());
+            etDate.setText(DateUtils.toIsoDate(editTransaction.getEpochDay()));
             etDescription.setText(editTransaction.getDescription());
         }
 
@@ -182,7 +289,7 @@ public class ExpensesFragment extends Fragment implements TransactionAdapter.OnT
                 // Validate inputs
                 String amountStr = etAmount.getText().toString().trim();
                 String categoryName = actvCategory.getText().toString().trim();
-                String date = etDate.getText().toString().trim();
+                int epochDay = DateUtils.toEpochDay(calendar);
                 String description = etDescription.getText().toString().trim();
 
                 boolean isValid = true;
@@ -217,33 +324,41 @@ public class ExpensesFragment extends Fragment implements TransactionAdapter.OnT
                     return;
                 }
 
-                double amount = Double.parseDouble(amountStr);
+                long amountCents;
+                try {
+                    amountCents = Money.parseCents(amountStr);
+                } catch (NumberFormatException e) {
+                    tilAmount.setError("Please enter a valid amount");
+                    return;
+                }
 
                 if (editTransaction != null) {
                     // Update existing transaction
-                    editTransaction.setAmount(amount);
+                    editTransaction.setAmountCents(amountCents);
                     editTransaction.setCategoryId(categoryId);
-                    editTransaction.setDate(date);
+                    editTransaction.setEpochDay(epochDay);
                     editTransaction.setDescription(description);
 
-                    if (dbHelper.updateTransaction(editTransaction)) {
-                        Toast.makeText(requireContext(), "Expense updated", Toast.LENGTH_SHORT).show();
-                        loadData();
-                        dialog.dismiss();
-                    } else {
-                        Toast.makeText(requireContext(), "Failed to update", Toast.LENGTH_SHORT).show();
-                    }
+                    repository.write(getViewLifecycleOwner(), db -> db.updateTransaction(editTransaction), updated -> {
+                        if (updated) {
+                            Toast.makeText(requireContext(), "Expense updated", Toast.LENGTH_SHORT).show();
+                            dialog.dismiss();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to update", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 } else {
                     // Create new transaction
-                    Transaction transaction = new Transaction(userEmail, "EXPENSE", amount, date, categoryId, description);
-
-                    if (dbHelper.insertTransaction(transaction) != -1) {
-                        Toast.makeText(requireContext(), "Expense added", Toast.LENGTH_SHORT).show();
-                        loadData();
-                        dialog.dismiss();
-                    } else {
-                        Toast.makeText(requireContext(), "Failed to add expense", Toast.LENGTH_SHORT).show();
-                    }
+                    Transaction transaction = new Transaction(userEmail, "EXPENSE", amountCents, epochDay, categoryId, description);
+
+                    repository.write(getViewLifecycleOwner(), db -> db.insertTransaction(transaction), id -> {
+                        if (id != -1) {
+                            Toast.makeText(requireContext(), "Expense added", Toast.LENGTH_SHORT).show();
+                            dialog.dismiss();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to add expense", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 }
             });
         });
@@ -253,21 +368,111 @@ public class ExpensesFragment extends Fragment implements TransactionAdapter.OnT
 
     @Override
     public void onTransactionClick(Transaction transaction) {
-        showAddTransactionDialog(transaction);
+        if (actionMode != null) {
+            toggleSelection(transaction);
+        } else {
+            showAddTransactionDialog(transaction);
+        }
     }
 
     @Override
     public void onTransactionLongClick(Transaction transaction) {
+        // Long-press starts multi-select; bulk actions are offered in the action bar
+        if (actionMode == null) {
+            actionMode = ((AppCompatActivity) requireActivity()).startSupportActionMode(selectionCallback);
+        }
+        toggleSelection(transaction);
+    }
+
+    // ===================== MULTI-SELECT =====================
+
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.menu_transaction_selection, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            int id = item.getItemId();
+            if (id == R.id.action_select_all) {
+                adapter.selectAll();
+                updateSelectionTitle();
+                return true;
+            } else if (id == R.id.action_recategorize) {
+                showRecategorizeDialog();
+                return true;
+            } else if (id == R.id.action_delete) {
+                confirmDeleteSelected();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            actionMode = null;
+            adapter.clearSelection();
+        }
+    };
+
+    private void toggleSelection(Transaction transaction) {
+        adapter.toggleSelection(transaction);
+        updateSelectionTitle();
+    }
+
+    private void updateSelectionTitle() {
+        if (actionMode == null) return;
+        int count = adapter.getSelectedCount();
+        if (count == 0) {
+            actionMode.finish();
+        } else {
+            actionMode.setTitle(count + " selected");
+        }
+    }
+
+    private void confirmDeleteSelected() {
+        List<Long> ids = adapter.getSelectedIds();
         new AlertDialog.Builder(requireContext())
-                .setTitle("Delete Transaction")
-                .setMessage("Are you sure you want to delete this transaction?")
+                .setTitle("Delete Transactions")
+                .setMessage("Are you sure you want to delete " + ids.size() + " selected transactions?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    if (dbHelper.deleteTransaction(transaction.getId())) {
-                        Toast.makeText(requireContext(), "Transaction deleted", Toast.LENGTH_SHORT).show();
-                        loadData();
-                    } else {
-                        Toast.makeText(requireContext(), "Failed to delete", Toast.LENGTH_SHORT).show();
-                    }
+                    // One database transaction for the whole selection; the tracker triggers one reload
+                    if (actionMode != null) actionMode.finish();
+                    repository.write(getViewLifecycleOwner(), db -> db.deleteTransactions(ids), deleted -> {
+                        Toast.makeText(requireContext(), deleted + " transactions deleted", Toast.LENGTH_SHORT).show();
+                    });
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showRecategorizeDialog() {
+        List<Long> ids = adapter.getSelectedIds();
+        List<Category> targets = categories;
+        String[] categoryNames = new String[targets.size()];
+        for (int i = 0; i < targets.size(); i++) {
+            categoryNames[i] = targets.get(i).getName();
+        }
+
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Move " + ids.size() + " transactions to")
+                .setItems(categoryNames, (dialog, which) -> {
+                    long categoryId = targets.get(which).getId();
+                    if (actionMode != null) actionMode.finish();
+                    repository.write(getViewLifecycleOwner(), db -> db.recategorizeTransactions(ids, categoryId), updated -> {
+                        if (updated > 0) {
+                            Toast.makeText(requireContext(), updated + " transactions updated", Toast.LENGTH_SHORT).show();
+                        } else {
+                            Toast.makeText(requireContext(), "Failed to update", Toast.LENGTH_SHORT).show();
+                        }
+                    });
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
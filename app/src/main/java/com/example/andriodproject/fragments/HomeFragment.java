@@ -19,10 +19,23 @@ import com.example.andriodproject.MainActivity;
 import com.example.andriodproject.R;
 import com.example.andriodproject.adapters.BudgetAlertAdapter;
 import com.example.andriodproject.adapters.TransactionAdapter;
+import com.example.andriodproject.analytics.CategoryShare;
+import com.example.andriodproject.analytics.DashboardSnapshot;
+import com.example.andriodproject.analytics.LedgerAnalytics;
+import com.example.andriodproject.analytics.MonthTotal;
+import com.example.andriodproject.analytics.PeriodSummary;
+import com.example.andriodproject.analytics.PeriodSummaryBuilder;
+import com.example.andriodproject.database.CategoryCache;
+import com.example.andriodproject.database.DashboardSnapshotStore;
 import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.database.InMemoryLedgerStore;
+import com.example.andriodproject.database.InvalidationTracker.Table;
+import com.example.andriodproject.database.LedgerRepository;
 import com.example.andriodproject.model.Budget;
-import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Money;
 import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.utils.DateUtils;
 import com.example.andriodproject.utils.SharedPrefManager;
 import com.github.mikephil.charting.charts.BarChart;
 import com.github.mikephil.charting.charts.PieChart;
@@ -42,10 +55,12 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.navigation.NavigationView;
 import com.google.android.material.textfield.TextInputEditText;
 
-import java.text.NumberFormat;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -53,7 +68,7 @@ import java.util.Map;
 // Dashboard showing financial summary, charts, and recent transactions
 public class HomeFragment extends Fragment {
 
-    private TextView tvBalance, tvTotalIncome, tvTotalExpense;
+    private TextView tvBalance, tvBalanceChange, tvTotalIncome, tvTotalExpense;
     private MaterialButton btnDaily, btnWeekly, btnMonthly, btnCustom;
     private RecyclerView rvBudgetAlerts, rvRecentTransactions;
     private TextView tvNoBudgetAlerts, tvNoTransactions, tvSeeAll, tvNoChartData;
@@ -63,21 +78,36 @@ public class HomeFragment extends Fragment {
     private MaterialButton btnGenerateReport;
 
     private DataBaseHelper dbHelper;
+    private LedgerRepository repository;
+    private InMemoryLedgerStore ledgerStore;
+    private DashboardSnapshotStore snapshotStore;
+    private LedgerRepository.Call pendingLoad; // Latest dashboard load, superseded by the next one
+    private LedgerRepository.Call pendingCustomLoad; // Latest custom range added to the loaded dashboard
+    private DashboardSnapshot lastDashboard; // Every period's data; switching periods or themes just redraws it
     private SharedPrefManager sharedPrefManager;
     private String userEmail;
     private String currentPeriod = "monthly";
     
     // Custom date range
-    private String customStartDate = null;
-    private String customEndDate = null;
+    private Integer customStartDay = null; // Epoch days, see DateUtils
+    private Integer customEndDay = null;
 
     private TransactionAdapter transactionAdapter;
     private BudgetAlertAdapter budgetAlertAdapter;
     private List<Transaction> recentTransactions;
     private List<Budget> budgetAlerts;
 
-    private NumberFormat currencyFormat;
-    private SimpleDateFormat dateFormat;
+    // Months in the expense trend bar chart, ending with the current one
+    private static final int TREND_MONTHS = 6;
+
+    // Periods summarized together in every dashboard load; "custom" is added once a range is picked
+    private static final String[] STANDARD_PERIODS = {"daily", "weekly", "monthly"};
+
+    private static final int RECENT_TRANSACTIONS = 5;
+
+    // Periods whose days, previous range included, span at most this many are summed by walking their rows
+    // (all the standard ones do: month to date plus the same days of last month); longer ones use the index
+    private static final int MAX_SCANNED_DAYS = 62;
 
     @Nullable
     @Override
@@ -85,13 +115,14 @@ public class HomeFragment extends Fragment {
         View view = inflater.inflate(R.layout.fragment_home, container, false);
 
         // Initialize helpers
-        dbHelper = new DataBaseHelper(requireContext());
+        dbHelper = DataBaseHelper.getInstance(requireContext());
+        repository = LedgerRepository.getInstance(requireContext());
+        ledgerStore = InMemoryLedgerStore.getInstance(requireContext());
+        snapshotStore = DashboardSnapshotStore.getInstance(requireContext());
         sharedPrefManager = SharedPrefManager.getInstance(requireContext());
         userEmail = ((MainActivity) requireActivity()).getCurrentUserEmail();
 
         // Initialize formatters
-        currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-        dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
 
         // Initialize views
         initViews(view);
@@ -106,8 +137,12 @@ public class HomeFragment extends Fragment {
         // Setup click listeners
         setupClickListeners();
 
-        // Load data
+        // Draw the dashboard saved last time at once, while loading the current one; then reload only
+        // when something it shows was written
+        loadSavedDashboard();
         loadData();
+        repository.getInvalidationTracker().observe(getViewLifecycleOwner(), this::loadData,
+                Table.TRANSACTIONS, Table.BUDGET, Table.CATEGORY);
 
         return view;
     }
@@ -121,26 +156,25 @@ public class HomeFragment extends Fragment {
         setupPieChart();
         setupIncomeExpensePieChart();
         setupBarChart();
-        // Load fresh data
-        loadData();
-        android.util.Log.d("HomeFragment", "onResume called - data refreshed");
+        // Data changes arrive through the invalidation tracker; just redraw what is loaded
+        redrawDashboard();
     }
 
     @Override
     public void onHiddenChanged(boolean hidden) {
         super.onHiddenChanged(hidden);
         if (!hidden && isAdded()) {
-            // Fragment is now visible, refresh data
+            // Fragment is now visible, redraw with the current theme
             setupPieChart();
             setupIncomeExpensePieChart();
             setupBarChart();
-            loadData();
-            android.util.Log.d("HomeFragment", "onHiddenChanged - data refreshed");
+            redrawDashboard();
         }
     }
 
     private void initViews(View view) {
         tvBalance = view.findViewById(R.id.tvBalance);
+        tvBalanceChange = view.findViewById(R.id.tvBalanceChange);
         tvTotalIncome = view.findViewById(R.id.tvTotalIncome);
         tvTotalExpense = view.findViewById(R.id.tvTotalExpense);
         btnDaily = view.findViewById(R.id.btnDaily);
@@ -171,35 +205,24 @@ public class HomeFragment extends Fragment {
     private void setupRecyclerViews() {
         // Recent Transactions RecyclerView
         recentTransactions = new ArrayList<>();
-        transactionAdapter = new TransactionAdapter(requireContext(), recentTransactions, dbHelper);
+        transactionAdapter = new TransactionAdapter(requireContext(), recentTransactions, dbHelper,
+                getViewLifecycleOwner());
         rvRecentTransactions.setLayoutManager(new LinearLayoutManager(requireContext()));
         rvRecentTransactions.setAdapter(transactionAdapter);
 
         // Budget Alerts RecyclerView
         budgetAlerts = new ArrayList<>();
-        budgetAlertAdapter = new BudgetAlertAdapter(requireContext(), budgetAlerts, dbHelper);
+        budgetAlertAdapter = new BudgetAlertAdapter(requireContext(), budgetAlerts);
         rvBudgetAlerts.setLayoutManager(new LinearLayoutManager(requireContext()));
         rvBudgetAlerts.setAdapter(budgetAlertAdapter);
     }
 
     private void setupClickListeners() {
-        btnDaily.setOnClickListener(v -> {
-            currentPeriod = "daily";
-            updatePeriodButtons();
-            loadData();
-        });
+        btnDaily.setOnClickListener(v -> selectPeriod("daily"));
 
-        btnWeekly.setOnClickListener(v -> {
-            currentPeriod = "weekly";
-            updatePeriodButtons();
-            loadData();
-        });
+        btnWeekly.setOnClickListener(v -> selectPeriod("weekly"));
 
-        btnMonthly.setOnClickListener(v -> {
-            currentPeriod = "monthly";
-            updatePeriodButtons();
-            loadData();
-        });
+        btnMonthly.setOnClickListener(v -> selectPeriod("monthly"));
 
         btnCustom.setOnClickListener(v -> {
             showCustomDateRangeDialog();
@@ -228,15 +251,15 @@ public class HomeFragment extends Fragment {
         
         // Set default dates (last 30 days)
         startCalendar.add(Calendar.DAY_OF_YEAR, -30);
-        etStartDate.setText(dateFormat.format(startCalendar.getTime()));
-        etEndDate.setText(dateFormat.format(endCalendar.getTime()));
+        etStartDate.setText(DateUtils.toIsoDate(DateUtils.toEpochDay(startCalendar)));
+        etEndDate.setText(DateUtils.toIsoDate(DateUtils.toEpochDay(endCalendar)));
         
         // Start date picker
         etStartDate.setOnClickListener(v -> {
             DatePickerDialog datePickerDialog = new DatePickerDialog(requireContext(),
                     (view, year, month, dayOfMonth) -> {
                         startCalendar.set(year, month, dayOfMonth);
-                        etStartDate.setText(dateFormat.format(startCalendar.getTime()));
+                        etStartDate.setText(DateUtils.toIsoDate(DateUtils.toEpochDay(startCalendar)));
                     },
                     startCalendar.get(Calendar.YEAR),
                     startCalendar.get(Calendar.MONTH),
@@ -249,7 +272,7 @@ public class HomeFragment extends Fragment {
             DatePickerDialog datePickerDialog = new DatePickerDialog(requireContext(),
                     (view, year, month, dayOfMonth) -> {
                         endCalendar.set(year, month, dayOfMonth);
-                        etEndDate.setText(dateFormat.format(endCalendar.getTime()));
+                        etEndDate.setText(DateUtils.toIsoDate(DateUtils.toEpochDay(endCalendar)));
                     },
                     endCalendar.get(Calendar.YEAR),
                     endCalendar.get(Calendar.MONTH),
@@ -261,20 +284,22 @@ public class HomeFragment extends Fragment {
                 .setTitle("Select Date Range")
                 .setView(dialogView)
                 .setPositiveButton("Apply", (dialog, which) -> {
-                    customStartDate = etStartDate.getText().toString();
-                    customEndDate = etEndDate.getText().toString();
+                    int startDay = DateUtils.toEpochDay(startCalendar);
+                    int endDay = DateUtils.toEpochDay(endCalendar);
                     
                     // Validate dates
-                    if (customStartDate.compareTo(customEndDate) > 0) {
+                    if (startDay > endDay) {
                         android.widget.Toast.makeText(requireContext(), 
                                 "Start date must be before end date", 
                                 android.widget.Toast.LENGTH_SHORT).show();
                         return;
                     }
                     
+                    customStartDay = startDay;
+                    customEndDay = endDay;
                     currentPeriod = "custom";
                     updatePeriodButtons();
-                    loadData();
+                    loadCustomPeriod();
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
@@ -312,57 +337,246 @@ public class HomeFragment extends Fragment {
         selectedBtn.setTextColor(getResources().getColor(R.color.primary, null));
     }
 
-    private void loadData() {
-        // Calculate date range based on period
-        Calendar calendar = Calendar.getInstance();
-        String endDate = dateFormat.format(calendar.getTime());
-        String startDate;
+    /**
+     * Show another period from the loaded dashboard; only loads if there is none yet or the day changed
+     */
+    private void selectPeriod(String period) {
+        currentPeriod = period;
+        updatePeriodButtons();
+        if (lastDashboard != null && lastDashboard.getToday() == DateUtils.today()) {
+            showDashboard(lastDashboard);
+        } else {
+            loadData();
+        }
+    }
 
-        switch (currentPeriod) {
+    /**
+     * Inclusive epoch-day range of a period ending today, followed by the range it is compared with
+     */
+    private int[] periodRange(String period, int today) {
+        switch (period) {
             case "daily":
-                startDate = endDate;
-                break;
+                return new int[]{today, today, today - 1, today - 1};
             case "weekly":
-                calendar.add(Calendar.DAY_OF_YEAR, -6);
-                startDate = dateFormat.format(calendar.getTime());
-                break;
-            case "custom":
-                if (customStartDate != null && customEndDate != null) {
-                    startDate = customStartDate;
-                    endDate = customEndDate;
-                } else {
-                    // Default to monthly if custom dates not set
-                    calendar.set(Calendar.DAY_OF_MONTH, 1);
-                    startDate = dateFormat.format(calendar.getTime());
+                return new int[]{today - 6, today, today - 13, today - 7};
+            case "custom": {
+                // The same number of days right before the range
+                int length = customEndDay - customStartDay + 1;
+                return new int[]{customStartDay, customEndDay, customStartDay - length, customStartDay - 1};
+            }
+            default: { // monthly: month to date, against the same days of last month
+                int sameDayLastMonth = (int) LocalDate.ofEpochDay(today).minusMonths(1).toEpochDay();
+                return new int[]{DateUtils.firstDayOfMonth(today), today,
+                        DateUtils.firstDayOfMonth(sameDayLastMonth), sameDayLastMonth};
+            }
+        }
+    }
+
+    /**
+     * Load every period's figures at once, so the period buttons only redraw
+     */
+    private void loadData() {
+        int today = DateUtils.today();
+        Map<String, int[]> ranges = new HashMap<>();
+        for (String period : STANDARD_PERIODS) {
+            ranges.put(period, periodRange(period, today));
+        }
+        if (customStartDay != null && customEndDay != null) {
+            ranges.put("custom", periodRange("custom", today));
+        }
+
+        // Last 6 months for the bar chart, ending with the current one
+        YearMonth thisMonth = YearMonth.now();
+        YearMonth firstMonth = thisMonth.minusMonths(TREND_MONTHS - 1);
+
+        // Every query runs on the read pool; a newer load cancels this one before it lands
+        if (pendingLoad != null) pendingLoad.cancel();
+        boolean inMemory = sharedPrefManager.isFastDashboardEnabled();
+        pendingLoad = repository.read(getViewLifecycleOwner(),
+                db -> queryDashboard(db, today, ranges, firstMonth, thisMonth, inMemory), this::showDashboard);
+    }
+
+    /**
+     * Add the custom range to the loaded dashboard; the trend and budgets do not depend on it
+     */
+    private void loadCustomPeriod() {
+        DashboardSnapshot base = lastDashboard;
+        if (base == null || base.getToday() != DateUtils.today()) {
+            loadData();
+            return;
+        }
+        Map<String, int[]> ranges = new HashMap<>();
+        ranges.put("custom", periodRange("custom", base.getToday()));
+        boolean inMemory = sharedPrefManager.isFastDashboardEnabled();
+
+        // A full load already under way is left to land; its callback comes back here if it lacks this range
+        if (pendingCustomLoad != null) pendingCustomLoad.cancel();
+        pendingCustomLoad = repository.read(getViewLifecycleOwner(),
+                db -> queryPeriods(db, ranges, db.getCategoryCache(userEmail), inMemory),
+                periods -> {
+                    if (lastDashboard != base) return; // Replaced by a newer load in the meantime
+                    base.putPeriods(periods);
+                    showDashboard(base);
+                });
+    }
+
+    /**
+     * Show the dashboard saved by the last load, unless the current one is already in
+     */
+    private void loadSavedDashboard() {
+        String email = userEmail;
+        repository.read(getViewLifecycleOwner(), db -> snapshotStore.read(email), saved -> {
+            if (saved != null && lastDashboard == null) {
+                showDashboard(saved);
+            }
+        });
+    }
+
+    /**
+     * Everything the dashboard shows, for every period, gathered off the main thread and saved for
+     * the next start
+     */
+    private DashboardSnapshot queryDashboard(DataBaseHelper db, int today, Map<String, int[]> ranges,
+                                             YearMonth firstMonth, YearMonth currentMonth, boolean inMemory) {
+        // Also warms category names so the recent list binds without queries
+        CategoryCache categories = db.getCategoryCache(userEmail);
+        Map<String, DashboardSnapshot.Period> periods = queryPeriods(db, ranges, categories, inMemory);
+        Map<String, Long> monthlyExpenses;
+        if (inMemory) {
+            monthlyExpenses = ledgerStore.read(userEmail,
+                    ledger -> ledger.getMonthlyTotals("EXPENSE", firstMonth, currentMonth));
+        } else {
+            monthlyExpenses = db.getMonthlyTotals(userEmail, "EXPENSE", firstMonth.toString(),
+                    currentMonth.toString());
+        }
+        List<Budget> budgets = db.getBudgetsWithSpending(userEmail, currentMonth.toString());
+
+        DashboardSnapshot data = new DashboardSnapshot(userEmail, today, monthlyExpenses, budgets);
+        data.putPeriods(periods);
+        snapshotStore.write(data); // Before the main thread can add a custom range to it
+        return data;
+    }
+
+    /**
+     * Summaries and recent rows of several periods. In memory, the short periods share one scan of the rows
+     * they and their previous ranges cover, and longer ones (a wide custom range) are read from the ledger's
+     * daily index, so no period walks a long history. In SQL, each period is a few aggregate queries.
+     */
+    private Map<String, DashboardSnapshot.Period> queryPeriods(DataBaseHelper db, Map<String, int[]> ranges,
+                                                 CategoryCache categories, boolean inMemory) {
+        List<String> names = new ArrayList<>(ranges.keySet());
+        PeriodSummary[] summaries = new PeriodSummary[names.size()];
+        if (inMemory) {
+            ledgerStore.read(userEmail, ledger -> {
+                PeriodSummaryBuilder builder = new PeriodSummaryBuilder();
+                List<Integer> scanned = new ArrayList<>();
+                for (int i = 0; i < names.size(); i++) {
+                    int[] range = ranges.get(names.get(i));
+                    if (range[1] - range[2] + 1 <= MAX_SCANNED_DAYS) {
+                        builder.addPeriod(range[0], range[1], range[2], range[3]);
+                        scanned.add(i);
+                    } else {
+                        summaries[i] = ledger.getPeriodSummary(range[0], range[1], range[2], range[3],
+                                categories::getName);
+                    }
                 }
-                break;
-            default: // monthly
-                calendar.set(Calendar.DAY_OF_MONTH, 1);
-                startDate = dateFormat.format(calendar.getTime());
-                break;
+                if (!scanned.isEmpty()) {
+                    ledger.scan(builder.getScanStartDay(), builder.getScanEndDay(), builder);
+                    List<PeriodSummary> built = builder.build(categories::getName);
+                    for (int p = 0; p < scanned.size(); p++) {
+                        summaries[scanned.get(p)] = built.get(p);
+                    }
+                }
+                return null;
+            });
+        } else {
+            for (int i = 0; i < names.size(); i++) {
+                int[] range = ranges.get(names.get(i));
+                summaries[i] = new PeriodSummary(range[0], range[1],
+                        db.getTotalIncome(userEmail, range[0], range[1]),
+                        db.getTotalExpense(userEmail, range[0], range[1]),
+                        db.getTotalIncome(userEmail, range[2], range[3]),
+                        db.getTotalExpense(userEmail, range[2], range[3]),
+                        db.getExpenseByCategory(userEmail, range[0], range[1]));
+            }
         }
 
-        // Debug log for dates
-        android.util.Log.d("HomeFragment", "Period: " + currentPeriod + ", Start: " + startDate + ", End: " + endDate);
+        // Periods ending on the same day share one newest-first list: a shorter period's newest rows
+        // are the start of the longest one's
+        Map<String, DashboardSnapshot.Period> periods = new HashMap<>();
+        Map<Integer, List<Transaction>> newestByEndDay = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            PeriodSummary summary = summaries[i];
+            List<Transaction> newest = newestByEndDay.get(summary.getEndDay());
+            if (newest == null) {
+                int widestStart = summary.getStartDay();
+                for (PeriodSummary other : summaries) {
+                    if (other.getEndDay() == summary.getEndDay()) {
+                        widestStart = Math.min(widestStart, other.getStartDay());
+                    }
+                }
+                newest = db.getTransactionsByDateRange(userEmail, widestStart, summary.getEndDay(),
+                        RECENT_TRANSACTIONS);
+                newestByEndDay.put(summary.getEndDay(), newest);
+            }
+            List<Transaction> recent = recentIn(newest, summary.getStartDay(), summary.getEndDay());
+            periods.put(names.get(i),
+                    new DashboardSnapshot.Period(summary, recent, categoryNamesOf(recent, categories)));
+        }
+        return periods;
+    }
 
-        // Load financial summary
-        double totalIncome = dbHelper.getTotalIncome(userEmail, startDate, endDate);
-        double totalExpense = dbHelper.getTotalExpense(userEmail, startDate, endDate);
-        double balance = totalIncome - totalExpense;
+    // Stored with the rows, so a saved dashboard draws them without loading the category cache
+    private static Map<Long, String> categoryNamesOf(List<Transaction> transactions, CategoryCache categories) {
+        Map<Long, String> names = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            names.put(transaction.getCategoryId(), categories.getName(transaction.getCategoryId()));
+        }
+        return names;
+    }
 
-        android.util.Log.d("HomeFragment", "Income: " + totalIncome + ", Expense: " + totalExpense);
+    private static List<Transaction> recentIn(List<Transaction> newestFirst, int startDay, int endDay) {
+        List<Transaction> recent = new ArrayList<>(RECENT_TRANSACTIONS);
+        for (Transaction transaction : newestFirst) {
+            if (recent.size() == RECENT_TRANSACTIONS || transaction.getEpochDay() < startDay) break;
+            if (transaction.getEpochDay() <= endDay) recent.add(transaction);
+        }
+        return recent;
+    }
 
-        tvBalance.setText(currencyFormat.format(balance));
-        tvTotalIncome.setText(currencyFormat.format(totalIncome));
-        tvTotalExpense.setText(currencyFormat.format(totalExpense));
+    private void redrawDashboard() {
+        if (lastDashboard != null) {
+            showDashboard(lastDashboard);
+        }
+    }
 
-        // Load recent transactions (limit to 5)
-        List<Transaction> allTransactions = dbHelper.getTransactionsByDateRange(userEmail, startDate, endDate);
-        recentTransactions.clear();
-        int limit = Math.min(allTransactions.size(), 5);
-        for (int i = 0; i < limit; i++) {
-            recentTransactions.add(allTransactions.get(i));
+    private void showDashboard(DashboardSnapshot data) {
+        lastDashboard = data;
+        DashboardSnapshot.Period period = data.getPeriod(currentPeriod);
+        if (period == null) {
+            // A custom range picked before this load existed; fetch just that range
+            if ("custom".equals(currentPeriod)) loadCustomPeriod();
+            return;
         }
+        PeriodSummary summary = period.getSummary();
+        long totalIncome = summary.getIncomeCents();
+        long totalExpense = summary.getExpenseCents();
+        long balance = summary.getBalanceCents();
+
+        android.util.Log.d("HomeFragment", "Period: " + currentPeriod + ", Start: " +
+                DateUtils.toIsoDate(summary.getStartDay()) + ", End: " + DateUtils.toIsoDate(summary.getEndDay()) +
+                ", Income: " + totalIncome + ", Expense: " + totalExpense);
+
+        tvBalance.setText(Money.format(balance));
+        long change = summary.getBalanceChangeCents();
+        tvBalanceChange.setText((change >= 0 ? "+" : "") + Money.format(change) + " vs previous period");
+        tvTotalIncome.setText(Money.format(totalIncome));
+        tvTotalExpense.setText(Money.format(totalExpense));
+
+        // Show recent transactions (limit to 5)
+        recentTransactions.clear();
+        recentTransactions.addAll(period.getRecentTransactions());
+        transactionAdapter.setCategoryNames(period.getCategoryNames());
         transactionAdapter.notifyDataSetChanged();
 
         // Show/hide empty state
@@ -375,35 +589,21 @@ public class HomeFragment extends Fragment {
         }
 
         // Load expense pie chart
-        loadExpenseChart(startDate, endDate);
+        loadExpenseChart(summary.getExpenseTotals());
 
         // Load income vs expense pie chart
         loadIncomeExpenseChart(totalIncome, totalExpense);
 
         // Load monthly bar chart
-        loadMonthlyBarChart();
+        loadMonthlyBarChart(data.getMonthlyExpenses());
 
         // Load budget alerts
-        loadBudgetAlerts();
+        loadBudgetAlerts(data.getBudgets());
     }
 
-    private void loadBudgetAlerts() {
-        Calendar calendar = Calendar.getInstance();
-        String currentMonth = new SimpleDateFormat("yyyy-MM", Locale.getDefault()).format(calendar.getTime());
-
-        List<Budget> allBudgets = dbHelper.getBudgetsByMonth(userEmail, currentMonth);
+    private void loadBudgetAlerts(List<Budget> allBudgets) {
         budgetAlerts.clear();
-
-        for (Budget budget : allBudgets) {
-            if (budget.isAlertEnabled()) {
-                double spent = dbHelper.getSpendingForCategory(userEmail, budget.getCategoryId(), currentMonth);
-                double threshold = budget.getBudgetLimit() * (budget.getAlertThreshold() / 100);
-                
-                if (spent >= threshold) {
-                    budgetAlerts.add(budget);
-                }
-            }
-        }
+        budgetAlerts.addAll(LedgerAnalytics.budgetAlerts(allBudgets));
 
         budgetAlertAdapter.notifyDataSetChanged();
 
@@ -460,10 +660,9 @@ public class HomeFragment extends Fragment {
         pieChartExpenses.setEntryLabelTextSize(10f);
     }
 
-    private void loadExpenseChart(String startDate, String endDate) {
-        // Get expense categories for user
-        List<Category> expenseCategories = dbHelper.getCategoriesByType("EXPENSE", userEmail);
-        android.util.Log.d("HomeFragment", "Found " + expenseCategories.size() + " expense categories");
+    private void loadExpenseChart(List<CategoryTotal> categoryTotals) {
+        // Totals come from one grouped query for every expense category with spending in the range
+        android.util.Log.d("HomeFragment", "Found " + categoryTotals.size() + " expense categories with spending");
         
         ArrayList<PieEntry> entries = new ArrayList<>();
         ArrayList<Integer> colors = new ArrayList<>();
@@ -481,17 +680,13 @@ public class HomeFragment extends Fragment {
         };
 
         int colorIndex = 0;
-        double totalExpense = 0;
+        long totalExpense = 0;
 
-        for (Category category : expenseCategories) {
-            double amount = dbHelper.getSpendingForCategoryInRange(userEmail, category.getId(), startDate, endDate);
-            android.util.Log.d("HomeFragment", "Category: " + category.getName() + ", Amount: " + amount);
-            if (amount > 0) {
-                entries.add(new PieEntry((float) amount, category.getName()));
-                colors.add(chartColors[colorIndex % chartColors.length]);
-                colorIndex++;
-                totalExpense += amount;
-            }
+        for (CategoryShare share : LedgerAnalytics.categoryShares(categoryTotals)) {
+            entries.add(new PieEntry((float) Money.toMajorUnits(share.getTotalCents()), share.getCategoryName()));
+            colors.add(chartColors[colorIndex % chartColors.length]);
+            colorIndex++;
+            totalExpense += share.getTotalCents();
         }
 
         android.util.Log.d("HomeFragment", "Chart entries: " + entries.size() + ", Total expense: " + totalExpense);
@@ -516,7 +711,7 @@ public class HomeFragment extends Fragment {
             data.setValueTextColor(Color.WHITE);
 
             pieChartExpenses.setData(data);
-            pieChartExpenses.setCenterText("Expenses\n" + currencyFormat.format(totalExpense));
+            pieChartExpenses.setCenterText("Expenses\n" + Money.format(totalExpense));
             pieChartExpenses.notifyDataSetChanged();
             pieChartExpenses.invalidate();
             pieChartExpenses.animateY(1000);
@@ -563,16 +758,16 @@ public class HomeFragment extends Fragment {
         pieChartIncomeExpense.setEntryLabelTextSize(10f);
     }
 
-    private void loadIncomeExpenseChart(double totalIncome, double totalExpense) {
+    private void loadIncomeExpenseChart(long totalIncome, long totalExpense) {
         ArrayList<PieEntry> entries = new ArrayList<>();
         ArrayList<Integer> colors = new ArrayList<>();
 
         if (totalIncome > 0) {
-            entries.add(new PieEntry((float) totalIncome, "Income"));
+            entries.add(new PieEntry((float) Money.toMajorUnits(totalIncome), "Income"));
             colors.add(getResources().getColor(R.color.income_green, null));
         }
         if (totalExpense > 0) {
-            entries.add(new PieEntry((float) totalExpense, "Expenses"));
+            entries.add(new PieEntry((float) Money.toMajorUnits(totalExpense), "Expenses"));
             colors.add(getResources().getColor(R.color.expense_red, null));
         }
 
@@ -596,8 +791,8 @@ public class HomeFragment extends Fragment {
             data.setValueTextColor(Color.WHITE);
 
             pieChartIncomeExpense.setData(data);
-            double balance = totalIncome - totalExpense;
-            pieChartIncomeExpense.setCenterText("Balance\n" + currencyFormat.format(balance));
+            long balance = totalIncome - totalExpense;
+            pieChartIncomeExpense.setCenterText("Balance\n" + Money.format(balance));
             pieChartIncomeExpense.notifyDataSetChanged();
             pieChartIncomeExpense.invalidate();
             pieChartIncomeExpense.animateY(1000);
@@ -636,35 +831,20 @@ public class HomeFragment extends Fragment {
         legend.setEnabled(false);
     }
 
-    private void loadMonthlyBarChart() {
+    private void loadMonthlyBarChart(Map<String, Long> monthlyExpenses) {
         ArrayList<BarEntry> entries = new ArrayList<>();
         ArrayList<String> months = new ArrayList<>();
         
-        Calendar calendar = Calendar.getInstance();
-        SimpleDateFormat monthFormat = new SimpleDateFormat("MMM", Locale.getDefault());
-        SimpleDateFormat dbMonthFormat = new SimpleDateFormat("yyyy-MM", Locale.getDefault());
+        DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMM", Locale.getDefault());
 
-        // Get last 6 months of data
+        // Last 6 months of expenses, loaded with one rollup query; months without spending show as 0
         boolean hasData = false;
-        for (int i = 5; i >= 0; i--) {
-            Calendar tempCal = (Calendar) calendar.clone();
-            tempCal.add(Calendar.MONTH, -i);
-            
-            String monthLabel = monthFormat.format(tempCal.getTime());
-            String monthKey = dbMonthFormat.format(tempCal.getTime());
+        for (MonthTotal monthTotal : LedgerAnalytics.monthlyTrend(monthlyExpenses, YearMonth.now(), TREND_MONTHS)) {
+            months.add(monthTotal.getMonth().format(monthFormat));
+            long amount = monthTotal.getTotalCents();
+            entries.add(new BarEntry(entries.size(), (float) Money.toMajorUnits(amount)));
             
-            months.add(monthLabel);
-            
-            // Calculate start and end of month
-            tempCal.set(Calendar.DAY_OF_MONTH, 1);
-            String startDate = dateFormat.format(tempCal.getTime());
-            tempCal.set(Calendar.DAY_OF_MONTH, tempCal.getActualMaximum(Calendar.DAY_OF_MONTH));
-            String endDate = dateFormat.format(tempCal.getTime());
-            
-            double expense = dbHelper.getTotalExpense(userEmail, startDate, endDate);
-            entries.add(new BarEntry(5 - i, (float) expense));
-            
-            if (expense > 0) hasData = true;
+            if (amount > 0) hasData = true;
         }
 
         if (!hasData) {
@@ -698,47 +878,53 @@ public class HomeFragment extends Fragment {
     }
 
     private void generateDetailedReport() {
-        // Calculate date range based on current period
-        Calendar calendar = Calendar.getInstance();
-        String endDate = dateFormat.format(calendar.getTime());
-        String startDate;
+        // Calculate the inclusive epoch-day range based on current period
+        int endDay = DateUtils.today();
+        int startDay;
         String periodLabel;
 
         switch (currentPeriod) {
             case "daily":
-                startDate = endDate;
+                startDay = endDay;
                 periodLabel = "Today";
                 break;
             case "weekly":
-                calendar.add(Calendar.DAY_OF_YEAR, -6);
-                startDate = dateFormat.format(calendar.getTime());
+                startDay = endDay - 6;
                 periodLabel = "This Week";
                 break;
             case "custom":
-                if (customStartDate != null && customEndDate != null) {
-                    startDate = customStartDate;
-                    endDate = customEndDate;
-                    periodLabel = customStartDate + " to " + customEndDate;
+                if (customStartDay != null && customEndDay != null) {
+                    startDay = customStartDay;
+                    endDay = customEndDay;
+                    periodLabel = DateUtils.toIsoDate(startDay) + " to " + DateUtils.toIsoDate(endDay);
                 } else {
-                    calendar.set(Calendar.DAY_OF_MONTH, 1);
-                    startDate = dateFormat.format(calendar.getTime());
+                    startDay = DateUtils.firstDayOfMonth(endDay);
                     periodLabel = "This Month";
                 }
                 break;
             default:
-                calendar.set(Calendar.DAY_OF_MONTH, 1);
-                startDate = dateFormat.format(calendar.getTime());
+                startDay = DateUtils.firstDayOfMonth(endDay);
                 periodLabel = "This Month";
                 break;
         }
 
-        // Gather report data
-        double totalIncome = dbHelper.getTotalIncome(userEmail, startDate, endDate);
-        double totalExpense = dbHelper.getTotalExpense(userEmail, startDate, endDate);
-        double balance = totalIncome - totalExpense;
+        // Gather report data in the background, then show it
+        int rangeStart = startDay;
+        int rangeEnd = endDay;
+        btnGenerateReport.setEnabled(false);
+        repository.read(getViewLifecycleOwner(), db -> buildReport(db, rangeStart, rangeEnd, periodLabel), report -> {
+            btnGenerateReport.setEnabled(true);
+            showReport(report, periodLabel);
+        });
+    }
+
+    private String buildReport(DataBaseHelper db, int startDay, int endDay, String periodLabel) {
+        long totalIncome = db.getTotalIncome(userEmail, startDay, endDay);
+        long totalExpense = db.getTotalExpense(userEmail, startDay, endDay);
+        long balance = totalIncome - totalExpense;
         
-        List<Category> incomeCategories = dbHelper.getCategoriesByType("INCOME", userEmail);
-        List<Category> expenseCategories = dbHelper.getCategoriesByType("EXPENSE", userEmail);
+        List<CategoryTotal> incomeTotals = db.getCategoryTotals(userEmail, "INCOME", startDay, endDay);
+        List<CategoryTotal> expenseTotals = db.getCategoryTotals(userEmail, "EXPENSE", startDay, endDay);
 
         // Build report content
         StringBuilder report = new StringBuilder();
@@ -746,16 +932,16 @@ public class HomeFragment extends Fragment {
         report.append("Period: ").append(periodLabel).append("\n\n");
         
         report.append("━━━ SUMMARY ━━━\n");
-        report.append("💰 Total Income: ").append(currencyFormat.format(totalIncome)).append("\n");
-        report.append("💸 Total Expenses: ").append(currencyFormat.format(totalExpense)).append("\n");
-        report.append("📈 Net Balance: ").append(currencyFormat.format(balance)).append("\n\n");
+        report.append("💰 Total Income: ").append(Money.format(totalIncome)).append("\n");
+        report.append("💸 Total Expenses: ").append(Money.format(totalExpense)).append("\n");
+        report.append("📈 Net Balance: ").append(Money.format(balance)).append("\n\n");
 
         report.append("━━━ INCOME BY CATEGORY ━━━\n");
         boolean hasIncomeData = false;
-        for (Category category : incomeCategories) {
-            double amount = dbHelper.getSpendingForCategoryInRange(userEmail, category.getId(), startDate, endDate);
+        for (CategoryTotal categoryTotal : incomeTotals) {
+            long amount = categoryTotal.getTotalCents();
             if (amount > 0) {
-                report.append("• ").append(category.getName()).append(": ").append(currencyFormat.format(amount)).append("\n");
+                report.append("• ").append(categoryTotal.getCategoryName()).append(": ").append(Money.format(amount)).append("\n");
                 hasIncomeData = true;
             }
         }
@@ -764,46 +950,45 @@ public class HomeFragment extends Fragment {
 
         report.append("━━━ EXPENSES BY CATEGORY ━━━\n");
         boolean hasExpenseData = false;
-        for (Category category : expenseCategories) {
-            double amount = dbHelper.getSpendingForCategoryInRange(userEmail, category.getId(), startDate, endDate);
-            if (amount > 0) {
-                double percentage = (totalExpense > 0) ? (amount / totalExpense * 100) : 0;
-                report.append("• ").append(category.getName()).append(": ")
-                      .append(currencyFormat.format(amount))
-                      .append(" (").append(String.format("%.1f%%", percentage)).append(")\n");
-                hasExpenseData = true;
-            }
+        for (CategoryShare share : LedgerAnalytics.categoryShares(expenseTotals)) {
+            report.append("• ").append(share.getCategoryName()).append(": ")
+                  .append(Money.format(share.getTotalCents()))
+                  .append(" (").append(String.format("%.1f%%", share.getPercent())).append(")\n");
+            hasExpenseData = true;
         }
         if (!hasExpenseData) report.append("No expenses recorded\n");
         report.append("\n");
 
         // Check budget status
-        String currentMonth = new SimpleDateFormat("yyyy-MM", Locale.getDefault()).format(Calendar.getInstance().getTime());
-        List<Budget> budgets = dbHelper.getBudgetsByMonth(userEmail, currentMonth);
+        String currentMonth = YearMonth.now().toString();
+        List<Budget> budgets = db.getBudgetsWithSpending(userEmail, currentMonth);
         
         if (!budgets.isEmpty()) {
             report.append("━━━ BUDGET STATUS ━━━\n");
             for (Budget budget : budgets) {
-                double spent = dbHelper.getSpendingForCategory(userEmail, budget.getCategoryId(), currentMonth);
-                double remaining = budget.getBudgetLimit() - spent;
+                long spent = budget.getSpentCents();
+                long remaining = budget.getBudgetLimitCents() - spent;
                 String status = remaining >= 0 ? "✅" : "⚠️ OVER";
-                String categoryName = dbHelper.getCategoryNameById(budget.getCategoryId());
-                report.append("• ").append(categoryName).append(": ")
-                      .append(currencyFormat.format(spent)).append(" / ")
-                      .append(currencyFormat.format(budget.getBudgetLimit()))
+                report.append("• ").append(budget.getCategoryName()).append(": ")
+                      .append(Money.format(spent)).append(" / ")
+                      .append(Money.format(budget.getBudgetLimitCents()))
                       .append(" ").append(status).append("\n");
             }
         }
 
+        return report.toString();
+    }
+
+    private void showReport(String report, String periodLabel) {
         // Show report dialog
         new AlertDialog.Builder(requireContext())
                 .setTitle("Financial Report")
-                .setMessage(report.toString())
+                .setMessage(report)
                 .setPositiveButton("Share", (dialog, which) -> {
                     android.content.Intent shareIntent = new android.content.Intent(android.content.Intent.ACTION_SEND);
                     shareIntent.setType("text/plain");
                     shareIntent.putExtra(android.content.Intent.EXTRA_SUBJECT, "Financial Report - " + periodLabel);
-                    shareIntent.putExtra(android.content.Intent.EXTRA_TEXT, report.toString());
+                    shareIntent.putExtra(android.content.Intent.EXTRA_TEXT, report);
                     startActivity(android.content.Intent.createChooser(shareIntent, "Share Report"));
                 })
                 .setNegativeButton("Close", null)
@@ -13,7 +13,7 @@ import androidx.fragment.app.Fragment;
 
 import com.example.andriodproject.MainActivity;
 import com.example.andriodproject.R;
-import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.database.LedgerRepository;
 import com.example.andriodproject.model.User;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.textfield.TextInputEditText;
@@ -31,7 +31,7 @@ public class ProfileFragment extends Fragment {
     private TextInputEditText etFirstName, etLastName, etCurrentPassword, etNewPassword, etConfirmNewPassword;
     private MaterialButton btnSaveProfile, btnChangePassword;
 
-    private DataBaseHelper dbHelper;
+    private LedgerRepository repository;
     private String userEmail;
     private User currentUser;
 
@@ -45,7 +45,7 @@ public class ProfileFragment extends Fragment {
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_profile, container, false);
 
-        dbHelper = new DataBaseHelper(requireContext());
+        repository = LedgerRepository.getInstance(requireContext());
         userEmail = ((MainActivity) requireActivity()).getCurrentUserEmail();
 
         initViews(view);
@@ -76,16 +76,17 @@ public class ProfileFragment extends Fragment {
     }
 
     private void loadUserData() {
-        currentUser = dbHelper.getUser(userEmail);
-        
-        if (currentUser != null) {
-            String fullName = currentUser.getFirstName() + " " + currentUser.getLastName();
-            tvName.setText(fullName);
-            tvEmail.setText(currentUser.getEmail());
-            
-            etFirstName.setText(currentUser.getFirstName());
-            etLastName.setText(currentUser.getLastName());
-        }
+        repository.read(getViewLifecycleOwner(), db -> db.getUser(userEmail), user -> {
+            currentUser = user;
+            if (currentUser != null) {
+                String fullName = currentUser.getFirstName() + " " + currentUser.getLastName();
+                tvName.setText(fullName);
+                tvEmail.setText(currentUser.getEmail());
+
+                etFirstName.setText(currentUser.getFirstName());
+                etLastName.setText(currentUser.getLastName());
+            }
+        });
     }
 
     private void setupListeners() {
@@ -121,18 +122,20 @@ public class ProfileFragment extends Fragment {
 
         if (!isValid) return;
 
-        if (dbHelper.updateUserProfile(userEmail, firstName, lastName)) {
-            Toast.makeText(requireContext(), "Profile updated successfully", Toast.LENGTH_SHORT).show();
-            
-            // Update displayed name
-            String fullName = firstName + " " + lastName;
-            tvName.setText(fullName);
-            
-            // Refresh navigation header in MainActivity
-            ((MainActivity) requireActivity()).refreshNavHeader();
-        } else {
-            Toast.makeText(requireContext(), "Failed to update profile", Toast.LENGTH_SHORT).show();
-        }
+        repository.write(getViewLifecycleOwner(), db -> db.updateUserProfile(userEmail, firstName, lastName), updated -> {
+            if (updated) {
+                Toast.makeText(requireContext(), "Profile updated successfully", Toast.LENGTH_SHORT).show();
+
+                // Update displayed name
+                String fullName = firstName + " " + lastName;
+                tvName.setText(fullName);
+
+                // Refresh navigation header in MainActivity
+                ((MainActivity) requireActivity()).refreshNavHeader();
+            } else {
+                Toast.makeText(requireContext(), "Failed to update profile", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void changePassword() {
@@ -145,6 +148,8 @@ public class ProfileFragment extends Fragment {
         String newPassword = etNewPassword.getText().toString();
         String confirmNewPassword = etConfirmNewPassword.getText().toString();
 
+        if (currentUser == null) return; // Still loading
+
         boolean isValid = true;
 
         // Validate current password
@@ -179,18 +184,20 @@ public class ProfileFragment extends Fragment {
 
         if (!isValid) return;
 
-        if (dbHelper.updateUserPassword(userEmail, newPassword)) {
-            Toast.makeText(requireContext(), "Password changed successfully", Toast.LENGTH_SHORT).show();
-            
-            // Clear password fields
-            etCurrentPassword.setText("");
-            etNewPassword.setText("");
-            etConfirmNewPassword.setText("");
-            
-            // Update current user object
-            currentUser.setPassword(newPassword);
-        } else {
-            Toast.makeText(requireContext(), "Failed to change password", Toast.LENGTH_SHORT).show();
-        }
+        repository.write(getViewLifecycleOwner(), db -> db.updateUserPassword(userEmail, newPassword), changed -> {
+            if (changed) {
+                Toast.makeText(requireContext(), "Password changed successfully", Toast.LENGTH_SHORT).show();
+
+                // Clear password fields
+                etCurrentPassword.setText("");
+                etNewPassword.setText("");
+                etConfirmNewPassword.setText("");
+
+                // Update current user object
+                currentUser.setPassword(newPassword);
+            } else {
+                Toast.makeText(requireContext(), "Failed to change password", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 }
@@ -1,5 +1,7 @@
 package com.example.andriodproject.fragments;
 
+import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -10,10 +12,13 @@ import android.widget.RadioGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatDelegate;
+import androidx.core.content.FileProvider;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -21,34 +26,49 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.example.andriodproject.MainActivity;
 import com.example.andriodproject.R;
 import com.example.andriodproject.adapters.CategoryAdapter;
-import com.example.andriodproject.database.DataBaseHelper;
+import com.example.andriodproject.database.InMemoryLedgerStore;
+import com.example.andriodproject.database.LedgerRepository;
+import com.example.andriodproject.database.LedgerExporter;
+import com.example.andriodproject.database.TransactionCsvImporter;
 import com.example.andriodproject.model.Category;
 import com.example.andriodproject.utils.SharedPrefManager;
+import com.google.android.material.progressindicator.LinearProgressIndicator;
 import com.google.android.material.switchmaterial.SwitchMaterial;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
-// Handles app settings: theme, default period, category management
+// Handles app settings: theme, default period, category management, data import/export
 public class SettingsFragment extends Fragment {
 
     private SwitchMaterial switchDarkMode;
+    private SwitchMaterial switchFastDashboard;
     private RadioGroup rgPeriod;
     private RadioButton rbDaily, rbWeekly, rbMonthly;
     private LinearLayout layoutAddIncomeCategory, layoutAddExpenseCategory, layoutManageCategories;
+    private LinearLayout layoutImportCsv, layoutExportCsv, layoutExportJson;
 
-    private DataBaseHelper dbHelper;
+    private LedgerRepository repository;
     private SharedPrefManager sharedPrefManager;
     private String userEmail;
 
+    // System file picker for the CSV to import
+    private final ActivityResultLauncher<String[]> openCsvLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) {
+                    importCsv(uri);
+                }
+            });
+
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_settings, container, false);
 
-        dbHelper = new DataBaseHelper(requireContext());
+        repository = LedgerRepository.getInstance(requireContext());
         sharedPrefManager = SharedPrefManager.getInstance(requireContext());
         userEmail = ((MainActivity) requireActivity()).getCurrentUserEmail();
 
@@ -61,6 +81,7 @@ public class SettingsFragment extends Fragment {
 
     private void initViews(View view) {
         switchDarkMode = view.findViewById(R.id.switchDarkMode);
+        switchFastDashboard = view.findViewById(R.id.switchFastDashboard);
         rgPeriod = view.findViewById(R.id.rgPeriod);
         rbDaily = view.findViewById(R.id.rbDaily);
         rbWeekly = view.findViewById(R.id.rbWeekly);
@@ -68,10 +89,14 @@ public class SettingsFragment extends Fragment {
         layoutAddIncomeCategory = view.findViewById(R.id.layoutAddIncomeCategory);
         layoutAddExpenseCategory = view.findViewById(R.id.layoutAddExpenseCategory);
         layoutManageCategories = view.findViewById(R.id.layoutManageCategories);
+        layoutImportCsv = view.findViewById(R.id.layoutImportCsv);
+        layoutExportCsv = view.findViewById(R.id.layoutExportCsv);
+        layoutExportJson = view.findViewById(R.id.layoutExportJson);
     }
 
     private void loadSettings() {
         switchDarkMode.setChecked(sharedPrefManager.isDarkModeEnabled());
+        switchFastDashboard.setChecked(sharedPrefManager.isFastDashboardEnabled());
 
         String period = sharedPrefManager.getDefaultPeriod();
         switch (period) {
@@ -98,6 +123,14 @@ public class SettingsFragment extends Fragment {
             }
         });
 
+        // In-memory dashboard totals; switching off also frees the memory they use
+        switchFastDashboard.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            sharedPrefManager.setFastDashboard(isChecked);
+            if (!isChecked) {
+                InMemoryLedgerStore.getInstance(requireContext()).clear();
+            }
+        });
+
         // Period selection
         rgPeriod.setOnCheckedChangeListener((group, checkedId) -> {
             String period;
@@ -115,6 +148,10 @@ public class SettingsFragment extends Fragment {
         layoutAddIncomeCategory.setOnClickListener(v -> showAddCategoryDialog("INCOME"));
         layoutAddExpenseCategory.setOnClickListener(v -> showAddCategoryDialog("EXPENSE"));
         layoutManageCategories.setOnClickListener(v -> showManageCategoriesDialog());
+        layoutImportCsv.setOnClickListener(v ->
+                openCsvLauncher.launch(new String[]{"text/csv", "text/comma-separated-values", "text/plain"}));
+        layoutExportCsv.setOnClickListener(v -> exportLedger(LedgerExporter.Format.CSV));
+        layoutExportJson.setOnClickListener(v -> exportLedger(LedgerExporter.Format.JSON));
     }
 
     private void showAddCategoryDialog(String type) {
@@ -143,12 +180,14 @@ public class SettingsFragment extends Fragment {
                 tilCategoryName.setError(null);
 
                 Category category = new Category(name, type, userEmail);
-                if (dbHelper.insertCategory(category) != -1) {
-                    Toast.makeText(requireContext(), "Category added", Toast.LENGTH_SHORT).show();
-                    dialog.dismiss();
-                } else {
-                    Toast.makeText(requireContext(), "Failed to add category", Toast.LENGTH_SHORT).show();
-                }
+                repository.write(getViewLifecycleOwner(), db -> db.insertCategory(category), id -> {
+                    if (id != -1) {
+                        Toast.makeText(requireContext(), "Category added", Toast.LENGTH_SHORT).show();
+                        dialog.dismiss();
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to add category", Toast.LENGTH_SHORT).show();
+                    }
+                });
             });
         });
 
@@ -156,16 +195,21 @@ public class SettingsFragment extends Fragment {
     }
 
     private void showManageCategoriesDialog() {
-        // Get user's custom categories only
-        List<Category> allCustomCategories = new ArrayList<>();
-        
-        for (Category c : dbHelper.getCategoriesByType("INCOME", userEmail)) {
-            if (c.getUserEmail() != null) allCustomCategories.add(c);
-        }
-        for (Category c : dbHelper.getCategoriesByType("EXPENSE", userEmail)) {
-            if (c.getUserEmail() != null) allCustomCategories.add(c);
-        }
+        repository.read(getViewLifecycleOwner(), db -> {
+            // Get user's custom categories only
+            List<Category> allCustomCategories = new ArrayList<>();
 
+            for (Category c : db.getCategoriesByType("INCOME", userEmail)) {
+                if (c.getUserEmail() != null) allCustomCategories.add(c);
+            }
+            for (Category c : db.getCategoriesByType("EXPENSE", userEmail)) {
+                if (c.getUserEmail() != null) allCustomCategories.add(c);
+            }
+            return allCustomCategories;
+        }, this::showManageCategoriesDialog);
+    }
+
+    private void showManageCategoriesDialog(List<Category> allCustomCategories) {
         View dialogView = LayoutInflater.from(requireContext())
                 .inflate(R.layout.dialog_manage_categories, null);
         RecyclerView rvCategories = dialogView.findViewById(R.id.rvCategories);
@@ -201,13 +245,15 @@ public class SettingsFragment extends Fragment {
                             .setTitle("Delete Category")
                             .setMessage("Delete \"" + category.getName() + "\"?")
                             .setPositiveButton("Delete", (d, w) -> {
-                                if (dbHelper.deleteCategory(category.getId())) {
-                                    Toast.makeText(requireContext(), "Category deleted", Toast.LENGTH_SHORT).show();
-                                    dialog.dismiss();
-                                    showManageCategoriesDialog(); // Refresh
-                                } else {
-                                    Toast.makeText(requireContext(), "Failed to delete", Toast.LENGTH_SHORT).show();
-                                }
+                                repository.write(getViewLifecycleOwner(), db -> db.deleteCategory(category.getId()), deleted -> {
+                                    if (deleted) {
+                                        Toast.makeText(requireContext(), "Category deleted", Toast.LENGTH_SHORT).show();
+                                        dialog.dismiss();
+                                        showManageCategoriesDialog(); // Refresh
+                                    } else {
+                                        Toast.makeText(requireContext(), "Failed to delete", Toast.LENGTH_SHORT).show();
+                                    }
+                                });
                             })
                             .setNegativeButton("Cancel", null)
                             .show();
@@ -242,16 +288,102 @@ public class SettingsFragment extends Fragment {
                 }
 
                 category.setName(newName);
-                if (dbHelper.updateCategory(category)) {
-                    Toast.makeText(requireContext(), "Category updated", Toast.LENGTH_SHORT).show();
-                    dialog.dismiss();
-                    showManageCategoriesDialog(); // Refresh list
-                } else {
-                    Toast.makeText(requireContext(), "Failed to update", Toast.LENGTH_SHORT).show();
-                }
+                repository.write(getViewLifecycleOwner(), db -> db.updateCategory(category), updated -> {
+                    if (updated) {
+                        Toast.makeText(requireContext(), "Category updated", Toast.LENGTH_SHORT).show();
+                        dialog.dismiss();
+                        showManageCategoriesDialog(); // Refresh list
+                    } else {
+                        Toast.makeText(requireContext(), "Failed to update", Toast.LENGTH_SHORT).show();
+                    }
+                });
             });
         });
 
         dialog.show();
     }
+
+    // ===================== DATA IMPORT / EXPORT =====================
+
+    private void importCsv(Uri uri) {
+        View dialogView = LayoutInflater.from(requireContext()).inflate(R.layout.dialog_import_progress, null);
+        LinearProgressIndicator progressImport = dialogView.findViewById(R.id.progressImport);
+        TextView tvImportStatus = dialogView.findViewById(R.id.tvImportStatus);
+
+        TransactionCsvImporter importer = new TransactionCsvImporter(requireContext(), userEmail);
+
+        AlertDialog progressDialog = new AlertDialog.Builder(requireContext())
+                .setTitle("Importing Transactions")
+                .setView(dialogView)
+                .setCancelable(false)
+                .setNegativeButton("Stop", (d, w) -> importer.cancel())
+                .show();
+
+        importer.start(uri, new TransactionCsvImporter.Listener() {
+            @Override
+            public void onProgress(int rowsImported, long bytesRead, long totalBytes) {
+                if (totalBytes > 0) {
+                    progressImport.setIndeterminate(false);
+                    progressImport.setProgressCompat((int) (bytesRead * 100 / totalBytes), true);
+                }
+                tvImportStatus.setText(rowsImported + " transactions imported");
+            }
+
+            @Override
+            public void onComplete(TransactionCsvImporter.Result result) {
+                progressDialog.dismiss();
+                if (!isAdded()) return;
+
+                StringBuilder message = new StringBuilder();
+                message.append(result.rowsImported).append(" transactions imported");
+                if (result.categoriesCreated > 0) {
+                    message.append("\n").append(result.categoriesCreated).append(" categories created");
+                }
+                if (result.rowsSkipped > 0) {
+                    message.append("\n").append(result.rowsSkipped).append(" rows skipped");
+                }
+                for (String error : result.errors) {
+                    message.append("\n• ").append(error);
+                }
+
+                new AlertDialog.Builder(requireContext())
+                        .setTitle(result.cancelled ? "Import Stopped" : "Import Complete")
+                        .setMessage(message.toString())
+                        .setPositiveButton("OK", null)
+                        .show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                progressDialog.dismiss();
+                if (!isAdded()) return;
+                Toast.makeText(requireContext(), "Import failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void exportLedger(LedgerExporter.Format format) {
+        Toast.makeText(requireContext(), "Preparing export...", Toast.LENGTH_SHORT).show();
+        new LedgerExporter(requireContext()).export(userEmail, format, new LedgerExporter.Listener() {
+            @Override
+            public void onComplete(File file, int rowCount) {
+                if (!isAdded()) return;
+                Uri uri = FileProvider.getUriForFile(requireContext(),
+                        requireContext().getPackageName() + ".fileprovider", file);
+
+                Intent shareIntent = new Intent(Intent.ACTION_SEND);
+                shareIntent.setType(format.mimeType);
+                shareIntent.putExtra(Intent.EXTRA_SUBJECT, "Transactions export (" + rowCount + " transactions)");
+                shareIntent.putExtra(Intent.EXTRA_STREAM, uri);
+                shareIntent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+                startActivity(Intent.createChooser(shareIntent, "Share Export"));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (!isAdded()) return;
+                Toast.makeText(requireContext(), "Export failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
 }
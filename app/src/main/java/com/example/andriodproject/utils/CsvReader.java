@@ -0,0 +1,113 @@
+package com.example.andriodproject.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvReader - Reads RFC 4180 style CSV one record at a time from a Reader.
+ * Quoted fields may contain commas, doubled quotes and line breaks. Only the current
+ * record and one buffer of characters are held in memory, so files of any size can be streamed.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLimit;
+    private final StringBuilder field = new StringBuilder();
+    private long lineNumber = 1;
+    private boolean atStart = true;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record, or return null at end of input.
+     * A blank line yields a record with a single empty field.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (atStart) {
+            atStart = false;
+            if (c == '\uFEFF') c = read(); // Skip the byte order mark spreadsheets like to write
+        }
+        if (c == EOF) return null;
+
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IOException("Unterminated quoted field at line " + lineNumber);
+                } else if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') lineNumber++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') pushBack(next);
+                }
+                if (c != EOF) lineNumber++;
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Line number the next record starts on (1-based), for error messages
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    // Own buffer instead of BufferedReader.read(), which takes a lock for every character
+    private int read() throws IOException {
+        if (bufferPosition == bufferLimit) {
+            bufferLimit = reader.read(buffer, 0, BUFFER_SIZE);
+            bufferPosition = 0;
+            if (bufferLimit <= 0) {
+                bufferLimit = 0;
+                return EOF;
+            }
+        }
+        return buffer[bufferPosition++];
+    }
+
+    // Only ever called right after read() returned c, so the character is still in the buffer
+    private void pushBack(int c) {
+        if (c != EOF) bufferPosition--;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.andriodproject.utils;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * DateUtils - Conversions between epoch days (days since 1970-01-01) and the
+ * calendar values and text the screens work with.
+ * Transactions are stored and queried by epoch day, so ranges are plain integer bounds.
+ */
+public final class DateUtils {
+
+    // Formatters are immutable and thread-safe, so one instance serves every bind
+    private static final DateTimeFormatter DISPLAY_FORMAT =
+            DateTimeFormatter.ofPattern("MMM dd, yyyy", Locale.getDefault());
+
+    private DateUtils() {
+    }
+
+    /**
+     * Today's date in the device time zone as an epoch day
+     */
+    public static int today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Epoch day of the calendar's year, month and day of month (time of day is ignored)
+     */
+    public static int toEpochDay(Calendar calendar) {
+        return (int) LocalDate.of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH)).toEpochDay();
+    }
+
+    /**
+     * Epoch day of a yyyy-MM-dd date
+     * @throws java.time.format.DateTimeParseException if the text is not a valid ISO date
+     */
+    public static int toEpochDay(String isoDate) {
+        return (int) LocalDate.parse(isoDate).toEpochDay();
+    }
+
+    /**
+     * Move the calendar to the given epoch day, keeping its time of day
+     */
+    public static void setCalendar(Calendar calendar, int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        calendar.set(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+    }
+
+    /**
+     * yyyy-MM-dd text for an epoch day, as used in date fields and exports
+     */
+    public static String toIsoDate(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    /**
+     * Short display text for an epoch day, e.g. "Mar 05, 2025"
+     */
+    public static String formatForDisplay(int epochDay) {
+        return DISPLAY_FORMAT.format(LocalDate.ofEpochDay(epochDay));
+    }
+
+    /**
+     * yyyy-MM month key (as used by budgets and the monthly rollup) containing an epoch day
+     */
+    public static String toMonthKey(int epochDay) {
+        return YearMonth.from(LocalDate.ofEpochDay(epochDay)).toString();
+    }
+
+    /**
+     * Epoch day of the first day of the month containing the given epoch day
+     */
+    public static int firstDayOfMonth(int epochDay) {
+        return (int) LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+    }
+
+    /**
+     * Epoch day of the first day of a yyyy-MM month
+     */
+    public static int firstDayOfMonth(String monthKey) {
+        return (int) YearMonth.parse(monthKey).atDay(1).toEpochDay();
+    }
+
+    /**
+     * Epoch day of the last day of a yyyy-MM month
+     */
+    public static int lastDayOfMonth(String monthKey) {
+        return (int) YearMonth.parse(monthKey).atEndOfMonth().toEpochDay();
+    }
+}
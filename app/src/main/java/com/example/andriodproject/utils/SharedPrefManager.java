@@ -19,6 +19,7 @@ public class SharedPrefManager {
     // Keys for app settings
     private static final String KEY_DARK_MODE = "darkMode";
     private static final String KEY_DEFAULT_PERIOD = "defaultPeriod"; // daily, weekly, monthly
+    private static final String KEY_FAST_DASHBOARD = "fastDashboard";
     
     private static SharedPrefManager instance;
     private SharedPreferences sharedPreferences;
@@ -148,6 +149,21 @@ public class SharedPrefManager {
         return sharedPreferences.getString(KEY_DEFAULT_PERIOD, "monthly");
     }
 
+    /**
+     * Set whether the dashboard computes its totals from an in-memory copy of the ledger
+     */
+    public void setFastDashboard(boolean enabled) {
+        editor.putBoolean(KEY_FAST_DASHBOARD, enabled);
+        editor.apply();
+    }
+
+    /**
+     * Check if the dashboard computes its totals in memory (default: true)
+     */
+    public boolean isFastDashboardEnabled() {
+        return sharedPreferences.getBoolean(KEY_FAST_DASHBOARD, true);
+    }
+
     // ===================== UTILITY METHODS =====================
 
     /**
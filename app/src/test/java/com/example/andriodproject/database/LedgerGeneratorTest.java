@@ -0,0 +1,116 @@
+package com.example.andriodproject.database;
+
+import com.example.andriodproject.model.Budget;
+import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.model.User;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LedgerGenerator must give the same ledger for the same seed, and hit the preset's size exactly
+ */
+public class LedgerGeneratorTest {
+
+    @Test
+    public void sameSeedGivesSameLedger() {
+        RecordingSink first = generate(42, LedgerGenerator.Preset.TX_10K);
+        RecordingSink second = generate(42, LedgerGenerator.Preset.TX_10K);
+
+        assertEquals(first.rows, second.rows);
+    }
+
+    @Test
+    public void differentSeedGivesDifferentLedger() {
+        RecordingSink first = generate(42, LedgerGenerator.Preset.TX_1K);
+        RecordingSink second = generate(43, LedgerGenerator.Preset.TX_1K);
+
+        assertNotEquals(first.rows, second.rows);
+    }
+
+    @Test
+    public void presetSizeIsExact() {
+        for (LedgerGenerator.Preset preset : new LedgerGenerator.Preset[]{
+                LedgerGenerator.Preset.TX_1K, LedgerGenerator.Preset.TX_10K}) {
+            RecordingSink sink = new RecordingSink();
+            long written = new LedgerGenerator(7, preset).generate(sink);
+
+            assertEquals(preset.getTransactions(), written);
+            assertEquals(preset.getTransactions(), sink.transactionCount);
+            assertEquals(preset.getUsers(), sink.users);
+        }
+    }
+
+    @Test
+    public void rowsAreConsistent() {
+        RecordingSink sink = generate(1, LedgerGenerator.Preset.TX_10K);
+        int endDay = LedgerGenerator.DEFAULT_END_DAY;
+        int startDay = endDay - 2 * 366;
+
+        assertTrue(sink.budgets > 0);
+        for (Transaction transaction : sink.transactions) {
+            Category category = sink.categories.get(transaction.getCategoryId());
+            assertEquals(transaction.getUserEmail(), category.getUserEmail());
+            assertEquals(transaction.getType(), category.getType());
+            assertTrue(transaction.getAmountCents() > 0);
+            assertTrue(transaction.getEpochDay() > startDay && transaction.getEpochDay() <= endDay);
+        }
+    }
+
+    private static RecordingSink generate(long seed, LedgerGenerator.Preset preset) {
+        RecordingSink sink = new RecordingSink();
+        new LedgerGenerator(seed, preset).generate(sink);
+        return sink;
+    }
+
+    /** Keeps a text form of every row, and the transactions themselves */
+    private static class RecordingSink implements LedgerGenerator.Sink {
+        final List<String> rows = new ArrayList<>();
+        final List<Transaction> transactions = new ArrayList<>();
+        final Map<Long, Category> categories = new HashMap<>();
+        long transactionCount;
+        int users;
+        int budgets;
+
+        @Override
+        public void insertUser(User user) {
+            users++;
+            rows.add("user " + user.getEmail() + " " + user.getFirstName() + " " + user.getLastName());
+        }
+
+        @Override
+        public long insertCategory(Category category) {
+            long id = categories.size() + 1;
+            categories.put(id, category);
+            rows.add("category " + id + " " + category.getName() + " " + category.getType());
+            return id;
+        }
+
+        @Override
+        public void insertTransactions(List<Transaction> batch) {
+            for (Transaction transaction : batch) {
+                transactionCount++;
+                transactions.add(transaction);
+                rows.add(transaction.getUserEmail() + " " + transaction.getType() + " " +
+                        transaction.getAmountCents() + " " + transaction.getEpochDay() + " " +
+                        transaction.getCategoryId() + " " + transaction.getDescription());
+            }
+        }
+
+        @Override
+        public void insertBudget(Budget budget) {
+            budgets++;
+            rows.add("budget " + budget.getCategoryId() + " " + budget.getMonth() + " " +
+                    budget.getBudgetLimitCents() + " " + budget.getAlertThreshold());
+        }
+    }
+}
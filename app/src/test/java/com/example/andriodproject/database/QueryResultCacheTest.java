@@ -0,0 +1,91 @@
+package com.example.andriodproject.database;
+
+import com.example.andriodproject.model.Category;
+import com.example.andriodproject.model.Transaction;
+import com.example.andriodproject.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Cached aggregates must be reused for identical calls and never outlive a write to the rows they sum
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class QueryResultCacheTest {
+
+    private static final String USER = "cache@example.com";
+    private static final int DAY = 19000;
+
+    private DataBaseHelper dbHelper;
+    private long food;
+
+    @Before
+    public void setUp() {
+        dbHelper = new DataBaseHelper(RuntimeEnvironment.getApplication(), null);
+        dbHelper.insertUser(new User(USER, "Cache", "Test", "secret"));
+        food = dbHelper.insertCategory(new Category("Cache Food", "EXPENSE", USER));
+        dbHelper.insertTransaction(new Transaction(USER, "EXPENSE", 1000, DAY, food, "lunch"));
+    }
+
+    @After
+    public void tearDown() {
+        dbHelper.close();
+    }
+
+    @Test
+    public void identicalCallsHitUntilAWrite() {
+        assertEquals(1000, dbHelper.getTotalExpense(USER, DAY, DAY));
+        assertEquals(1000, dbHelper.getTotalExpense(USER, DAY, DAY));
+        assertEquals(1, dbHelper.getResultCacheHitCount());
+        assertEquals(1, dbHelper.getResultCacheMissCount());
+
+        // Other arguments are another entry
+        assertEquals(0, dbHelper.getTotalIncome(USER, DAY, DAY));
+        assertEquals(2, dbHelper.getResultCacheMissCount());
+
+        long id = dbHelper.insertTransaction(new Transaction(USER, "EXPENSE", 250, DAY, food, "coffee"));
+        assertEquals(1250, dbHelper.getTotalExpense(USER, DAY, DAY));
+        assertEquals(1250, dbHelper.getSpendingForCategoryInRange(USER, food, DAY, DAY));
+        assertEquals(1, dbHelper.getResultCacheInvalidationCount());
+
+        dbHelper.deleteTransaction(id);
+        assertEquals(1000, dbHelper.getTotalExpense(USER, DAY, DAY));
+        assertEquals(1000, dbHelper.getSpendingForCategoryInRange(USER, food, DAY, DAY));
+        assertEquals(3, dbHelper.getResultCacheInvalidationCount());
+        assertEquals(1.0 / 7, dbHelper.getResultCacheHitRate(), 1e-9);
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() {
+        dbHelper.getTotalExpense(USER, DAY, DAY);
+        for (int i = 1; i <= 300; i++) {
+            dbHelper.getTotalExpense(USER, DAY - i, DAY);
+            dbHelper.getTotalExpense(USER, DAY, DAY); // Kept as the most recently used
+        }
+        assertTrue(dbHelper.getResultCacheEvictionCount() > 0);
+
+        long hits = dbHelper.getResultCacheHitCount();
+        dbHelper.getTotalExpense(USER, DAY, DAY);
+        assertEquals(hits + 1, dbHelper.getResultCacheHitCount());
+        dbHelper.getTotalExpense(USER, DAY - 1, DAY);
+        assertEquals(hits + 1, dbHelper.getResultCacheHitCount());
+    }
+
+    @Test
+    public void disabledCacheAlwaysQueries() {
+        dbHelper.setResultCacheEnabled(false);
+        dbHelper.getTotalExpense(USER, DAY, DAY);
+        dbHelper.getTotalExpense(USER, DAY, DAY);
+        assertEquals(0, dbHelper.getResultCacheHitCount());
+        assertEquals(0, dbHelper.getResultCacheMissCount());
+    }
+}
@@ -0,0 +1,22 @@
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+// Android-free ledger models and aggregation, shared by the app and profiled with JMH:
+// ./gradlew :ledger-core:jmh (results in ledger-core/build/results/jmh)
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+}
@@ -0,0 +1,135 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.Budget;
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Transaction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the aggregation paths behind the dashboard and report.
+ * Run with ./gradlew :ledger-core:jmh; rows are random but seeded, in day order like a query returns them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LedgerAnalyticsBenchmark {
+
+    private static final int CATEGORIES = 16;
+    private static final int DAYS = 5 * 365;
+
+    @Param({"10000", "1000000"})
+    public int transactions;
+
+    private List<Transaction> ledger;
+    private List<CategoryTotal> categoryTotals;
+    private Map<String, Long> monthlyTotals;
+    private List<Budget> budgets;
+    private ColumnarLedger columnar;
+    private int endDay;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        endDay = (int) LocalDate.of(2025, 12, 31).toEpochDay();
+        int startDay = endDay - DAYS + 1;
+
+        ledger = new ArrayList<>(transactions);
+        for (int i = 0; i < transactions; i++) {
+            int day = startDay + (int) ((long) i * DAYS / transactions);
+            boolean income = random.nextInt(20) == 0;
+            ledger.add(new Transaction("bench@example.com", income ? "INCOME" : "EXPENSE",
+                    100 + random.nextInt(20000), day, random.nextInt(CATEGORIES) + 1, null));
+        }
+
+        columnar = new ColumnarLedger();
+        columnar.addAll(ledger);
+
+        LedgerAggregator aggregator = new LedgerAggregator().addAll(ledger);
+        categoryTotals = aggregator.getCategoryTotals("EXPENSE", id -> "Category " + id);
+        monthlyTotals = aggregator.getMonthlyTotals("EXPENSE");
+
+        budgets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Budget budget = new Budget("bench@example.com", i % CATEGORIES + 1, 10000 + random.nextInt(90000),
+                    "2025-12", random.nextBoolean(), 80);
+            budget.setSpentCents(random.nextInt(120000));
+            budgets.add(budget);
+        }
+    }
+
+    @Benchmark
+    public LedgerAggregator aggregateAll() {
+        return new LedgerAggregator().addAll(ledger);
+    }
+
+    @Benchmark
+    public long aggregateLastMonth() {
+        LedgerAggregator aggregator = new LedgerAggregator(endDay - 30, endDay);
+        ledger.forEach(aggregator);
+        return aggregator.getBalanceCents();
+    }
+
+    @Benchmark
+    public List<CategoryTotal> categoryTotals() {
+        return new LedgerAggregator().addAll(ledger).getCategoryTotals("EXPENSE", id -> "Category " + id);
+    }
+
+    // The same figures as aggregateLastMonth and categoryTotals, from the day-sorted columns
+
+    @Benchmark
+    public long columnarLastMonth() {
+        return columnar.getTotal("INCOME", endDay - 30, endDay) - columnar.getTotal("EXPENSE", endDay - 30, endDay);
+    }
+
+    // Five years of history: a single range total, as the custom date range asks for
+    @Benchmark
+    public long columnarWholeRangeTotal() {
+        return columnar.getTotal("EXPENSE", endDay - DAYS + 1, endDay);
+    }
+
+    @Benchmark
+    public long columnarBalanceAsOf() {
+        return columnar.getBalanceAsOf(endDay - 400);
+    }
+
+    @Benchmark
+    public List<CategoryTotal> columnarCategoryTotals() {
+        return columnar.getCategoryTotals("EXPENSE", Integer.MIN_VALUE, Integer.MAX_VALUE, id -> "Category " + id);
+    }
+
+    @Benchmark
+    public Map<String, Long> columnarMonthlyTotals() {
+        return columnar.getMonthlyTotals("EXPENSE", YearMonth.of(2025, 7), YearMonth.of(2025, 12));
+    }
+
+    @Benchmark
+    public List<CategoryShare> categoryShares() {
+        return LedgerAnalytics.categoryShares(categoryTotals);
+    }
+
+    @Benchmark
+    public List<MonthTotal> monthlyTrend() {
+        return LedgerAnalytics.monthlyTrend(monthlyTotals, YearMonth.of(2025, 12), 6);
+    }
+
+    @Benchmark
+    public List<Budget> budgetAlerts() {
+        return LedgerAnalytics.budgetAlerts(budgets);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.andriodproject.analytics;
+
+/**
+ * BudgetStatus - Where a budget's spending stands against its limit and alert threshold
+ */
+public enum BudgetStatus {
+    ON_TRACK,
+    NEAR_LIMIT, // At or past the alert threshold, still within the limit
+    OVER_LIMIT
+}
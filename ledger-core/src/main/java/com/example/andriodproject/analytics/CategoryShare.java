@@ -0,0 +1,44 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.CategoryTotal;
+
+/**
+ * CategoryShare - A category's total with its share of the period's total, for pie charts and reports
+ */
+public final class CategoryShare {
+    private final CategoryTotal total;
+    private final double percent;
+
+    public CategoryShare(CategoryTotal total, double percent) {
+        this.total = total;
+        this.percent = percent;
+    }
+
+    public long getCategoryId() {
+        return total.getCategoryId();
+    }
+
+    public String getCategoryName() {
+        return total.getCategoryName();
+    }
+
+    public long getTotalCents() {
+        return total.getTotalCents();
+    }
+
+    /**
+     * Share of the summed totals in percent, 0 to 100
+     */
+    public double getPercent() {
+        return percent;
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryShare{" +
+                "categoryName='" + total.getCategoryName() + '\'' +
+                ", totalCents=" + total.getTotalCents() +
+                ", percent=" + percent +
+                '}';
+    }
+}
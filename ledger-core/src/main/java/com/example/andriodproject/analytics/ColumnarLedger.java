@@ -0,0 +1,581 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Transaction;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+
+/**
+ * ColumnarLedger - One user's transactions as parallel primitive arrays (day, amount, category, type)
+ * sorted by day, so the category totals of a period are two binary searches and a tight loop over the
+ * rows between them. Ranges of more than PARALLEL_THRESHOLD rows are summed on the common fork-join pool.
+ *
+ * Plain totals come from Fenwick trees of daily totals over epoch days, per type and per category,
+ * so any range total or the balance as of a day costs O(log days) however many rows it covers.
+ * The trees are built on first use and kept current by every row change.
+ *
+ * Only what the aggregates need is kept, not descriptions. Row changes are idempotent: a row whose ID is
+ * already held is never added again, whatever its day, so a change that is already reflected (e.g. it
+ * landed while the ledger was being loaded) can be applied again safely.
+ * Reads may run concurrently with each other, but not with a change.
+ */
+public class ColumnarLedger {
+
+    public static final byte INCOME = 0;
+    public static final byte EXPENSE = 1;
+
+    /** Receives rows of a scan, oldest first; categoryId is the category's real ID */
+    public interface RowVisitor {
+        void visit(int day, byte type, long amountCents, long categoryId);
+    }
+
+    // Rows in a range above which a sum is split into fork-join tasks of about this many rows
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int MIN_CAPACITY = 64;
+
+    // Days the daily index reaches beyond the first and last row, so new rows rarely fall outside it
+    private static final int INDEX_MARGIN_DAYS = 366;
+
+    private static final Comparator<Transaction> ORDER = (a, b) -> a.getEpochDay() != b.getEpochDay()
+            ? Integer.compare(a.getEpochDay(), b.getEpochDay()) : Long.compare(a.getId(), b.getId());
+
+    private int size;
+    private long[] ids = new long[MIN_CAPACITY];
+    private int[] days = new int[MIN_CAPACITY];
+    private long[] amounts = new long[MIN_CAPACITY];
+    private int[] categories = new int[MIN_CAPACITY]; // Slot in categoryIds, not the category ID itself
+    private byte[] types = new byte[MIN_CAPACITY];
+    // Day of every row held by ID, so a row is found by binary search and never held twice
+    private final Map<Long, Integer> dayOfId = new HashMap<>();
+
+    private long[] categoryIds = new long[16];
+    private int categoryCount;
+    private final Map<Long, Integer> categorySlots = new HashMap<>();
+
+    private volatile DailyIndex dailyIndex; // Null until a total is asked for, or after a row fell outside it
+
+    /**
+     * Number of rows held
+     */
+    public int size() {
+        return size;
+    }
+
+    // ===================== ROW CHANGES =====================
+
+    /**
+     * Add one row, returns false if it is already held or of an unknown type. Rows arriving in (day, ID)
+     * order, e.g. straight from a cursor while loading, are appended without moving any other row.
+     */
+    public boolean add(long id, int day, String type, long amountCents, long categoryId) {
+        byte typeCode = typeOf(type);
+        if (typeCode < 0) return false;
+        if (dayOfId.containsKey(id)) return false;
+        int at = size == 0 || compare(size - 1, day, id) < 0 ? size : lowerBound(day, id);
+        insertAt(at, id, day, amountCents, slotOf(categoryId), typeCode);
+        return true;
+    }
+
+    /**
+     * Add transactions (with their IDs set), returns how many were added. Rows already held, repeats of
+     * an ID within the batch and rows of an unknown type are skipped.
+     */
+    public int addAll(Collection<Transaction> transactions) {
+        List<Transaction> incoming = new ArrayList<>(transactions.size());
+        Set<Long> batchIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            if (typeOf(transaction.getType()) >= 0 && !dayOfId.containsKey(transaction.getId()) &&
+                    batchIds.add(transaction.getId())) {
+                incoming.add(transaction);
+            }
+        }
+        if (incoming.isEmpty()) return 0;
+        incoming.sort(ORDER);
+
+        // Merge from the back: rows before the earliest new one never move, so appending recent days is cheap
+        int added = incoming.size();
+        ensureCapacity(size + added);
+        int read = size - 1;
+        int write = size + added - 1;
+        for (int j = added - 1; j >= 0; j--) {
+            Transaction transaction = incoming.get(j);
+            while (read >= 0 && compare(read, transaction.getEpochDay(), transaction.getId()) > 0) {
+                move(read--, write--);
+            }
+            set(write, transaction.getId(), transaction.getEpochDay(), transaction.getAmountCents(),
+                    slotOf(transaction.getCategoryId()), typeOf(transaction.getType()));
+            dayOfId.put(transaction.getId(), transaction.getEpochDay());
+            indexRow(write--, 1);
+        }
+        size += added;
+        return added;
+    }
+
+    /**
+     * Apply new amount, day and category of a row (its type never changes), false if it is not held
+     */
+    public boolean update(Transaction transaction) {
+        int index = indexOfId(transaction.getId());
+        if (index < 0) return false;
+        byte type = types[index];
+        indexRow(index, -1);
+        removeAt(index);
+
+        int day = transaction.getEpochDay();
+        insertAt(lowerBound(day, transaction.getId()), transaction.getId(), day, transaction.getAmountCents(),
+                slotOf(transaction.getCategoryId()), type);
+        return true;
+    }
+
+    /**
+     * Drop rows by ID, returns how many were held
+     */
+    public int removeAll(Collection<Long> transactionIds) {
+        if (transactionIds.size() == 1) {
+            int index = indexOfId(transactionIds.iterator().next());
+            if (index < 0) return 0;
+            indexRow(index, -1);
+            removeAt(index);
+            return 1;
+        }
+        Set<Long> remove = new HashSet<>(transactionIds);
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (!remove.contains(ids[read])) {
+                if (read != write) move(read, write);
+                write++;
+            } else {
+                indexRow(read, -1);
+                dayOfId.remove(ids[read]);
+            }
+        }
+        int removed = size - write;
+        size = write;
+        return removed;
+    }
+
+    /**
+     * Move rows to another category, returns how many were held
+     */
+    public int recategorize(Collection<Long> transactionIds, long categoryId) {
+        Set<Long> moved = new HashSet<>(transactionIds);
+        int slot = slotOf(categoryId);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (moved.contains(ids[i])) {
+                indexRow(i, -1);
+                categories[i] = slot;
+                indexRow(i, 1);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // ===================== AGGREGATES =====================
+
+    /**
+     * Hand every row within an inclusive range of epoch days to visitor, in day order
+     */
+    public void scan(int startDay, int endDay, RowVisitor visitor) {
+        if (startDay > endDay) return;
+        int to = upperBound(endDay);
+        for (int i = lowerBound(startDay, Long.MIN_VALUE); i < to; i++) {
+            visitor.visit(days[i], types[i], amounts[i], categoryIds[categories[i]]);
+        }
+    }
+
+    /**
+     * Sum in cents of a type (INCOME or EXPENSE) within an inclusive range of epoch days
+     */
+    public long getTotal(String type, int startDay, int endDay) {
+        byte wanted = typeOf(type);
+        DailyIndex index = dailyIndex();
+        if (wanted < 0 || index == null) return 0;
+        return index.rangeSum(index.typeTrees[wanted], startDay, endDay);
+    }
+
+    /**
+     * Sum in cents of one category's rows of a type within an inclusive range of epoch days
+     */
+    public long getCategoryTotal(long categoryId, String type, int startDay, int endDay) {
+        byte wanted = typeOf(type);
+        Integer slot = categorySlots.get(categoryId);
+        DailyIndex index = dailyIndex();
+        if (wanted < 0 || slot == null || index == null) return 0;
+        return index.rangeSum(index.categoryTree(slot, wanted), startDay, endDay);
+    }
+
+    /**
+     * All income minus all expenses up to and including a day
+     */
+    public long getBalanceAsOf(int day) {
+        DailyIndex index = dailyIndex();
+        if (index == null) return 0;
+        return index.rangeSum(index.typeTrees[INCOME], Integer.MIN_VALUE, day) -
+                index.rangeSum(index.typeTrees[EXPENSE], Integer.MIN_VALUE, day);
+    }
+
+    /**
+     * Income, expense and per-category expense of a range, with the income and expense of the range before
+     * it, all from the daily index: the cost does not grow with the rows the ranges hold, so long custom
+     * ranges are cheap. A category whose expenses there sum to zero is left out.
+     */
+    public PeriodSummary getPeriodSummary(int startDay, int endDay, int previousStartDay, int previousEndDay,
+                                          LongFunction<String> categoryNames) {
+        List<CategoryTotal> expenseTotals = new ArrayList<>();
+        DailyIndex index = dailyIndex();
+        if (index != null) {
+            for (int slot = 0; slot < categoryCount; slot++) {
+                long total = index.rangeSum(index.categoryTree(slot, EXPENSE), startDay, endDay);
+                if (total != 0) {
+                    long categoryId = categoryIds[slot];
+                    expenseTotals.add(new CategoryTotal(categoryId, categoryNames.apply(categoryId), "EXPENSE",
+                            total));
+                }
+            }
+            expenseTotals.sort((a, b) -> Long.compare(b.getTotalCents(), a.getTotalCents()));
+        }
+        return new PeriodSummary(startDay, endDay, getTotal("INCOME", startDay, endDay),
+                getTotal("EXPENSE", startDay, endDay), getTotal("INCOME", previousStartDay, previousEndDay),
+                getTotal("EXPENSE", previousStartDay, previousEndDay), expenseTotals);
+    }
+
+    /**
+     * Per-category totals of a type within an inclusive range of epoch days, largest first, named through
+     * categoryNames. Only categories with rows in the range are returned, as by DataBaseHelper.getCategoryTotals.
+     */
+    public List<CategoryTotal> getCategoryTotals(String type, int startDay, int endDay,
+                                                 LongFunction<String> categoryNames) {
+        List<CategoryTotal> result = new ArrayList<>();
+        byte wanted = typeOf(type);
+        if (wanted < 0 || startDay > endDay) return result;
+        int from = lowerBound(startDay, Long.MIN_VALUE);
+        int to = upperBound(endDay);
+
+        long[] totals;
+        int[] rows;
+        if (to - from > PARALLEL_THRESHOLD) {
+            CategorySums sums = ForkJoinPool.commonPool().invoke(new CategoryTask(wanted, from, to));
+            totals = sums.totals;
+            rows = sums.rows;
+        } else {
+            totals = new long[categoryCount];
+            rows = new int[categoryCount];
+            addCategorySums(wanted, from, to, totals, rows);
+        }
+
+        for (int slot = 0; slot < totals.length; slot++) {
+            if (rows[slot] > 0) {
+                long categoryId = categoryIds[slot];
+                result.add(new CategoryTotal(categoryId, categoryNames.apply(categoryId), type, totals[slot]));
+            }
+        }
+        result.sort((a, b) -> Long.compare(b.getTotalCents(), a.getTotalCents()));
+        return result;
+    }
+
+    /**
+     * Per-month totals of a type from firstMonth to lastMonth inclusive, keyed yyyy-MM; months without
+     * rows are absent, as by DataBaseHelper.getMonthlyTotals
+     */
+    public Map<String, Long> getMonthlyTotals(String type, YearMonth firstMonth, YearMonth lastMonth) {
+        Map<String, Long> result = new HashMap<>();
+        byte wanted = typeOf(type);
+        if (wanted < 0) return result;
+        DailyIndex index = dailyIndex();
+        if (index == null) return result;
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            int firstDay = (int) month.atDay(1).toEpochDay();
+            int lastDay = (int) month.atEndOfMonth().toEpochDay();
+            long total = index.rangeSum(index.typeTrees[wanted], firstDay, lastDay);
+            // A zero total may still have rows (of zero cents); only then is the month walked
+            if (total != 0 || contains(wanted, lowerBound(firstDay, Long.MIN_VALUE), upperBound(lastDay))) {
+                result.put(month.toString(), total);
+            }
+        }
+        return result;
+    }
+
+    private void addCategorySums(byte type, int from, int to, long[] totals, int[] rows) {
+        for (int i = from; i < to; i++) {
+            if (types[i] == type) {
+                int slot = categories[i];
+                totals[slot] += amounts[i];
+                rows[slot]++;
+            }
+        }
+    }
+
+    private boolean contains(byte type, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (types[i] == type) return true;
+        }
+        return false;
+    }
+
+    private static class CategorySums {
+        final long[] totals;
+        final int[] rows;
+
+        CategorySums(int categories) {
+            totals = new long[categories];
+            rows = new int[categories];
+        }
+    }
+
+    private class CategoryTask extends RecursiveTask<CategorySums> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte type;
+        private final int from;
+        private final int to;
+
+        CategoryTask(byte type, int from, int to) {
+            this.type = type;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CategorySums compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                CategorySums sums = new CategorySums(categoryCount);
+                addCategorySums(type, from, to, sums.totals, sums.rows);
+                return sums;
+            }
+            int mid = (from + to) >>> 1;
+            CategoryTask left = new CategoryTask(type, from, mid);
+            left.fork();
+            CategorySums sums = new CategoryTask(type, mid, to).compute();
+            CategorySums other = left.join();
+            for (int slot = 0; slot < sums.totals.length; slot++) {
+                sums.totals[slot] += other.totals[slot];
+                sums.rows[slot] += other.rows[slot];
+            }
+            return sums;
+        }
+    }
+
+    // ===================== DAILY INDEX =====================
+
+    /**
+     * Fenwick trees of daily totals over days firstDay .. firstDay + days - 1: one per type, and one per
+     * category and type, built the first time that category is asked for
+     */
+    private class DailyIndex {
+        final int firstDay;
+        final int dayCount;
+        final FenwickTree[] typeTrees;
+        private FenwickTree[] categoryTrees = new FenwickTree[0]; // [slot * 2 + type]
+
+        DailyIndex(int firstDay, int dayCount) {
+            this.firstDay = firstDay;
+            this.dayCount = dayCount;
+            long[][] daily = new long[2][dayCount];
+            for (int i = 0; i < size; i++) {
+                daily[types[i]][days[i] - firstDay] += amounts[i];
+            }
+            typeTrees = new FenwickTree[]{FenwickTree.of(daily[INCOME]), FenwickTree.of(daily[EXPENSE])};
+        }
+
+        // Concurrent readers may ask for the same category at once
+        synchronized FenwickTree categoryTree(int slot, byte type) {
+            int key = slot * 2 + type;
+            if (key >= categoryTrees.length) {
+                categoryTrees = Arrays.copyOf(categoryTrees, Math.max(key + 1, categoryCount * 2));
+            }
+            if (categoryTrees[key] == null) {
+                long[] daily = new long[dayCount];
+                for (int i = 0; i < size; i++) {
+                    if (categories[i] == slot && types[i] == type) {
+                        daily[days[i] - firstDay] += amounts[i];
+                    }
+                }
+                categoryTrees[key] = FenwickTree.of(daily);
+            }
+            return categoryTrees[key];
+        }
+
+        /**
+         * Sum of tree's days from startDay to endDay inclusive, clamped to the days covered
+         */
+        long rangeSum(FenwickTree tree, int startDay, int endDay) {
+            long from = Math.max((long) startDay - firstDay, 0);
+            long to = Math.min((long) endDay - firstDay, dayCount - 1);
+            return from > to ? 0 : tree.rangeSum((int) from, (int) to);
+        }
+
+        /**
+         * Apply a change to one day's total, false if the day is not covered
+         */
+        synchronized boolean add(int day, byte type, int slot, long delta) {
+            int offset = day - firstDay;
+            if (offset < 0 || offset >= dayCount) return false;
+            typeTrees[type].add(offset, delta);
+            int key = slot * 2 + type;
+            if (key < categoryTrees.length && categoryTrees[key] != null) {
+                categoryTrees[key].add(offset, delta);
+            }
+            return true;
+        }
+    }
+
+    private DailyIndex dailyIndex() {
+        DailyIndex index = dailyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = dailyIndex;
+                if (index == null && size > 0) {
+                    int firstDay = days[0] - INDEX_MARGIN_DAYS;
+                    index = new DailyIndex(firstDay, days[size - 1] - firstDay + 1 + INDEX_MARGIN_DAYS);
+                    dailyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Add (sign 1) or take away (sign -1) the row at index in the daily index, if it is built. A row
+     * outside the days it covers drops it, to be rebuilt over the wider range on the next total.
+     */
+    private void indexRow(int index, int sign) {
+        DailyIndex daily = dailyIndex;
+        if (daily != null && !daily.add(days[index], types[index], categories[index], sign * amounts[index])) {
+            dailyIndex = null;
+        }
+    }
+
+    // ===================== STORAGE =====================
+
+    /**
+     * Index of the first row at or after (day, id)
+     */
+    private int lowerBound(int day, long id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, day, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first row after day
+     */
+    private int upperBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] <= day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int find(int day, long id) {
+        int index = lowerBound(day, id);
+        return index < size && days[index] == day && ids[index] == id ? index : -1;
+    }
+
+    // Updates and deletes only know the ID, and the day may have changed; they are rare enough to scan for
+    private int indexOfId(long id) {
+        Integer day = dayOfId.get(id);
+        return day != null ? find(day, id) : -1;
+    }
+
+    private int compare(int index, int day, long id) {
+        if (days[index] != day) return Integer.compare(days[index], day);
+        return Long.compare(ids[index], id);
+    }
+
+    private void set(int index, long id, int day, long amountCents, int categorySlot, byte type) {
+        ids[index] = id;
+        days[index] = day;
+        amounts[index] = amountCents;
+        categories[index] = categorySlot;
+        types[index] = type;
+    }
+
+    private void move(int from, int to) {
+        set(to, ids[from], days[from], amounts[from], categories[from], types[from]);
+    }
+
+    private void insertAt(int index, long id, int day, long amountCents, int categorySlot, byte type) {
+        ensureCapacity(size + 1);
+        int tail = size - index;
+        System.arraycopy(ids, index, ids, index + 1, tail);
+        System.arraycopy(days, index, days, index + 1, tail);
+        System.arraycopy(amounts, index, amounts, index + 1, tail);
+        System.arraycopy(categories, index, categories, index + 1, tail);
+        System.arraycopy(types, index, types, index + 1, tail);
+        set(index, id, day, amountCents, categorySlot, type);
+        dayOfId.put(id, day);
+        size++;
+        indexRow(index, 1);
+    }
+
+    private void removeAt(int index) {
+        dayOfId.remove(ids[index]);
+        int tail = size - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, tail);
+        System.arraycopy(days, index + 1, days, index, tail);
+        System.arraycopy(amounts, index + 1, amounts, index, tail);
+        System.arraycopy(categories, index + 1, categories, index, tail);
+        System.arraycopy(types, index + 1, types, index, tail);
+        size--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) return;
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        days = Arrays.copyOf(days, grown);
+        amounts = Arrays.copyOf(amounts, grown);
+        categories = Arrays.copyOf(categories, grown);
+        types = Arrays.copyOf(types, grown);
+    }
+
+    private int slotOf(long categoryId) {
+        Integer slot = categorySlots.get(categoryId);
+        if (slot != null) return slot;
+        if (categoryCount == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+        }
+        categoryIds[categoryCount] = categoryId;
+        categorySlots.put(categoryId, categoryCount);
+        return categoryCount++;
+    }
+
+    /**
+     * INCOME or EXPENSE for a type name, -1 for anything else
+     */
+    static byte typeOf(String type) {
+        if ("EXPENSE".equals(type)) return EXPENSE;
+        if ("INCOME".equals(type)) return INCOME;
+        return -1;
+    }
+}
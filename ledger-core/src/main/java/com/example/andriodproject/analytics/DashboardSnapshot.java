@@ -0,0 +1,251 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.Budget;
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Transaction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DashboardSnapshot - Everything the dashboard shows, for every period, as one value that can be
+ * written to a compact binary form and read back, so the last dashboard can be drawn at once on the
+ * next start while a fresh one is computed.
+ */
+public final class DashboardSnapshot {
+
+    // "LDGS", then the format version; data of any other version is rejected, never half-read
+    private static final int MAGIC = 0x4C444753;
+    private static final int FORMAT_VERSION = 2; // 2: category name with every recent transaction
+
+    // Bound on every count read back, so a corrupt file fails with an IOException instead of a huge allocation
+    private static final int MAX_COUNT = 10_000;
+
+    /** One period's summary and its newest transactions, with the names of their categories */
+    public static final class Period {
+        private final PeriodSummary summary;
+        private final List<Transaction> recentTransactions;
+        private final Map<Long, String> categoryNames;
+
+        /**
+         * categoryNames must name the category of every recent transaction, keyed by category ID
+         */
+        public Period(PeriodSummary summary, List<Transaction> recentTransactions, Map<Long, String> categoryNames) {
+            this.summary = summary;
+            this.recentTransactions = recentTransactions;
+            this.categoryNames = categoryNames;
+        }
+
+        public PeriodSummary getSummary() {
+            return summary;
+        }
+
+        public List<Transaction> getRecentTransactions() {
+            return recentTransactions;
+        }
+
+        /**
+         * Names of the recent transactions' categories by category ID, so they can be shown without the database
+         */
+        public Map<Long, String> getCategoryNames() {
+            return categoryNames;
+        }
+    }
+
+    private final String userEmail;
+    private final int today; // Epoch day the periods end on
+    private final Map<String, Period> periods = new LinkedHashMap<>();
+    private final Map<String, Long> monthlyExpenses;
+    private final List<Budget> budgets;
+
+    public DashboardSnapshot(String userEmail, int today, Map<String, Long> monthlyExpenses, List<Budget> budgets) {
+        this.userEmail = userEmail;
+        this.today = today;
+        this.monthlyExpenses = monthlyExpenses;
+        this.budgets = budgets;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public int getToday() {
+        return today;
+    }
+
+    public Period getPeriod(String name) {
+        return periods.get(name);
+    }
+
+    public void putPeriods(Map<String, Period> periods) {
+        this.periods.putAll(periods);
+    }
+
+    public Map<String, Long> getMonthlyExpenses() {
+        return monthlyExpenses;
+    }
+
+    public List<Budget> getBudgets() {
+        return budgets;
+    }
+
+    // ===================== BINARY FORM =====================
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(userEmail);
+        out.writeInt(today);
+
+        out.writeInt(periods.size());
+        for (Map.Entry<String, Period> entry : periods.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeSummary(out, entry.getValue().summary);
+            Period period = entry.getValue();
+            out.writeInt(period.recentTransactions.size());
+            for (Transaction transaction : period.recentTransactions) {
+                writeTransaction(out, transaction);
+                writeNullableString(out, period.categoryNames.get(transaction.getCategoryId()));
+            }
+        }
+
+        out.writeInt(monthlyExpenses.size());
+        for (Map.Entry<String, Long> entry : monthlyExpenses.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+
+        out.writeInt(budgets.size());
+        for (Budget budget : budgets) {
+            writeBudget(out, budget);
+        }
+    }
+
+    /**
+     * Read a snapshot written by write(); IOException if the data is not one, or of another format version
+     */
+    public static DashboardSnapshot read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a dashboard snapshot");
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) throw new IOException("Unsupported snapshot version " + version);
+        String userEmail = in.readUTF();
+        int today = in.readInt();
+
+        Map<String, Period> periods = new LinkedHashMap<>();
+        for (int p = readCount(in); p > 0; p--) {
+            String name = in.readUTF();
+            PeriodSummary summary = readSummary(in);
+            int count = readCount(in);
+            List<Transaction> recent = new ArrayList<>(count);
+            Map<Long, String> categoryNames = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                Transaction transaction = readTransaction(in, userEmail);
+                recent.add(transaction);
+                categoryNames.put(transaction.getCategoryId(), readNullableString(in));
+            }
+            periods.put(name, new Period(summary, recent, categoryNames));
+        }
+
+        int months = readCount(in);
+        Map<String, Long> monthlyExpenses = new HashMap<>();
+        for (int i = 0; i < months; i++) {
+            monthlyExpenses.put(in.readUTF(), in.readLong());
+        }
+
+        int budgetCount = readCount(in);
+        List<Budget> budgets = new ArrayList<>(budgetCount);
+        for (int i = 0; i < budgetCount; i++) {
+            budgets.add(readBudget(in, userEmail));
+        }
+
+        DashboardSnapshot snapshot = new DashboardSnapshot(userEmail, today, monthlyExpenses, budgets);
+        snapshot.putPeriods(periods);
+        return snapshot;
+    }
+
+    private static void writeSummary(DataOutput out, PeriodSummary summary) throws IOException {
+        out.writeInt(summary.getStartDay());
+        out.writeInt(summary.getEndDay());
+        out.writeLong(summary.getIncomeCents());
+        out.writeLong(summary.getExpenseCents());
+        out.writeLong(summary.getPreviousIncomeCents());
+        out.writeLong(summary.getPreviousExpenseCents());
+        List<CategoryTotal> totals = summary.getExpenseTotals();
+        out.writeInt(totals.size());
+        for (CategoryTotal total : totals) {
+            out.writeLong(total.getCategoryId());
+            writeNullableString(out, total.getCategoryName());
+            out.writeLong(total.getTotalCents());
+        }
+    }
+
+    private static PeriodSummary readSummary(DataInput in) throws IOException {
+        int startDay = in.readInt();
+        int endDay = in.readInt();
+        long income = in.readLong();
+        long expense = in.readLong();
+        long previousIncome = in.readLong();
+        long previousExpense = in.readLong();
+        int count = readCount(in);
+        List<CategoryTotal> totals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            totals.add(new CategoryTotal(in.readLong(), readNullableString(in), "EXPENSE", in.readLong()));
+        }
+        return new PeriodSummary(startDay, endDay, income, expense, previousIncome, previousExpense, totals);
+    }
+
+    // The user is the snapshot's, so it is not repeated per row
+    private static void writeTransaction(DataOutput out, Transaction transaction) throws IOException {
+        out.writeLong(transaction.getId());
+        out.writeUTF(transaction.getType());
+        out.writeLong(transaction.getAmountCents());
+        out.writeInt(transaction.getEpochDay());
+        out.writeLong(transaction.getCategoryId());
+        writeNullableString(out, transaction.getDescription());
+    }
+
+    private static Transaction readTransaction(DataInput in, String userEmail) throws IOException {
+        return new Transaction(in.readLong(), userEmail, in.readUTF(), in.readLong(), in.readInt(), in.readLong(),
+                readNullableString(in));
+    }
+
+    private static void writeBudget(DataOutput out, Budget budget) throws IOException {
+        out.writeLong(budget.getId());
+        out.writeLong(budget.getCategoryId());
+        out.writeLong(budget.getBudgetLimitCents());
+        out.writeUTF(budget.getMonth());
+        out.writeBoolean(budget.isAlertEnabled());
+        out.writeDouble(budget.getAlertThreshold());
+        out.writeLong(budget.getSpentCents());
+        writeNullableString(out, budget.getCategoryName());
+    }
+
+    private static Budget readBudget(DataInput in, String userEmail) throws IOException {
+        Budget budget = new Budget(in.readLong(), userEmail, in.readLong(), in.readLong(), in.readUTF(),
+                in.readBoolean(), in.readDouble());
+        budget.setSpentCents(in.readLong());
+        budget.setCategoryName(readNullableString(in));
+        return budget;
+    }
+
+    private static int readCount(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_COUNT) throw new IOException("Corrupt snapshot, count " + count);
+        return count;
+    }
+
+    private static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.andriodproject.analytics;
+
+/**
+ * FenwickTree - Binary indexed tree of long values over slots 0..size-1: point updates and prefix or
+ * range sums in O(log size), without touching the values in between
+ */
+final class FenwickTree {
+
+    private final long[] tree; // 1-based; tree[i] sums the (i & -i) slots ending at slot i-1
+
+    FenwickTree(int size) {
+        tree = new long[size + 1];
+    }
+
+    /**
+     * Tree over initial values, built in O(size)
+     */
+    static FenwickTree of(long[] values) {
+        FenwickTree fenwick = new FenwickTree(values.length);
+        long[] tree = fenwick.tree;
+        System.arraycopy(values, 0, tree, 1, values.length);
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+        return fenwick;
+    }
+
+    int size() {
+        return tree.length - 1;
+    }
+
+    void add(int slot, long delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Sum of slots 0..slot inclusive
+     */
+    long prefixSum(int slot) {
+        long sum = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of slots from..to inclusive
+     */
+    long rangeSum(int from, int to) {
+        return prefixSum(to) - prefixSum(from - 1);
+    }
+}
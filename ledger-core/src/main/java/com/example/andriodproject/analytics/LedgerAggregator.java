@@ -0,0 +1,155 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * LedgerAggregator - One pass over a stream of transactions that sums them by type, by category and by
+ * month, e.g. {@code transactions.forEach(aggregator)}. Rows outside the optional day range are skipped.
+ * Only the sums are kept, so any number of rows can be streamed through it. Not thread-safe.
+ */
+public class LedgerAggregator implements Consumer<Transaction> {
+
+    private static final int INCOME = 0;
+    private static final int EXPENSE = 1;
+
+    private final int startDay;
+    private final int endDay;
+
+    private long count;
+    private final long[] totals = new long[2];
+    // Indexed by INCOME and EXPENSE
+    private final List<Map<Long, long[]>> byCategory = Arrays.asList(new HashMap<>(), new HashMap<>());
+    private final List<Map<String, long[]>> byMonth = Arrays.asList(new HashMap<>(), new HashMap<>());
+
+    // Month of the previous row; rows mostly arrive in day order, so its key is rarely recomputed
+    private int monthFirstDay = 1;
+    private int monthLastDay = 0;
+    private String monthKey;
+
+    /**
+     * Aggregator over every row it is given
+     */
+    public LedgerAggregator() {
+        this(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Aggregator over the rows within an inclusive range of epoch days
+     */
+    public LedgerAggregator(int startDay, int endDay) {
+        this.startDay = startDay;
+        this.endDay = endDay;
+    }
+
+    @Override
+    public void accept(Transaction transaction) {
+        int day = transaction.getEpochDay();
+        if (day < startDay || day > endDay) return;
+        int type = typeIndex(transaction.getType());
+        if (type < 0) return;
+
+        long cents = transaction.getAmountCents();
+        count++;
+        totals[type] += cents;
+
+        long[] categoryTotal = byCategory.get(type).get(transaction.getCategoryId());
+        if (categoryTotal == null) {
+            categoryTotal = new long[1];
+            byCategory.get(type).put(transaction.getCategoryId(), categoryTotal);
+        }
+        categoryTotal[0] += cents;
+
+        String month = monthKeyOf(day);
+        long[] monthTotal = byMonth.get(type).get(month);
+        if (monthTotal == null) {
+            monthTotal = new long[1];
+            byMonth.get(type).put(month, monthTotal);
+        }
+        monthTotal[0] += cents;
+    }
+
+    public LedgerAggregator addAll(Iterable<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            accept(transaction);
+        }
+        return this;
+    }
+
+    /**
+     * Number of rows that were inside the range and of a known type
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getIncomeCents() {
+        return totals[INCOME];
+    }
+
+    public long getExpenseCents() {
+        return totals[EXPENSE];
+    }
+
+    /**
+     * Income minus expenses
+     */
+    public long getBalanceCents() {
+        return totals[INCOME] - totals[EXPENSE];
+    }
+
+    /**
+     * Per-category totals of a type (INCOME or EXPENSE), largest first, named through categoryNames
+     */
+    public List<CategoryTotal> getCategoryTotals(String type, LongFunction<String> categoryNames) {
+        int index = typeIndex(type);
+        List<CategoryTotal> result = new ArrayList<>();
+        if (index < 0) return result;
+        for (Map.Entry<Long, long[]> entry : byCategory.get(index).entrySet()) {
+            long categoryId = entry.getKey();
+            result.add(new CategoryTotal(categoryId, categoryNames.apply(categoryId), type, entry.getValue()[0]));
+        }
+        result.sort((a, b) -> Long.compare(b.getTotalCents(), a.getTotalCents()));
+        return result;
+    }
+
+    /**
+     * Per-month totals of a type keyed yyyy-MM, in month order; months without rows are absent
+     */
+    public Map<String, Long> getMonthlyTotals(String type) {
+        int index = typeIndex(type);
+        Map<String, Long> result = new TreeMap<>();
+        if (index < 0) return result;
+        for (Map.Entry<String, long[]> entry : byMonth.get(index).entrySet()) {
+            result.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return result;
+    }
+
+    private String monthKeyOf(int day) {
+        if (day < monthFirstDay || day > monthLastDay) {
+            YearMonth month = YearMonth.from(LocalDate.ofEpochDay(day));
+            monthFirstDay = (int) month.atDay(1).toEpochDay();
+            monthLastDay = (int) month.atEndOfMonth().toEpochDay();
+            monthKey = month.toString();
+        }
+        return monthKey;
+    }
+
+    private static int typeIndex(String type) {
+        if ("EXPENSE".equals(type)) return EXPENSE;
+        if ("INCOME".equals(type)) return INCOME;
+        return -1;
+    }
+}
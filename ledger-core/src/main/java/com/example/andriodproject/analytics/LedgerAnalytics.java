@@ -0,0 +1,77 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.Budget;
+import com.example.andriodproject.model.CategoryTotal;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LedgerAnalytics - The dashboard's and report's derived figures, computed from totals already loaded:
+ * category shares, the zero-filled monthly trend and budget alert states.
+ */
+public final class LedgerAnalytics {
+
+    private LedgerAnalytics() {
+    }
+
+    /**
+     * Each category's share of the summed totals, in the given order. Categories without a positive
+     * total are left out, as they have no slice to draw.
+     */
+    public static List<CategoryShare> categoryShares(List<CategoryTotal> totals) {
+        long sum = 0;
+        for (CategoryTotal total : totals) {
+            if (total.getTotalCents() > 0) sum += total.getTotalCents();
+        }
+        List<CategoryShare> shares = new ArrayList<>(totals.size());
+        for (CategoryTotal total : totals) {
+            if (total.getTotalCents() > 0) {
+                shares.add(new CategoryShare(total, total.getTotalCents() * 100.0 / sum));
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * The months months ending with lastMonth, oldest first, each with its total from monthlyTotals
+     * (keyed yyyy-MM as by the monthly rollup) or 0 if it has none
+     */
+    public static List<MonthTotal> monthlyTrend(Map<String, Long> monthlyTotals, YearMonth lastMonth, int months) {
+        List<MonthTotal> trend = new ArrayList<>(months);
+        for (int i = months - 1; i >= 0; i--) {
+            YearMonth month = lastMonth.minusMonths(i);
+            Long total = monthlyTotals.get(month.toString());
+            trend.add(new MonthTotal(month, total != null ? total : 0));
+        }
+        return trend;
+    }
+
+    /**
+     * Status of a budget from its whole-percent use, as shown by the budget lists
+     */
+    public static BudgetStatus budgetStatus(Budget budget) {
+        int percent = budget.getPercentUsed();
+        if (percent >= 100) {
+            return BudgetStatus.OVER_LIMIT;
+        } else if (percent >= budget.getAlertThreshold()) {
+            return BudgetStatus.NEAR_LIMIT;
+        }
+        return BudgetStatus.ON_TRACK;
+    }
+
+    /**
+     * Budgets with alerts switched on whose spending has reached their alert threshold
+     */
+    public static List<Budget> budgetAlerts(List<Budget> budgets) {
+        List<Budget> alerts = new ArrayList<>();
+        for (Budget budget : budgets) {
+            if (budget.isAlertEnabled() && budget.isOverAlertThreshold()) {
+                alerts.add(budget);
+            }
+        }
+        return alerts;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.andriodproject.analytics;
+
+import java.time.YearMonth;
+
+/**
+ * MonthTotal - Summed amount of one calendar month, a point of a monthly trend
+ */
+public final class MonthTotal {
+    private final YearMonth month;
+    private final long totalCents;
+
+    public MonthTotal(YearMonth month, long totalCents) {
+        this.month = month;
+        this.totalCents = totalCents;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    @Override
+    public String toString() {
+        return "MonthTotal{" +
+                "month=" + month +
+                ", totalCents=" + totalCents +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.CategoryTotal;
+
+import java.util.List;
+
+/**
+ * PeriodSummary - Income, expense and per-category expense totals of an inclusive range of epoch days,
+ * with the income and expense of the range before it for comparison
+ */
+public final class PeriodSummary {
+    private final int startDay;
+    private final int endDay;
+    private final long incomeCents;
+    private final long expenseCents;
+    private final long previousIncomeCents;
+    private final long previousExpenseCents;
+    private final List<CategoryTotal> expenseTotals; // Largest first
+
+    public PeriodSummary(int startDay, int endDay, long incomeCents, long expenseCents,
+                         long previousIncomeCents, long previousExpenseCents, List<CategoryTotal> expenseTotals) {
+        this.startDay = startDay;
+        this.endDay = endDay;
+        this.incomeCents = incomeCents;
+        this.expenseCents = expenseCents;
+        this.previousIncomeCents = previousIncomeCents;
+        this.previousExpenseCents = previousExpenseCents;
+        this.expenseTotals = expenseTotals;
+    }
+
+    public int getStartDay() {
+        return startDay;
+    }
+
+    public int getEndDay() {
+        return endDay;
+    }
+
+    public long getIncomeCents() {
+        return incomeCents;
+    }
+
+    public long getExpenseCents() {
+        return expenseCents;
+    }
+
+    public long getBalanceCents() {
+        return incomeCents - expenseCents;
+    }
+
+    public long getPreviousIncomeCents() {
+        return previousIncomeCents;
+    }
+
+    public long getPreviousExpenseCents() {
+        return previousExpenseCents;
+    }
+
+    /**
+     * Balance of this period minus the balance of the one before it
+     */
+    public long getBalanceChangeCents() {
+        return getBalanceCents() - (previousIncomeCents - previousExpenseCents);
+    }
+
+    public List<CategoryTotal> getExpenseTotals() {
+        return expenseTotals;
+    }
+
+    @Override
+    public String toString() {
+        return "PeriodSummary{" +
+                "startDay=" + startDay +
+                ", endDay=" + endDay +
+                ", incomeCents=" + incomeCents +
+                ", expenseCents=" + expenseCents +
+                ", previousIncomeCents=" + previousIncomeCents +
+                ", previousExpenseCents=" + previousExpenseCents +
+                '}';
+    }
+}
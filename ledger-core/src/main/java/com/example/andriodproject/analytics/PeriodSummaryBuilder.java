@@ -0,0 +1,112 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * PeriodSummaryBuilder - Summarizes several periods, each with the range before it, from one scan of
+ * the rows between getScanStartDay() and getScanEndDay(). Rows can come from a ColumnarLedger scan or
+ * from transactions loaded by a query; rows outside every range are ignored. Not thread-safe.
+ */
+public class PeriodSummaryBuilder implements ColumnarLedger.RowVisitor {
+
+    private static class Period {
+        final int startDay;
+        final int endDay;
+        final int previousStartDay;
+        final int previousEndDay;
+        final long[] totals = new long[2];
+        final long[] previousTotals = new long[2];
+        final Map<Long, long[]> expenseByCategory = new HashMap<>();
+
+        Period(int startDay, int endDay, int previousStartDay, int previousEndDay) {
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.previousStartDay = previousStartDay;
+            this.previousEndDay = previousEndDay;
+        }
+    }
+
+    private final List<Period> periods = new ArrayList<>();
+    private int scanStartDay = Integer.MAX_VALUE;
+    private int scanEndDay = Integer.MIN_VALUE;
+
+    /**
+     * Add a period and the range it is compared with, both inclusive; returns its index in build()
+     */
+    public int addPeriod(int startDay, int endDay, int previousStartDay, int previousEndDay) {
+        periods.add(new Period(startDay, endDay, previousStartDay, previousEndDay));
+        scanStartDay = Math.min(scanStartDay, Math.min(startDay, previousStartDay));
+        scanEndDay = Math.max(scanEndDay, Math.max(endDay, previousEndDay));
+        return periods.size() - 1;
+    }
+
+    /**
+     * First day any period needs rows of
+     */
+    public int getScanStartDay() {
+        return scanStartDay;
+    }
+
+    /**
+     * Last day any period needs rows of
+     */
+    public int getScanEndDay() {
+        return scanEndDay;
+    }
+
+    @Override
+    public void visit(int day, byte type, long amountCents, long categoryId) {
+        for (int i = 0; i < periods.size(); i++) {
+            Period period = periods.get(i);
+            if (day >= period.startDay && day <= period.endDay) {
+                period.totals[type] += amountCents;
+                if (type == ColumnarLedger.EXPENSE) {
+                    long[] total = period.expenseByCategory.get(categoryId);
+                    if (total == null) {
+                        total = new long[1];
+                        period.expenseByCategory.put(categoryId, total);
+                    }
+                    total[0] += amountCents;
+                }
+            }
+            if (day >= period.previousStartDay && day <= period.previousEndDay) {
+                period.previousTotals[type] += amountCents;
+            }
+        }
+    }
+
+    public void accept(Transaction transaction) {
+        byte type = ColumnarLedger.typeOf(transaction.getType());
+        if (type >= 0) {
+            visit(transaction.getEpochDay(), type, transaction.getAmountCents(), transaction.getCategoryId());
+        }
+    }
+
+    /**
+     * Summaries in the order the periods were added, category totals named through categoryNames
+     */
+    public List<PeriodSummary> build(LongFunction<String> categoryNames) {
+        List<PeriodSummary> summaries = new ArrayList<>(periods.size());
+        for (Period period : periods) {
+            List<CategoryTotal> expenseTotals = new ArrayList<>(period.expenseByCategory.size());
+            for (Map.Entry<Long, long[]> entry : period.expenseByCategory.entrySet()) {
+                long categoryId = entry.getKey();
+                expenseTotals.add(new CategoryTotal(categoryId, categoryNames.apply(categoryId), "EXPENSE",
+                        entry.getValue()[0]));
+            }
+            expenseTotals.sort((a, b) -> Long.compare(b.getTotalCents(), a.getTotalCents()));
+            summaries.add(new PeriodSummary(period.startDay, period.endDay,
+                    period.totals[ColumnarLedger.INCOME], period.totals[ColumnarLedger.EXPENSE],
+                    period.previousTotals[ColumnarLedger.INCOME], period.previousTotals[ColumnarLedger.EXPENSE],
+                    expenseTotals));
+        }
+        return summaries;
+    }
+}
@@ -8,11 +8,15 @@ public class Budget {
     private long id;
     private String userEmail; // Foreign key to User
     private long categoryId; // Foreign key to Category
-    private double budgetLimit;
+    private long budgetLimitCents; // Exact limit in minor units, see Money
     private String month; // Format: yyyy-MM
     private boolean alertEnabled;
     private double alertThreshold; // Percentage (e.g., 50 for 50%)
 
+    // Filled in by DataBaseHelper.getBudgetsWithSpending, not stored in the BUDGET table
+    private long spentCents;
+    private String categoryName;
+
     // Empty constructor
     public Budget() {
         this.alertEnabled = true;
@@ -20,23 +24,23 @@ public class Budget {
     }
 
     // Constructor with all fields
-    public Budget(long id, String userEmail, long categoryId, double budgetLimit, 
+    public Budget(long id, String userEmail, long categoryId, long budgetLimitCents, 
                   String month, boolean alertEnabled, double alertThreshold) {
         this.id = id;
         this.userEmail = userEmail;
         this.categoryId = categoryId;
-        this.budgetLimit = budgetLimit;
+        this.budgetLimitCents = budgetLimitCents;
         this.month = month;
         this.alertEnabled = alertEnabled;
         this.alertThreshold = alertThreshold;
     }
 
     // Constructor without id (for inserting new budgets)
-    public Budget(String userEmail, long categoryId, double budgetLimit, 
+    public Budget(String userEmail, long categoryId, long budgetLimitCents, 
                   String month, boolean alertEnabled, double alertThreshold) {
         this.userEmail = userEmail;
         this.categoryId = categoryId;
-        this.budgetLimit = budgetLimit;
+        this.budgetLimitCents = budgetLimitCents;
         this.month = month;
         this.alertEnabled = alertEnabled;
         this.alertThreshold = alertThreshold;
@@ -67,12 +71,12 @@ public class Budget {
         this.categoryId = categoryId;
     }
 
-    public double getBudgetLimit() {
-        return budgetLimit;
+    public long getBudgetLimitCents() {
+        return budgetLimitCents;
     }
 
-    public void setBudgetLimit(double budgetLimit) {
-        this.budgetLimit = budgetLimit;
+    public void setBudgetLimitCents(long budgetLimitCents) {
+        this.budgetLimitCents = budgetLimitCents;
     }
 
     public String getMonth() {
@@ -99,13 +103,43 @@ public class Budget {
         this.alertThreshold = alertThreshold;
     }
 
+    public long getSpentCents() {
+        return spentCents;
+    }
+
+    public void setSpentCents(long spentCents) {
+        this.spentCents = spentCents;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    /**
+     * Spent share of the limit in whole percent, 0 when there is no limit
+     */
+    public int getPercentUsed() {
+        return budgetLimitCents > 0 ? (int) (spentCents * 100 / budgetLimitCents) : 0;
+    }
+
+    /**
+     * Whether spending has reached the alert threshold, compared in integer cents
+     */
+    public boolean isOverAlertThreshold() {
+        return spentCents * 100 >= budgetLimitCents * alertThreshold;
+    }
+
     @Override
     public String toString() {
         return "Budget{" +
                 "id=" + id +
                 ", userEmail='" + userEmail + '\'' +
                 ", categoryId=" + categoryId +
-                ", budgetLimit=" + budgetLimit +
+                ", budgetLimitCents=" + budgetLimitCents +
                 ", month='" + month + '\'' +
                 ", alertEnabled=" + alertEnabled +
                 ", alertThreshold=" + alertThreshold +
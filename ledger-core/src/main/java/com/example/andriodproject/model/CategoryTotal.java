@@ -0,0 +1,67 @@
+package com.example.andriodproject.model;
+
+/**
+ * CategoryTotal model class holding the summed amount of one category over a period.
+ * Built by grouped queries for charts and reports, it is not stored in its own table.
+ */
+public class CategoryTotal {
+    private long categoryId; // Foreign key to Category
+    private String categoryName;
+    private String type; // "INCOME" or "EXPENSE"
+    private long totalCents; // Exact sum in minor units, see Money
+
+    // Empty constructor
+    public CategoryTotal() {
+    }
+
+    // Constructor with all fields
+    public CategoryTotal(long categoryId, String categoryName, String type, long totalCents) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.type = type;
+        this.totalCents = totalCents;
+    }
+
+    // Getters and Setters
+    public long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryTotal{" +
+                "categoryId=" + categoryId +
+                ", categoryName='" + categoryName + '\'' +
+                ", type='" + type + '\'' +
+                ", totalCents=" + totalCents +
+                '}';
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.andriodproject.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money value class holding an exact amount as a count of minor units (cents).
+ * Amounts are stored, summed and compared as longs; only text input, formatting
+ * and chart drawing ever convert them to decimals.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int MINOR_UNITS_PER_MAJOR = 100;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Parse user input such as "12", "12.5" or "12.345" into cents, rounding half up to the cent
+     * @throws NumberFormatException if the text is not a plain decimal number
+     */
+    public static long parseCents(String text) {
+        try {
+            return new BigDecimal(text.trim())
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .movePointRight(2)
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    public static Money parse(String text) {
+        return ofCents(parseCents(text));
+    }
+
+    /**
+     * Format cents as US currency, e.g. 123456 -> "$1,234.56" and -500 -> "-$5.00".
+     * Matches NumberFormat.getCurrencyInstance(Locale.US) without going through doubles.
+     */
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        if (cents < 0) sb.append('-');
+        sb.append('$');
+        appendMajorMinor(sb, cents, true);
+        return sb.toString();
+    }
+
+    /**
+     * Plain decimal text for input fields, e.g. 1250 -> "12.50"
+     */
+    public static String toPlainString(long cents) {
+        StringBuilder sb = new StringBuilder(16);
+        if (cents < 0) sb.append('-');
+        appendMajorMinor(sb, cents, false);
+        return sb.toString();
+    }
+
+    /**
+     * Decimal value in major units; only for drawing charts, never for arithmetic
+     */
+    public static double toMajorUnits(long cents) {
+        return cents / (double) MINOR_UNITS_PER_MAJOR;
+    }
+
+    private static void appendMajorMinor(StringBuilder sb, long cents, boolean grouping) {
+        // Work on the negative magnitude so Long.MIN_VALUE does not overflow
+        long negative = cents > 0 ? -cents : cents;
+        String major = Long.toString(-(negative / MINOR_UNITS_PER_MAJOR));
+        int minor = (int) -(negative % MINOR_UNITS_PER_MAJOR);
+
+        int firstGroup = major.length() % 3;
+        for (int i = 0; i < major.length(); i++) {
+            if (grouping && i > 0 && (i - firstGroup) % 3 == 0) sb.append(',');
+            sb.append(major.charAt(i));
+        }
+        sb.append('.');
+        if (minor < 10) sb.append('0');
+        sb.append(minor);
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public String format() {
+        return format(cents);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        return cents == ((Money) o).cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString(cents);
+    }
+}
@@ -8,8 +8,8 @@ public class Transaction {
     private long id;
     private String userEmail; // Foreign key to User
     private String type; // "INCOME" or "EXPENSE"
-    private double amount;
-    private String date; // Format: yyyy-MM-dd
+    private long amountCents; // Exact amount in minor units, see Money
+    private int epochDay; // Days since 1970-01-01, see DateUtils
     private long categoryId; // Foreign key to Category
     private String description;
 
@@ -18,24 +18,24 @@ public class Transaction {
     }
 
     // Constructor with all fields
-    public Transaction(long id, String userEmail, String type, double amount, 
-                       String date, long categoryId, String description) {
+    public Transaction(long id, String userEmail, String type, long amountCents, 
+                       int epochDay, long categoryId, String description) {
         this.id = id;
         this.userEmail = userEmail;
         this.type = type;
-        this.amount = amount;
-        this.date = date;
+        this.amountCents = amountCents;
+        this.epochDay = epochDay;
         this.categoryId = categoryId;
         this.description = description;
     }
 
     // Constructor without id (for inserting new transactions)
-    public Transaction(String userEmail, String type, double amount, 
-                       String date, long categoryId, String description) {
+    public Transaction(String userEmail, String type, long amountCents, 
+                       int epochDay, long categoryId, String description) {
         this.userEmail = userEmail;
         this.type = type;
-        this.amount = amount;
-        this.date = date;
+        this.amountCents = amountCents;
+        this.epochDay = epochDay;
         this.categoryId = categoryId;
         this.description = description;
     }
@@ -65,20 +65,20 @@ public class Transaction {
         this.type = type;
     }
 
-    public double getAmount() {
-        return amount;
+    public long getAmountCents() {
+        return amountCents;
     }
 
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 
-    public String getDate() {
-        return date;
+    public int getEpochDay() {
+        return epochDay;
     }
 
-    public void setDate(String date) {
-        this.date = date;
+    public void setEpochDay(int epochDay) {
+        this.epochDay = epochDay;
     }
 
     public long getCategoryId() {
@@ -103,8 +103,8 @@ public class Transaction {
                 "id=" + id +
                 ", userEmail='" + userEmail + '\'' +
                 ", type='" + type + '\'' +
-                ", amount=" + amount +
-                ", date='" + date + '\'' +
+                ", amountCents=" + amountCents +
+                ", epochDay=" + epochDay +
                 ", categoryId=" + categoryId +
                 ", description='" + description + '\'' +
                 '}';
@@ -0,0 +1,45 @@
+package com.example.andriodproject.model;
+
+/**
+ * TransactionSummary model class holding the count and summed amount of a set of transactions.
+ * Read from aggregate queries so list headers never need the rows themselves.
+ */
+public class TransactionSummary {
+    private int count;
+    private long totalCents; // Exact sum in minor units, see Money
+
+    // Empty constructor
+    public TransactionSummary() {
+    }
+
+    // Constructor with all fields
+    public TransactionSummary(int count, long totalCents) {
+        this.count = count;
+        this.totalCents = totalCents;
+    }
+
+    // Getters and Setters
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionSummary{" +
+                "count=" + count +
+                ", totalCents=" + totalCents +
+                '}';
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Transaction;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ColumnarLedger must agree with a plain LedgerAggregator pass over the same rows, on both the
+ * sequential and the fork-join path, and stay consistent as rows change
+ */
+public class ColumnarLedgerTest {
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2024, 1, 1).toEpochDay();
+    private static final int DAYS = 2 * 366;
+
+    @Test
+    public void matchesAggregatorOnSmallAndLargeRanges() {
+        List<Transaction> rows = randomRows(new Random(3), 3 * ColumnarLedger.PARALLEL_THRESHOLD);
+        ColumnarLedger ledger = new ColumnarLedger();
+        ledger.addAll(shuffled(rows));
+
+        assertEquals(rows.size(), ledger.size());
+        assertMatches(rows, ledger, FIRST_DAY + 40, FIRST_DAY + 70); // Sequential
+        assertMatches(rows, ledger, FIRST_DAY, FIRST_DAY + DAYS); // Forked
+    }
+
+    @Test
+    public void monthlyTotalsMatchAggregator() {
+        List<Transaction> rows = randomRows(new Random(5), 20000);
+        ColumnarLedger ledger = new ColumnarLedger();
+        ledger.addAll(rows);
+
+        Map<String, Long> expected = new LedgerAggregator().addAll(rows).getMonthlyTotals("EXPENSE");
+        Map<String, Long> actual = ledger.getMonthlyTotals("EXPENSE", YearMonth.of(2023, 11), YearMonth.of(2026, 2));
+        assertEquals(expected, new TreeMap<>(actual));
+    }
+
+    @Test
+    public void rowChangesAreApplied() {
+        List<Transaction> rows = new ArrayList<>(Arrays.asList(
+                row(1, "EXPENSE", 1000, FIRST_DAY, 7),
+                row(2, "EXPENSE", 2000, FIRST_DAY + 1, 7),
+                row(3, "INCOME", 9000, FIRST_DAY + 2, 8),
+                row(4, "EXPENSE", 500, FIRST_DAY + 3, 9)));
+        ColumnarLedger ledger = new ColumnarLedger();
+        ledger.addAll(rows);
+
+        // Already held: adding again changes nothing
+        assertEquals(0, ledger.addAll(Collections.singletonList(rows.get(1))));
+        assertEquals(3500, ledger.getTotal("EXPENSE", FIRST_DAY, FIRST_DAY + 3));
+
+        // Move row 1 to a later day, past row 4
+        assertTrue(ledger.update(row(1, "EXPENSE", 1500, FIRST_DAY + 10, 7)));
+        assertEquals(2500, ledger.getTotal("EXPENSE", FIRST_DAY, FIRST_DAY + 3));
+        assertEquals(1500, ledger.getTotal("EXPENSE", FIRST_DAY + 10, FIRST_DAY + 10));
+        assertFalse(ledger.update(row(99, "EXPENSE", 1, FIRST_DAY, 7)));
+
+        assertEquals(2, ledger.recategorize(Arrays.asList(2L, 4L), 9));
+        List<CategoryTotal> totals = ledger.getCategoryTotals("EXPENSE", FIRST_DAY, FIRST_DAY + 10, id -> "c" + id);
+        assertEquals(2, totals.size());
+        assertEquals(9, totals.get(0).getCategoryId());
+        assertEquals(2500, totals.get(0).getTotalCents());
+
+        assertEquals(1, ledger.removeAll(Collections.singletonList(4L)));
+        assertEquals(1, ledger.removeAll(Arrays.asList(2L, 4L, 99L)));
+        assertEquals(2, ledger.size());
+        assertEquals(1500, ledger.getTotal("EXPENSE", FIRST_DAY, FIRST_DAY + DAYS));
+        assertEquals(9000, ledger.getTotal("INCOME", FIRST_DAY, FIRST_DAY + DAYS));
+    }
+
+    @Test
+    public void dailyIndexFollowsRowChanges() {
+        List<Transaction> rows = randomRows(new Random(9), 5000);
+        ColumnarLedger ledger = new ColumnarLedger();
+        ledger.addAll(rows);
+        int midDay = FIRST_DAY + DAYS / 2;
+        assertIndexMatches(rows, ledger, midDay); // Builds the index
+
+        // Changes after the index is built, including a row far outside the days it covers
+        List<Transaction> changed = new ArrayList<>(rows);
+        Transaction moved = row(1, rows.get(0).getType(), 777, FIRST_DAY + 5, 4);
+        ledger.update(moved);
+        changed.set(0, moved);
+        ledger.removeAll(Arrays.asList(2L, 3L));
+        changed.remove(2);
+        changed.remove(1);
+        ledger.recategorize(Collections.singletonList(4L), 11);
+        changed.set(1, row(4, changed.get(1).getType(), changed.get(1).getAmountCents(),
+                changed.get(1).getEpochDay(), 11));
+        Transaction late = row(100000, "INCOME", 12345, FIRST_DAY + 10 * DAYS, 1);
+        ledger.addAll(Collections.singletonList(late));
+        changed.add(late);
+
+        assertIndexMatches(changed, ledger, midDay);
+        assertIndexMatches(changed, ledger, FIRST_DAY + 10 * DAYS);
+    }
+
+    private static void assertIndexMatches(List<Transaction> rows, ColumnarLedger ledger, int asOfDay) {
+        long balance = 0;
+        long categoryTotal = 0;
+        for (Transaction transaction : rows) {
+            if (transaction.getEpochDay() <= asOfDay) {
+                balance += "INCOME".equals(transaction.getType()) ? transaction.getAmountCents()
+                        : -transaction.getAmountCents();
+                if (transaction.getCategoryId() == 4 && "EXPENSE".equals(transaction.getType())) {
+                    categoryTotal += transaction.getAmountCents();
+                }
+            }
+        }
+        assertEquals(balance, ledger.getBalanceAsOf(asOfDay));
+        assertEquals(categoryTotal, ledger.getCategoryTotal(4, "EXPENSE", Integer.MIN_VALUE, asOfDay));
+    }
+
+    @Test
+    public void rowsAddedOneByOneMatchBatch() {
+        List<Transaction> rows = randomRows(new Random(11), 5000);
+        List<Transaction> sorted = new ArrayList<>(rows);
+        sorted.sort((x, y) -> x.getEpochDay() != y.getEpochDay()
+                ? Integer.compare(x.getEpochDay(), y.getEpochDay()) : Long.compare(x.getId(), y.getId()));
+
+        // In (day, ID) order as a cursor delivers them, then again out of order: repeats are skipped
+        ColumnarLedger ledger = new ColumnarLedger();
+        for (Transaction transaction : sorted) {
+            assertTrue(ledger.add(transaction.getId(), transaction.getEpochDay(), transaction.getType(),
+                    transaction.getAmountCents(), transaction.getCategoryId()));
+        }
+        for (Transaction transaction : shuffled(rows)) {
+            assertFalse(ledger.add(transaction.getId(), transaction.getEpochDay(), transaction.getType(),
+                    transaction.getAmountCents(), transaction.getCategoryId()));
+        }
+        assertEquals(rows.size(), ledger.size());
+        assertMatches(rows, ledger, FIRST_DAY + 40, FIRST_DAY + 70);
+        assertMatches(rows, ledger, FIRST_DAY, FIRST_DAY + DAYS);
+    }
+
+    @Test
+    public void repeatedIdInOneBatchIsAddedOnce() {
+        ColumnarLedger ledger = new ColumnarLedger();
+        assertEquals(1, ledger.addAll(Arrays.asList(
+                row(1, "EXPENSE", 1000, FIRST_DAY, 7),
+                row(1, "EXPENSE", 1000, FIRST_DAY, 7))));
+        assertEquals(1, ledger.size());
+        assertEquals(1000, ledger.getTotal("EXPENSE", FIRST_DAY, FIRST_DAY));
+    }
+
+    @Test
+    public void replayedInsertOfAMovedRowIsSkipped() {
+        // The load read row 7 at its new day; the insert and the move queued meanwhile are then replayed
+        ColumnarLedger ledger = new ColumnarLedger();
+        assertTrue(ledger.add(7, FIRST_DAY + 100, "EXPENSE", 1000, 3));
+        assertEquals(0, ledger.addAll(Collections.singletonList(row(7, "EXPENSE", 1000, FIRST_DAY, 3))));
+        assertFalse(ledger.add(7, FIRST_DAY, "EXPENSE", 1000, 3));
+        assertTrue(ledger.update(row(7, "EXPENSE", 1000, FIRST_DAY + 100, 3)));
+
+        assertEquals(1, ledger.size());
+        assertEquals(1000, ledger.getTotal("EXPENSE", FIRST_DAY, FIRST_DAY + 100));
+        assertEquals(0, ledger.getTotal("EXPENSE", FIRST_DAY, FIRST_DAY));
+        assertEquals(1, ledger.removeAll(Collections.singletonList(7L)));
+        assertEquals(0, ledger.size());
+    }
+
+    private static void assertMatches(List<Transaction> rows, ColumnarLedger ledger, int startDay, int endDay) {
+        LedgerAggregator aggregator = new LedgerAggregator(startDay, endDay).addAll(rows);
+        assertEquals(aggregator.getIncomeCents(), ledger.getTotal("INCOME", startDay, endDay));
+        assertEquals(aggregator.getExpenseCents(), ledger.getTotal("EXPENSE", startDay, endDay));
+
+        List<CategoryTotal> expected = aggregator.getCategoryTotals("EXPENSE", id -> "c" + id);
+        List<CategoryTotal> actual = ledger.getCategoryTotals("EXPENSE", startDay, endDay, id -> "c" + id);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTotalCents(), actual.get(i).getTotalCents());
+        }
+    }
+
+    private static List<Transaction> randomRows(Random random, int count) {
+        List<Transaction> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(row(i + 1, random.nextInt(10) == 0 ? "INCOME" : "EXPENSE", 1 + random.nextInt(50000),
+                    FIRST_DAY + random.nextInt(DAYS), 1 + random.nextInt(12)));
+        }
+        return rows;
+    }
+
+    private static List<Transaction> shuffled(List<Transaction> rows) {
+        List<Transaction> copy = new ArrayList<>(rows);
+        Collections.shuffle(copy, new Random(1));
+        return copy;
+    }
+
+    private static Transaction row(long id, String type, long cents, int day, long categoryId) {
+        return new Transaction(id, "a@example.com", type, cents, day, categoryId, null);
+    }
+}
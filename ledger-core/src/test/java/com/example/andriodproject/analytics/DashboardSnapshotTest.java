@@ -0,0 +1,133 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.Budget;
+import com.example.andriodproject.model.Transaction;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * A snapshot must read back exactly as written, and anything else must be rejected rather than half-read
+ */
+public class DashboardSnapshotTest {
+
+    private static final String USER = "a@example.com";
+    private static final int TODAY = (int) LocalDate.of(2025, 3, 4).toEpochDay();
+
+    @Test
+    public void roundTrip() throws IOException {
+        List<Transaction> rows = Arrays.asList(
+                new Transaction(1, USER, "INCOME", 250000, TODAY - 3, 1, "Salary"),
+                new Transaction(2, USER, "EXPENSE", 1250, TODAY - 1, 2, null),
+                new Transaction(3, USER, "EXPENSE", 4999, TODAY, 3, "Groceries"));
+        PeriodSummaryBuilder builder = new PeriodSummaryBuilder();
+        builder.addPeriod(TODAY - 6, TODAY, TODAY - 13, TODAY - 7);
+        rows.forEach(builder::accept);
+        PeriodSummary summary = builder.build(id -> id == 2 ? null : "c" + id).get(0);
+
+        Map<String, Long> monthly = new HashMap<>();
+        monthly.put("2025-02", 81000L);
+        monthly.put("2025-03", 6249L);
+        Budget budget = new Budget(7, USER, 3, 30000, "2025-03", true, 0.8);
+        budget.setSpentCents(4999);
+        budget.setCategoryName("Food");
+
+        Map<Long, String> categoryNames = new HashMap<>();
+        categoryNames.put(2L, null);
+        categoryNames.put(3L, "Food");
+
+        DashboardSnapshot written = new DashboardSnapshot(USER, TODAY, monthly, Collections.singletonList(budget));
+        written.putPeriods(Collections.singletonMap("weekly",
+                new DashboardSnapshot.Period(summary, Arrays.asList(rows.get(2), rows.get(1)), categoryNames)));
+
+        DashboardSnapshot read = DashboardSnapshot.read(new DataInputStream(new ByteArrayInputStream(bytes(written))));
+        assertEquals(USER, read.getUserEmail());
+        assertEquals(TODAY, read.getToday());
+        assertNull(read.getPeriod("daily"));
+        assertEquals(monthly, read.getMonthlyExpenses());
+
+        PeriodSummary readSummary = read.getPeriod("weekly").getSummary();
+        assertEquals(summary.getStartDay(), readSummary.getStartDay());
+        assertEquals(summary.getEndDay(), readSummary.getEndDay());
+        assertEquals(summary.getIncomeCents(), readSummary.getIncomeCents());
+        assertEquals(summary.getExpenseCents(), readSummary.getExpenseCents());
+        assertEquals(summary.getPreviousIncomeCents(), readSummary.getPreviousIncomeCents());
+        assertEquals(summary.getPreviousExpenseCents(), readSummary.getPreviousExpenseCents());
+        assertEquals(summary.getExpenseTotals().size(), readSummary.getExpenseTotals().size());
+        for (int i = 0; i < summary.getExpenseTotals().size(); i++) {
+            assertEquals(summary.getExpenseTotals().get(i).getCategoryId(),
+                    readSummary.getExpenseTotals().get(i).getCategoryId());
+            assertEquals(summary.getExpenseTotals().get(i).getCategoryName(),
+                    readSummary.getExpenseTotals().get(i).getCategoryName());
+            assertEquals(summary.getExpenseTotals().get(i).getTotalCents(),
+                    readSummary.getExpenseTotals().get(i).getTotalCents());
+        }
+
+        List<Transaction> recent = read.getPeriod("weekly").getRecentTransactions();
+        assertEquals(2, recent.size());
+        assertEquals(rows.get(2).toString(), recent.get(0).toString());
+        assertEquals(rows.get(1).toString(), recent.get(1).toString());
+        assertEquals(categoryNames, read.getPeriod("weekly").getCategoryNames());
+
+        Budget readBudget = read.getBudgets().get(0);
+        assertEquals(budget.getId(), readBudget.getId());
+        assertEquals(USER, readBudget.getUserEmail());
+        assertEquals(budget.getCategoryId(), readBudget.getCategoryId());
+        assertEquals(budget.getBudgetLimitCents(), readBudget.getBudgetLimitCents());
+        assertEquals(budget.getMonth(), readBudget.getMonth());
+        assertEquals(budget.isAlertEnabled(), readBudget.isAlertEnabled());
+        assertEquals(budget.getAlertThreshold(), readBudget.getAlertThreshold(), 0);
+        assertEquals(budget.getSpentCents(), readBudget.getSpentCents());
+        assertEquals(budget.getCategoryName(), readBudget.getCategoryName());
+    }
+
+    @Test
+    public void rejectsOtherData() throws IOException {
+        DashboardSnapshot snapshot = new DashboardSnapshot(USER, TODAY, new HashMap<>(), Collections.emptyList());
+        byte[] data = bytes(snapshot);
+
+        byte[] otherVersion = data.clone();
+        otherVersion[7]++;
+        byte[] notSnapshot = data.clone();
+        notSnapshot[0]++;
+        byte[] truncated = Arrays.copyOf(data, data.length - 1);
+        // The period count follows the magic, the version, the user and the day
+        int periodCountAt = 4 + 4 + 2 + USER.length() + 4;
+        byte[] negativeCount = data.clone();
+        negativeCount[periodCountAt] = (byte) 0xFF;
+        byte[] hugeCount = data.clone();
+        hugeCount[periodCountAt] = 0x7F;
+
+        for (byte[] bad : new byte[][]{otherVersion, notSnapshot, truncated, negativeCount, hugeCount}) {
+            try {
+                DashboardSnapshot.read(new DataInputStream(new ByteArrayInputStream(bad)));
+                fail("Read data that is not a current snapshot");
+            } catch (IOException expected) {
+                // Discarded by the caller
+            }
+        }
+    }
+
+    private static byte[] bytes(DashboardSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        snapshot.write(out);
+        out.flush();
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.andriodproject.analytics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class FenwickTreeTest {
+
+    @Test
+    public void rangeSumsMatchNaiveSums() {
+        Random random = new Random(11);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(10000);
+        }
+        FenwickTree tree = FenwickTree.of(values);
+
+        for (int n = 0; n < 500; n++) {
+            int slot = random.nextInt(values.length);
+            long delta = random.nextInt(2000) - 1000;
+            values[slot] += delta;
+            tree.add(slot, delta);
+
+            int from = random.nextInt(values.length);
+            int to = from + random.nextInt(values.length - from);
+            long expected = 0;
+            for (int i = from; i <= to; i++) {
+                expected += values[i];
+            }
+            assertEquals(expected, tree.rangeSum(from, to));
+        }
+    }
+
+    @Test
+    public void builtTreeMatchesAddedTree() {
+        long[] values = {5, 0, 3, 9, 1, 7, 2};
+        FenwickTree built = FenwickTree.of(values);
+        FenwickTree added = new FenwickTree(values.length);
+        for (int i = 0; i < values.length; i++) {
+            added.add(i, values[i]);
+        }
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(added.prefixSum(i), built.prefixSum(i));
+        }
+        assertEquals(0, built.prefixSum(-1));
+    }
+}
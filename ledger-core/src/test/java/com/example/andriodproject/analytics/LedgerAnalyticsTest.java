@@ -0,0 +1,106 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.Budget;
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Transaction;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class LedgerAnalyticsTest {
+
+    private static final int JAN_31 = (int) LocalDate.of(2025, 1, 31).toEpochDay();
+    private static final int FEB_1 = (int) LocalDate.of(2025, 2, 1).toEpochDay();
+    private static final int FEB_10 = (int) LocalDate.of(2025, 2, 10).toEpochDay();
+
+    @Test
+    public void aggregatorSumsByTypeCategoryAndMonth() {
+        List<Transaction> ledger = Arrays.asList(
+                transaction("INCOME", 100000, JAN_31, 1),
+                transaction("EXPENSE", 2500, JAN_31, 2),
+                transaction("EXPENSE", 1500, FEB_1, 2),
+                transaction("EXPENSE", 7000, FEB_10, 3),
+                transaction("TRANSFER", 999, FEB_10, 3));
+
+        LedgerAggregator aggregator = new LedgerAggregator().addAll(ledger);
+
+        assertEquals(4, aggregator.getCount());
+        assertEquals(100000, aggregator.getIncomeCents());
+        assertEquals(11000, aggregator.getExpenseCents());
+        assertEquals(89000, aggregator.getBalanceCents());
+
+        List<CategoryTotal> totals = aggregator.getCategoryTotals("EXPENSE", id -> "c" + id);
+        assertEquals(2, totals.size());
+        assertEquals(3, totals.get(0).getCategoryId());
+        assertEquals(7000, totals.get(0).getTotalCents());
+        assertEquals("c2", totals.get(1).getCategoryName());
+        assertEquals(4000, totals.get(1).getTotalCents());
+
+        Map<String, Long> monthly = aggregator.getMonthlyTotals("EXPENSE");
+        assertEquals(Long.valueOf(2500), monthly.get("2025-01"));
+        assertEquals(Long.valueOf(8500), monthly.get("2025-02"));
+    }
+
+    @Test
+    public void aggregatorSkipsRowsOutsideRange() {
+        LedgerAggregator aggregator = new LedgerAggregator(FEB_1, FEB_10);
+        aggregator.accept(transaction("EXPENSE", 2500, JAN_31, 2));
+        aggregator.accept(transaction("EXPENSE", 1500, FEB_1, 2));
+        aggregator.accept(transaction("EXPENSE", 7000, FEB_10 + 1, 3));
+
+        assertEquals(1, aggregator.getCount());
+        assertEquals(1500, aggregator.getExpenseCents());
+    }
+
+    @Test
+    public void sharesSkipEmptyCategories() {
+        List<CategoryShare> shares = LedgerAnalytics.categoryShares(Arrays.asList(
+                new CategoryTotal(1, "Food", "EXPENSE", 7500),
+                new CategoryTotal(2, "Rent", "EXPENSE", 0),
+                new CategoryTotal(3, "Fun", "EXPENSE", 2500)));
+
+        assertEquals(2, shares.size());
+        assertEquals(75.0, shares.get(0).getPercent(), 1e-9);
+        assertEquals(25.0, shares.get(1).getPercent(), 1e-9);
+    }
+
+    @Test
+    public void trendIsZeroFilledOldestFirst() {
+        Map<String, Long> monthly = new HashMap<>();
+        monthly.put("2024-11", 500L);
+        monthly.put("2025-01", 900L);
+
+        List<MonthTotal> trend = LedgerAnalytics.monthlyTrend(monthly, YearMonth.of(2025, 1), 3);
+
+        assertEquals(YearMonth.of(2024, 11), trend.get(0).getMonth());
+        assertEquals(500, trend.get(0).getTotalCents());
+        assertEquals(0, trend.get(1).getTotalCents());
+        assertEquals(900, trend.get(2).getTotalCents());
+    }
+
+    @Test
+    public void budgetStatusFollowsPercentUsed() {
+        assertEquals(BudgetStatus.ON_TRACK, LedgerAnalytics.budgetStatus(budget(10000, 7900)));
+        assertEquals(BudgetStatus.NEAR_LIMIT, LedgerAnalytics.budgetStatus(budget(10000, 8000)));
+        assertEquals(BudgetStatus.OVER_LIMIT, LedgerAnalytics.budgetStatus(budget(10000, 10000)));
+        assertEquals(1, LedgerAnalytics.budgetAlerts(Arrays.asList(budget(10000, 7900), budget(10000, 8000))).size());
+    }
+
+    private static Transaction transaction(String type, long cents, int day, long categoryId) {
+        return new Transaction("a@example.com", type, cents, day, categoryId, null);
+    }
+
+    private static Budget budget(long limitCents, long spentCents) {
+        Budget budget = new Budget("a@example.com", 1, limitCents, "2025-01", true, 80);
+        budget.setSpentCents(spentCents);
+        return budget;
+    }
+}
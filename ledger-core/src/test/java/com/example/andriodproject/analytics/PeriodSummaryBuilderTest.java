@@ -0,0 +1,72 @@
+package com.example.andriodproject.analytics;
+
+import com.example.andriodproject.model.CategoryTotal;
+import com.example.andriodproject.model.Transaction;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * One scan must give every period the same figures as summing each range on its own, or as reading it
+ * from the ledger's daily index
+ */
+public class PeriodSummaryBuilderTest {
+
+    private static final int TODAY = (int) LocalDate.of(2025, 3, 4).toEpochDay();
+
+    @Test
+    public void overlappingPeriodsFromOneScan() {
+        Random random = new Random(17);
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            rows.add(new Transaction(i + 1, "a@example.com", random.nextInt(4) == 0 ? "INCOME" : "EXPENSE",
+                    1 + random.nextInt(9000), TODAY - random.nextInt(120), 1 + random.nextInt(6), null));
+        }
+        ColumnarLedger ledger = new ColumnarLedger();
+        ledger.addAll(rows);
+
+        int[][] ranges = {
+                {TODAY, TODAY, TODAY - 1, TODAY - 1},
+                {TODAY - 6, TODAY, TODAY - 13, TODAY - 7},
+                {TODAY - 3, TODAY, TODAY - 31, TODAY - 28},
+                {TODAY - 90, TODAY - 40, TODAY - 141, TODAY - 91}};
+
+        // Same figures whether the rows come from the ledger or from transactions
+        PeriodSummaryBuilder fromLedger = new PeriodSummaryBuilder();
+        PeriodSummaryBuilder fromRows = new PeriodSummaryBuilder();
+        for (int[] range : ranges) {
+            fromLedger.addPeriod(range[0], range[1], range[2], range[3]);
+            fromRows.addPeriod(range[0], range[1], range[2], range[3]);
+        }
+        assertEquals(TODAY - 141, fromLedger.getScanStartDay());
+        assertEquals(TODAY, fromLedger.getScanEndDay());
+        ledger.scan(fromLedger.getScanStartDay(), fromLedger.getScanEndDay(), fromLedger);
+        rows.forEach(fromRows::accept);
+
+        List<PeriodSummary> scanned = fromLedger.build(id -> "c" + id);
+        List<PeriodSummary> accepted = fromRows.build(id -> "c" + id);
+        for (int p = 0; p < ranges.length; p++) {
+            int[] range = ranges[p];
+            // Long ranges skip the scan and read the daily index instead; all three must agree
+            PeriodSummary indexed = ledger.getPeriodSummary(range[0], range[1], range[2], range[3], id -> "c" + id);
+            for (PeriodSummary summary : new PeriodSummary[]{scanned.get(p), accepted.get(p), indexed}) {
+                assertEquals(ledger.getTotal("INCOME", range[0], range[1]), summary.getIncomeCents());
+                assertEquals(ledger.getTotal("EXPENSE", range[0], range[1]), summary.getExpenseCents());
+                assertEquals(ledger.getTotal("INCOME", range[2], range[3]), summary.getPreviousIncomeCents());
+                assertEquals(ledger.getTotal("EXPENSE", range[2], range[3]), summary.getPreviousExpenseCents());
+
+                List<CategoryTotal> expected = ledger.getCategoryTotals("EXPENSE", range[0], range[1], id -> "c" + id);
+                assertEquals(expected.size(), summary.getExpenseTotals().size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).getTotalCents(), summary.getExpenseTotals().get(i).getTotalCents());
+                }
+            }
+        }
+    }
+}
@@ -22,4 +22,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Finance Manager"
 include(":app")
+include(":ledger-core")
  
\ No newline at end of file